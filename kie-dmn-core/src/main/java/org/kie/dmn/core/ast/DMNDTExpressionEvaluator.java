@@ -59,10 +59,12 @@ public class DMNDTExpressionEvaluator
             Object[] params = new Object[paramNames.size()];
             EvaluationContextImpl ctx = new EvaluationContextImpl( feel.getEventsManager() );
             for ( int i = 0; i < params.length; i++ ) {
-                params[i] = feel.evaluate( paramNames.get( i ), result.getContext().getAll() );
+                params[i] = result.getContext().get( paramNames.get( i ) );
                 ctx.setValue( paramNames.get( i ), params[i] );
             }
-            Object dtr = dt.invoke( ctx, params ).cata( e -> { events.add( e); return null; }, Function.identity());
+            // the matched rules are only reported to the runtime listeners
+            boolean reportAllMatches = !eventManager.getListeners().isEmpty();
+            Object dtr = dt.invokeReportingMatches( ctx, params, reportAllMatches ).cata( e -> { events.add( e); return null; }, Function.identity());
             r = processEvents( events, eventManager, result );
             return new EvaluatorResult( dtr, r.hasErrors ? ResultType.FAILURE : ResultType.SUCCESS );
         } finally {
@@ -30,7 +30,10 @@ import org.kie.dmn.core.impl.FeelTypeImpl;
 import org.kie.dmn.feel.FEEL;
 import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.lang.impl.MapBackedType;
 import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.model.v1_1.*;
 import org.kie.dmn.feel.parser.feel11.FEELParser;
@@ -47,7 +50,9 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.stream.Collectors.toList;
@@ -56,6 +61,68 @@ public class DMNCompilerImpl implements DMNCompiler {
 
     private static final Logger logger = LoggerFactory.getLogger( DMNCompilerImpl.class );
 
+    /**
+     * System property that sets the default {@link NumericMode} of the
+     * models compiled by new compilers, e.g. DOUBLE
+     */
+    public static final String NUMERIC_MODE_PROPERTY = "org.kie.dmn.compiler.numericMode";
+
+    /**
+     * System property that sets the number of rules from which the decision
+     * tables of the models compiled by new compilers are compiled into
+     * decision trees; unset or 0 disables them
+     */
+    public static final String DECISION_TREE_THRESHOLD_PROPERTY = "org.kie.dmn.compiler.decisionTreeThreshold";
+
+    private NumericMode numericMode = defaultNumericMode();
+    private int decisionTreeThreshold = Integer.getInteger( DECISION_TREE_THRESHOLD_PROPERTY, 0 );
+
+    public DMNCompilerImpl() {
+        // parsing of the first models is otherwise slowed down by the cold parser caches
+        FEELParser.warmUp();
+    }
+
+    private static NumericMode defaultNumericMode() {
+        String mode = System.getProperty( NUMERIC_MODE_PROPERTY );
+        if ( mode == null ) {
+            return NumericMode.DECIMAL;
+        }
+        try {
+            return NumericMode.valueOf( mode.trim().toUpperCase() );
+        } catch ( IllegalArgumentException e ) {
+            logger.error( "Invalid value '" + mode + "' for " + NUMERIC_MODE_PROPERTY + ", using " + NumericMode.DECIMAL );
+            return NumericMode.DECIMAL;
+        }
+    }
+
+    /**
+     * Sets how the expressions of the models compiled from now on evaluate
+     * numbers. {@link NumericMode#DOUBLE} trades the precision of the
+     * decimal arithmetic for speed; the decision results are BigDecimals
+     * in both modes.
+     */
+    public void setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode;
+    }
+
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
+
+    /**
+     * Sets the number of rules from which the decision tables of the models
+     * compiled from now on are matched by walking a decision tree over their
+     * inputs, instead of their list of rules; 0 disables the trees. The depth
+     * and number of nodes of each tree are logged as it is built.
+     */
+    public void setDecisionTreeThreshold(int decisionTreeThreshold) {
+        this.decisionTreeThreshold = decisionTreeThreshold;
+    }
+
+    public int getDecisionTreeThreshold() {
+        return decisionTreeThreshold;
+    }
+
     @Override
     public DMNModel compile(Resource resource) {
         try {
@@ -286,7 +353,8 @@ public class DMNCompilerImpl implements DMNCompiler {
     }
 
     private DMNExpressionEvaluator compileExpression(DMNModelImpl model, DMNBaseNode node, String exprName, Expression expression) {
-        FEEL feel = FEEL.newInstance();
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        feel.setNumericMode( numericMode );
         if( expression instanceof LiteralExpression ) {
             return compileLiteralExpression( node, (LiteralExpression) expression, feel );
         } else if( expression instanceof DecisionTable ) {
@@ -388,11 +456,24 @@ public class DMNCompilerImpl implements DMNCompiler {
 
     private DMNExpressionEvaluator compileDecisionTable(DMNBaseNode node, String dtName, DecisionTable expression, FEEL feel) {
         DecisionTable dt = expression;
+        List<String> parameterNames = new ArrayList<>( );
+        if( node instanceof BusinessKnowledgeModelNode ) {
+            // need to break this statement down and check for nulls
+            parameterNames.addAll( ((BusinessKnowledgeModelNode) node).getBusinessKnowledModel().getEncapsulatedLogic().getFormalParameter().stream().map( f -> f.getName() ).collect(toList()) );
+        } else {
+            parameterNames.addAll( node.getDependencies().keySet() );
+        }
+        // input expressions, output entries and default outputs are compiled once, against the table parameters
+        CompilerContext compilerCtx = feel.newCompilerContext();
+        parameterNames.forEach( name -> {
+            // TODO: need to properly resolve types of BKM parameters here
+            compilerCtx.addInputVariableType( name, resolveFeelType( node.getDependencies().get( name ) ) );
+        } );
         List<DTInputClause> inputs = new ArrayList<>(  );
         for( InputClause ic : dt.getInput() ) {
             String inputExpressionText = ic.getInputExpression().getText();
             String inputValuesText =  Optional.ofNullable( ic.getInputValues() ).map( UnaryTests::getText).orElse( null);
-            inputs.add( new DTInputClause(inputExpressionText, inputValuesText, textToUnaryTestList(inputValuesText) ) );
+            inputs.add( new DTInputClause(inputExpressionText, inputValuesText, textToUnaryTestList(inputValuesText), feel.compile( inputExpressionText, compilerCtx ) ) );
         }
         List<DTOutputClause> outputs = new ArrayList<>(  );
         for( OutputClause oc : dt.getOutput() ) {
@@ -400,33 +481,39 @@ public class DMNCompilerImpl implements DMNCompiler {
             String id = oc.getId();
             String outputValuesText =  Optional.ofNullable( oc.getOutputValues() ).map(UnaryTests::getText).orElse(null);
             String defaultValue = oc.getDefaultOutputEntry() != null ? oc.getDefaultOutputEntry().getText() : null;
-            outputs.add( new DTOutputClause(outputName, id, (List<String>) feel.evaluate("["+outputValuesText+"]"), defaultValue ) );         // TODO another hack to be revised
+            CompiledExpression compiledDefault = defaultValue != null ? feel.compile( defaultValue, compilerCtx ) : null;
+            outputs.add( new DTOutputClause(outputName, id, (List<String>) feel.evaluate("["+outputValuesText+"]"), defaultValue, compiledDefault ) );         // TODO another hack to be revised
         }
         List<DTDecisionRule> rules = new ArrayList<>(  );
+        // the same entry text in a column compiles to a single entry, shared by its rules
+        List<Map<String, DTInputEntry>> entriesByText = new ArrayList<>();
         int index = 0;
         for( DecisionRule dr : dt.getRule() ) {
             DTDecisionRule rule = new DTDecisionRule( index++ );
+            int column = 0;
             for( UnaryTests ut : dr.getInputEntry() ) {
-                List<UnaryTest> tests = textToUnaryTestList( ut.getText() );
-                rule.getInputEntry().add( (c, x) -> tests.stream().anyMatch( t -> t.apply( c, x ) ) );
+                if ( entriesByText.size() <= column ) {
+                    entriesByText.add( new HashMap<>() );
+                }
+                rule.getInputEntry().add( entriesByText.get( column++ ).computeIfAbsent( ut.getText() != null ? ut.getText() : "", DMNCompilerImpl::toInputEntry ) );
             }
             for( LiteralExpression le : dr.getOutputEntry() ) {
-                // we might want to compile and save the compiled expression here
-                rule.getOutputEntry().add( le.getText() );
+                rule.getOutputEntry().add( feel.compile( le.getText(), compilerCtx ) );
             }
             rules.add( rule );
         }
         String policy = dt.getHitPolicy().value() + (dt.getAggregation() != null ? " " + dt.getAggregation().value() : "");
         HitPolicy hp = HitPolicy.fromString( policy );
-        List<String> parameterNames = new ArrayList<>( );
-        if( node instanceof BusinessKnowledgeModelNode ) {
-            // need to break this statement down and check for nulls
-            parameterNames.addAll( ((BusinessKnowledgeModelNode) node).getBusinessKnowledModel().getEncapsulatedLogic().getFormalParameter().stream().map( f -> f.getName() ).collect(toList()) );
-        } else {
-            parameterNames.addAll( node.getDependencies().keySet() );
-        }
 
         DecisionTableImpl dti = new DecisionTableImpl( dtName, parameterNames, inputs, outputs, rules, hp );
+        // FIRST tables already stop matching at their first hit
+        if ( decisionTreeThreshold > 0 && rules.size() >= decisionTreeThreshold && hp != HitPolicy.FIRST ) {
+            dti.setDecisionTreeMatching( true );
+            if ( dti.isDecisionTreeMatching() ) {
+                logger.info( "Decision table '" + dtName + "' compiled into a decision tree of depth " + dti.getDecisionTreeDepth() +
+                             " with " + dti.getDecisionTreeNodeCount() + " nodes" );
+            }
+        }
         DTInvokerFunction dtf = new DTInvokerFunction( dti );
         DMNDTExpressionEvaluator dtee = new DMNDTExpressionEvaluator( node, dtf );
         return dtee;
@@ -435,14 +522,53 @@ public class DMNCompilerImpl implements DMNCompiler {
     private DMNExpressionEvaluator compileLiteralExpression(DMNBaseNode node, LiteralExpression expression, FEEL feel) {
         CompilerContext ctx = feel.newCompilerContext();
         node.getDependencies().forEach( (name, depNode) -> {
-            // TODO: need to properly resolve types here
-            ctx.addInputVariableType( name, BuiltInType.UNKNOWN );
+            ctx.addInputVariableType( name, resolveFeelType( depNode ) );
         } );
         CompiledExpression compiledExpression = feel.compile( expression.getText(), ctx );
         DMNLiteralExpressionEvaluator evaluator = new DMNLiteralExpressionEvaluator( compiledExpression );
         return evaluator;
     }
 
+    /**
+     * Returns the FEEL type of the value a dependency provides to an expression,
+     * so that expressions can be compiled for it
+     */
+    private static Type resolveFeelType(DMNNode dependency) {
+        if ( dependency instanceof InputDataNode ) {
+            return toFeelType( ((InputDataNode) dependency).getDmnType() );
+        } else if ( dependency instanceof DecisionNode ) {
+            return toFeelType( ((DecisionNode) dependency).getResultType() );
+        } else if ( dependency instanceof BusinessKnowledgeModelNode ) {
+            // business knowledge models are always invoked as functions
+            return BuiltInType.FUNCTION;
+        }
+        return BuiltInType.UNKNOWN;
+    }
+
+    private static Type toFeelType(DMNType type) {
+        if ( type == null ) {
+            return BuiltInType.UNKNOWN;
+        } else if ( type.isCollection() ) {
+            return BuiltInType.LIST;
+        } else if ( type instanceof FeelTypeImpl ) {
+            Type feelType = ((FeelTypeImpl) type).getFeelType();
+            return feelType != null ? feelType : BuiltInType.UNKNOWN;
+        } else if ( type instanceof CompositeTypeImpl ) {
+            MapBackedType composite = new MapBackedType();
+            type.getFields().forEach( (name, fieldType) -> composite.addField( name, toFeelType( fieldType ) ) );
+            return composite;
+        }
+        return BuiltInType.UNKNOWN;
+    }
+
+    private static DTInputEntry toInputEntry(String text) {
+        // dashes and constants are kept recognizable, so the table can index them
+        if ( text != null && "-".equals( text.trim() ) ) {
+            return DTInputEntry.ANY;
+        }
+        return new DTInputEntry( textToUnaryTestList( text ) );
+    }
+
     /**
      * TODO quick hack to parse values, in case they are a list
      * @param text
@@ -458,9 +584,9 @@ public class DMNCompilerImpl implements DMNCompiler {
             if ( o instanceof UnaryTest ) {
                 tests.add( (UnaryTest) o );
             } else if ( o instanceof Range ) {
-                tests.add( (c, x) -> x != null && ((Range) o).includes( (Comparable<?>) x ) );
+                tests.add( new DTInputEntry.IncludedInRange( (Range) o ) );
             } else {
-                tests.add( (c, x) -> x != null && x.equals( o ) );
+                tests.add( new DTInputEntry.EqualsConstant( o ) );
             }
         }
         return tests;
@@ -16,6 +16,7 @@
 
 package org.kie.dmn.core;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -266,4 +267,43 @@ public class DMNDecisionTableRuntimeTest {
         assertThat( captor.getAllValues().get( 1 ).getDecisionTableName(), is( "b" ) );
     }
 
+    @Test
+    public void testFirstHitPolicyStopsAtFirstMatch() {
+        DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "decisiontable-first-early-stop.dmn", this.getClass() );
+        DMNModel dmnModel = runtime.getModel( "https://github.com/droolsjbpm/kie-dmn", "decisiontable-first-early-stop" );
+        assertThat( dmnModel, notNullValue() );
+
+        DMNContext context = DMNFactory.newContext();
+        context.set( "Age", new BigDecimal( 20 ) );
+
+        // the second rule fails whenever it is tested, so it must not be
+        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
+        assertThat( dmnResult.getMessages().toString(), dmnResult.hasErrors(), is( false ) );
+        assertThat( dmnResult.getContext().get( "Age Group" ), is( "Adult" ) );
+
+        // listeners get all the matched rules, so every rule is tested
+        runtime.addListener( Mockito.mock( DMNRuntimeEventListener.class ) );
+        dmnResult = runtime.evaluateAll( dmnModel, context );
+        assertThat( dmnResult.hasErrors(), is( true ) );
+    }
+
+    @Test
+    public void testUniqueHitPolicyReportsEveryOverlappingRule() {
+        DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "decisiontable-unique-overlap.dmn", this.getClass() );
+        DMNModel dmnModel = runtime.getModel( "https://github.com/droolsjbpm/kie-dmn", "decisiontable-unique-overlap" );
+        assertThat( dmnModel, notNullValue() );
+
+        DMNContext context = DMNFactory.newContext();
+        context.set( "Age", new BigDecimal( 70 ) );
+
+        // without listeners matching may stop early, but not before every overlapping rule is found
+        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
+        assertThat( dmnResult.hasErrors(), is( true ) );
+        assertThat( dmnResult.getContext().get( "Age Group" ), nullValue() );
+        DMNMessage violation = dmnResult.getMessages().stream().filter( m -> m.getFeelEvent() instanceof HitPolicyViolationEvent ).findFirst().get();
+        assertThat( violation.getSeverity(), is( DMNMessage.Severity.ERROR ) );
+        assertThat( violation.getMessage(), containsString( "Matched rules: [1, 2, 3]" ) );
+        assertThat( ((HitPolicyViolationEvent) violation.getFeelEvent()).getOffendingRules(), is( Arrays.asList( 1, 2, 3 ) ) );
+    }
+
 }
@@ -17,9 +17,13 @@
 package org.kie.dmn.core;
 
 import org.junit.Test;
+import org.kie.api.KieServices;
 import org.kie.dmn.core.api.*;
 import org.kie.dmn.core.api.event.*;
+import org.kie.dmn.core.compiler.DMNCompilerImpl;
+import org.kie.dmn.core.impl.DMNRuntimeImpl;
 import org.kie.dmn.core.util.DMNRuntimeUtil;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
@@ -28,6 +32,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
@@ -57,6 +62,50 @@ public class DMNRuntimeTest {
         assertThat( result.get( "payment" ), is( new BigDecimal( "2778.693549432766720839844710324306" ) ) );
     }
 
+    @Test
+    public void testSimpleItemDefinitionInDoubleMode() {
+        DMNModel dmnModel = compileInDoubleMode( "0008-LX-arithmetic.dmn" );
+        assertThat( dmnModel, notNullValue() );
+
+        DMNContext context = DMNFactory.newContext();
+        Map loan = new HashMap();
+        loan.put( "principal", 600000 );
+        loan.put( "rate", 0.0375 );
+        loan.put( "termMonths", 360 );
+        context.set( "loan", loan );
+
+        DMNResult dmnResult = new DMNRuntimeImpl( null ).evaluateAll( dmnModel, context );
+
+        // the result is still a decimal, but only has the precision of a double
+        Object payment = dmnResult.getContext().get( "payment" );
+        assertThat( payment, is( instanceOf( BigDecimal.class ) ) );
+        assertThat( ((BigDecimal) payment).doubleValue(), is( closeTo( 2778.6935494327667, 1e-9 ) ) );
+    }
+
+    @Test
+    public void testDecisionTableInDoubleMode() {
+        DMNModel dmnModel = compileInDoubleMode( "decisiontable-next-birthday.dmn" );
+        assertThat( dmnModel, notNullValue() );
+        DMNRuntime runtime = new DMNRuntimeImpl( null );
+
+        DMNContext context = DMNFactory.newContext();
+        context.set( "Age", 25 );
+        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
+        assertThat( dmnResult.hasErrors(), is( false ) );
+        assertThat( dmnResult.getContext().get( "Next Birthday" ), is( "Twenty six" ) );
+
+        context = DMNFactory.newContext();
+        context.set( "Age", new BigDecimal( "25.5" ) );
+        dmnResult = runtime.evaluateAll( dmnModel, context );
+        assertThat( dmnResult.getContext().get( "Next Birthday" ), is( "Twenty six and a half" ) );
+    }
+
+    private DMNModel compileInDoubleMode(String resourceName) {
+        DMNCompilerImpl compiler = new DMNCompilerImpl();
+        compiler.setNumericMode( NumericMode.DOUBLE );
+        return compiler.compile( KieServices.Factory.get().getResources().newClassPathResource( resourceName, this.getClass() ) );
+    }
+
     @Test
     public void testTrisotechNamespace() {
         DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "trisotech_namespace.dmn", this.getClass() );
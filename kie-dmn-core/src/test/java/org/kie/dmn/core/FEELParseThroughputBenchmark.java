@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.core;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.kie.dmn.feel.parser.feel11.FEELParser;
+
+/**
+ * Measures the FEEL parsing throughput over the expressions found in the
+ * test models. Ignored by default, as it only prints the figures.
+ */
+@Ignore("benchmark")
+public class FEELParseThroughputBenchmark {
+
+    private static final Pattern TEXT = Pattern.compile( "<(?:\\w+:)?text>(.*?)</(?:\\w+:)?text>", Pattern.DOTALL );
+
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void testParseThroughput() throws Exception {
+        List<String> expressions = loadExpressions();
+        assertFalse( expressions.isEmpty() );
+
+        FEELParser.warmUp();
+        parseAll( expressions, ITERATIONS / 10 );
+
+        long start = System.nanoTime();
+        parseAll( expressions, ITERATIONS );
+        long elapsed = System.nanoTime() - start;
+
+        long parsed = (long) expressions.size() * ITERATIONS;
+        System.out.println( String.format( "Parsed %d expressions in %d ms: %.0f expressions/sec",
+                                           parsed, elapsed / 1000000, parsed * 1e9 / elapsed ) );
+    }
+
+    private static void parseAll(List<String> expressions, int iterations) {
+        for ( int i = 0; i < iterations; i++ ) {
+            for ( String expression : expressions ) {
+                FEELParser.parseCompilationUnit( null, expression, Collections.emptyMap(), Collections.emptyMap() );
+            }
+        }
+    }
+
+    private List<String> loadExpressions() throws Exception {
+        File dir = new File( getClass().getResource( "0001-input-data-string.dmn" ).toURI() ).getParentFile();
+        List<String> expressions = new ArrayList<>();
+        for ( File model : dir.listFiles( (d, name) -> name.endsWith( ".dmn" ) ) ) {
+            String xml = new String( Files.readAllBytes( model.toPath() ), StandardCharsets.UTF_8 );
+            Matcher m = TEXT.matcher( xml );
+            while ( m.find() ) {
+                String text = unescape( m.group( 1 ).trim() );
+                if ( !text.isEmpty() ) {
+                    // decision table cells may be unary tests, which only parse inside a list
+                    expressions.add( "[ " + text + " ]" );
+                }
+            }
+        }
+        return expressions;
+    }
+
+    private static String unescape(String text) {
+        return text.replace( "&lt;", "<" )
+                   .replace( "&gt;", ">" )
+                   .replace( "&quot;", "\"" )
+                   .replace( "&apos;", "'" )
+                   .replace( "&amp;", "&" );
+    }
+}
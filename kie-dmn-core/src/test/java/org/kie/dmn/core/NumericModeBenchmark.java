@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.core;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.kie.dmn.core.api.DMNContext;
+import org.kie.dmn.core.api.DMNFactory;
+import org.kie.dmn.core.api.DMNModel;
+import org.kie.dmn.core.api.DMNResult;
+import org.kie.dmn.core.api.DMNRuntime;
+import org.kie.dmn.core.compiler.DMNCompilerImpl;
+import org.kie.dmn.core.util.DMNRuntimeUtil;
+import org.kie.dmn.feel.lang.NumericMode;
+
+/**
+ * Compares the evaluation throughput of an arithmetic model compiled in
+ * each {@link NumericMode}. Ignored by default, as it only prints the figures.
+ */
+@Ignore("benchmark")
+public class NumericModeBenchmark {
+
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void testArithmeticThroughput() {
+        for ( NumericMode mode : NumericMode.values() ) {
+            DMNRuntime runtime = createRuntime( mode );
+            DMNModel model = runtime.getModel( "https://github.com/droolsjbpm/kie-dmn", "0008-LX-arithmetic" );
+
+            evaluate( runtime, model, ITERATIONS / 10 );
+
+            long start = System.nanoTime();
+            DMNResult result = evaluate( runtime, model, ITERATIONS );
+            long elapsed = System.nanoTime() - start;
+
+            assertFalse( result.hasErrors() );
+            System.out.println( String.format( "%s: %d evaluations in %d ms: %.0f evaluations/sec, payment = %s",
+                                               mode, ITERATIONS, elapsed / 1000000, ITERATIONS * 1e9 / elapsed,
+                                               result.getContext().get( "payment" ) ) );
+        }
+    }
+
+    private DMNRuntime createRuntime(NumericMode mode) {
+        System.setProperty( DMNCompilerImpl.NUMERIC_MODE_PROPERTY, mode.name() );
+        try {
+            return DMNRuntimeUtil.createRuntime( "0008-LX-arithmetic.dmn", getClass() );
+        } finally {
+            System.clearProperty( DMNCompilerImpl.NUMERIC_MODE_PROPERTY );
+        }
+    }
+
+    private static DMNResult evaluate(DMNRuntime runtime, DMNModel model, int iterations) {
+        DMNResult result = null;
+        for ( int i = 0; i < iterations; i++ ) {
+            DMNContext context = DMNFactory.newContext();
+            Map<String, Object> loan = new HashMap<>();
+            loan.put( "principal", 600000 + i % 1000 );
+            loan.put( "rate", 0.0375 );
+            loan.put( "termMonths", 360 );
+            context.set( "loan", loan );
+            result = runtime.evaluateAll( model, context );
+        }
+        return result;
+    }
+}
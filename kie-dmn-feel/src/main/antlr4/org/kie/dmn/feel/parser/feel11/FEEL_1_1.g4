@@ -20,6 +20,10 @@ grammar FEEL_1_1;
         return helper;
     }
 
+    public void setHelper( ParserHelper helper ) {
+        this.helper = helper;
+    }
+
     private boolean isKeyword( Keywords k ) {
         return k.symbol.equals( _input.LT(1).getText() );
     }
@@ -28,4 +28,8 @@ public interface CompilerContext {
 
     Map<String, Object> getInputVariables();
 
+    CompilerContext setNumericMode( NumericMode numericMode );
+
+    NumericMode getNumericMode();
+
 }
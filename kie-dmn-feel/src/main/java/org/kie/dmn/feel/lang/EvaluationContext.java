@@ -41,6 +41,13 @@ public interface EvaluationContext {
     Map<String, Object> getAllValues();
 
     FEELEventListenersManager getEventsManager();
+
+    /**
+     * The representation of numbers for the expressions evaluated in this context
+     */
+    default NumericMode getNumericMode() {
+        return NumericMode.DECIMAL;
+    }
     
     default void notifyEvt(Supplier<FEELEvent> event) {
         FEELEventListenersManager.notifyListeners(getEventsManager(), event);
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.lang;
+
+/**
+ * How numbers are represented while an expression is evaluated.
+ */
+public enum NumericMode {
+
+    /**
+     * Numbers are BigDecimals and the arithmetic is performed with
+     * the precision of {@link java.math.MathContext#DECIMAL128}, as
+     * required by the specification. This is the default.
+     */
+    DECIMAL,
+
+    /**
+     * Numbers are evaluated as doubles: literals, input variables and
+     * the results of the arithmetic operators, of sum() and of mean()
+     * are Doubles while the expression is evaluated, and are converted
+     * back to BigDecimals in the result of the evaluation.
+     *
+     * This is faster, but approximate: results may differ from the
+     * DECIMAL mode after the 15th significant digit, and decimal
+     * fractions are not exact (e.g., 0.1 + 0.2 is 0.30000000000000004).
+     * Operations whose result is not finite, like a division by zero,
+     * return null.
+     */
+    DOUBLE
+}
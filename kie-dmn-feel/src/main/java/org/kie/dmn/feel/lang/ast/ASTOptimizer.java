@@ -0,0 +1,609 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.CustomType;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Property;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+import org.kie.dmn.feel.runtime.FEELFunction;
+import org.kie.dmn.feel.runtime.functions.AllFunction;
+import org.kie.dmn.feel.runtime.functions.AnyFunction;
+import org.kie.dmn.feel.runtime.functions.BuiltInFunctions;
+import org.kie.dmn.feel.runtime.functions.CountFunction;
+import org.kie.dmn.feel.runtime.functions.DecisionTableFunction;
+import org.kie.dmn.feel.runtime.functions.MatchesFunction;
+import org.kie.dmn.feel.runtime.functions.MaxFunction;
+import org.kie.dmn.feel.runtime.functions.MeanFunction;
+import org.kie.dmn.feel.runtime.functions.MinFunction;
+import org.kie.dmn.feel.runtime.functions.NowFunction;
+import org.kie.dmn.feel.runtime.functions.PatternCache;
+import org.kie.dmn.feel.runtime.functions.ReplaceFunction;
+import org.kie.dmn.feel.runtime.functions.SumFunction;
+import org.kie.dmn.feel.runtime.impl.RangeImpl;
+import org.kie.dmn.feel.util.EvalHelper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Optimizes an AST after it is built: constant subexpressions,
+ * including calls to deterministic built-in functions, are
+ * pre-evaluated into {@link ConstantNode}s and literal values
+ * are shared through a literal pool.
+ *
+ * A subexpression is only folded if its evaluation raises no
+ * events and produces an immutable value, so that results and
+ * events are the same as if the expression was not optimized.
+ *
+ * When the types of the input variables are known, nodes are
+ * also specialized for them: arithmetic and comparisons between
+ * numbers become {@link NumericInfixOpNode}s and qualified names
+ * over composite types become {@link CompositeFieldAccessNode}s.
+ * Calls to built-in functions that no variable declared at compile
+ * time shadows are bound to the function directly, and the names of
+ * those functions are kept, so that the expression is not optimized
+ * when evaluated with a variable shadowing them. Literal regular
+ * expressions given to matches() and replace() are compiled once.
+ * The names each filter references are collected, so that only
+ * those are looked up in the elements being filtered.
+ *
+ * Constants are folded in the numeric mode the expression will be
+ * evaluated in, so folding does not change the results.
+ */
+public class ASTOptimizer {
+
+    private static final int                 MAX_POOLED_LITERALS = 10000;
+    private static final Map<Object, Object> LITERAL_POOL        = new ConcurrentHashMap<>();
+
+    private static final Map<String, FEELFunction> BUILT_IN_FUNCTIONS = new HashMap<>();
+    private static final Map<String, FEELFunction> FOLDABLE_FUNCTIONS = new HashMap<>();
+
+    static {
+        for ( FEELFunction f : BuiltInFunctions.getFunctions() ) {
+            BUILT_IN_FUNCTIONS.put( EvalHelper.normalizeVariableName( f.getName() ), f );
+            // now() changes on every call, and decision table() creates a new function each time
+            if ( !(f instanceof NowFunction) && !(f instanceof DecisionTableFunction) ) {
+                FOLDABLE_FUNCTIONS.put( EvalHelper.normalizeVariableName( f.getName() ), f );
+            }
+        }
+    }
+
+    // names that may shadow a built-in function at runtime
+    private final Set<String>       definedNames = new HashSet<>();
+    // names defined by the expression itself, that may shadow an input variable
+    private final Set<String>       localNames   = new HashSet<>();
+    private final Map<String, Type> inputTypes   = new HashMap<>();
+    // built-in functions bound or folded, as no variable shadows them at compile time
+    private final Set<String>       builtInNames = new HashSet<>();
+    private final NumericMode       numericMode;
+    private       int               foldedNodes      = 0;
+    private       int               specializedNodes = 0;
+
+    public ASTOptimizer(Collection<String> inputVariables) {
+        this( inputVariables, Collections.emptyMap() );
+    }
+
+    public ASTOptimizer(Collection<String> inputVariables, Map<String, Type> inputVariableTypes) {
+        this( inputVariables, inputVariableTypes, NumericMode.DECIMAL );
+    }
+
+    public ASTOptimizer(Collection<String> inputVariables, Map<String, Type> inputVariableTypes, NumericMode numericMode) {
+        this.numericMode = numericMode;
+        inputVariables.forEach( name -> definedNames.add( EvalHelper.normalizeVariableName( name ) ) );
+        inputVariableTypes.forEach( (name, type) -> {
+            if ( type != null && type != BuiltInType.UNKNOWN ) {
+                inputTypes.put( EvalHelper.normalizeVariableName( name ), type );
+            }
+        } );
+    }
+
+    public BaseNode optimize(BaseNode node) {
+        collectDefinedNames( node );
+        return fold( node, false );
+    }
+
+    /**
+     * Returns the number of nodes folded into constants so far
+     */
+    public int getFoldedNodes() {
+        return foldedNodes;
+    }
+
+    /**
+     * Returns the number of nodes specialized for the types of their operands so far
+     */
+    public int getSpecializedNodes() {
+        return specializedNodes;
+    }
+
+    /**
+     * Returns the names of the built-in functions whose calls were bound or
+     * folded. The optimized expression is only valid while no variable
+     * given on evaluation shadows them.
+     */
+    public Set<String> getBuiltInNames() {
+        return builtInNames;
+    }
+
+    private BaseNode fold(BaseNode node, boolean inFilter) {
+        if ( node == null ) {
+            return null;
+        } else if ( node instanceof NumberNode ) {
+            NumberNode n = (NumberNode) node;
+            n.setValue( (BigDecimal) pool( n.getValue() ) );
+            return n;
+        } else if ( node instanceof StringNode ) {
+            return new ConstantNode( node, pool( node.evaluate( null ) ) );
+        } else if ( node instanceof InfixOpNode ) {
+            InfixOpNode n = (InfixOpNode) node;
+            n.setLeft( fold( n.getLeft(), inFilter ) );
+            n.setRight( fold( n.getRight(), inFilter ) );
+            if ( isConstant( n.getLeft() ) && isConstant( n.getRight() ) ) {
+                BaseNode folded = tryFold( n );
+                if ( folded != n ) {
+                    return folded;
+                }
+            }
+            return specialize( n );
+        } else if ( node instanceof NameRefNode ) {
+            NameRefNode n = (NameRefNode) node;
+            n.setResultType( typeOf( n.getVariableName(), inFilter ) );
+        } else if ( node instanceof QualifiedNameNode ) {
+            return specialize( (QualifiedNameNode) node, inFilter );
+        } else if ( node instanceof SignedUnaryNode ) {
+            SignedUnaryNode n = (SignedUnaryNode) node;
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+            return isConstant( n.getExpression() ) ? tryFold( n ) : n;
+        } else if ( node instanceof ListNode ) {
+            ListNode n = (ListNode) node;
+            foldElements( n.getElements(), inFilter );
+            return n.getElements().stream().allMatch( e -> e == null || isConstant( e ) ) ? tryFold( n ) : n;
+        } else if ( node instanceof RangeNode ) {
+            RangeNode n = (RangeNode) node;
+            n.setStart( fold( n.getStart(), inFilter ) );
+            n.setEnd( fold( n.getEnd(), inFilter ) );
+            return isConstant( n.getStart() ) && isConstant( n.getEnd() ) ? tryFold( n ) : n;
+        } else if ( node instanceof FunctionInvocationNode ) {
+            FunctionInvocationNode n = (FunctionInvocationNode) node;
+            foldElements( n.getParams().getElements(), inFilter );
+            if ( isFoldableInvocation( n, inFilter ) ) {
+                BaseNode folded = tryFold( n );
+                if ( folded != n ) {
+                    builtInNames.add( ((NameRefNode) n.getName()).getVariableName() );
+                    return folded;
+                }
+            }
+            bindBuiltInFunction( n, inFilter );
+            return n;
+        } else if ( node instanceof IfExpressionNode ) {
+            IfExpressionNode n = (IfExpressionNode) node;
+            n.setCondition( fold( n.getCondition(), inFilter ) );
+            n.setThenExpression( fold( n.getThenExpression(), inFilter ) );
+            n.setElseExpression( fold( n.getElseExpression(), inFilter ) );
+        } else if ( node instanceof BetweenNode ) {
+            BetweenNode n = (BetweenNode) node;
+            n.setValue( fold( n.getValue(), inFilter ) );
+            n.setStart( fold( n.getStart(), inFilter ) );
+            n.setEnd( fold( n.getEnd(), inFilter ) );
+        } else if ( node instanceof InNode ) {
+            InNode n = (InNode) node;
+            n.setValue( fold( n.getValue(), inFilter ) );
+            n.setExprs( fold( n.getExprs(), inFilter ) );
+        } else if ( node instanceof UnaryTestNode ) {
+            UnaryTestNode n = (UnaryTestNode) node;
+            n.setValue( fold( n.getValue(), inFilter ) );
+        } else if ( node instanceof ContextNode ) {
+            for ( ContextEntryNode entry : ((ContextNode) node).getEntries() ) {
+                // entry names are never folded, as they define the context keys
+                entry.setValue( fold( entry.getValue(), inFilter ) );
+            }
+        } else if ( node instanceof ForExpressionNode ) {
+            ForExpressionNode n = (ForExpressionNode) node;
+            n.getIterationContexts().forEach( ic -> ic.setExpression( fold( ic.getExpression(), inFilter ) ) );
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+        } else if ( node instanceof QuantifiedExpressionNode ) {
+            QuantifiedExpressionNode n = (QuantifiedExpressionNode) node;
+            n.getIterationContexts().forEach( ic -> ic.setExpression( fold( ic.getExpression(), inFilter ) ) );
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+        } else if ( node instanceof FilterExpressionNode ) {
+            FilterExpressionNode n = (FilterExpressionNode) node;
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+            // the keys of each filtered item become variables, so they may shadow built-ins
+            n.setFilter( fold( n.getFilter(), true ) );
+            n.setReferencedNames( referencedNames( n.getFilter() ) );
+        } else if ( node instanceof PathExpressionNode ) {
+            PathExpressionNode n = (PathExpressionNode) node;
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+        } else if ( node instanceof FunctionDefNode ) {
+            FunctionDefNode n = (FunctionDefNode) node;
+            n.setBody( fold( n.getBody(), inFilter ) );
+        } else if ( node instanceof InstanceOfNode ) {
+            InstanceOfNode n = (InstanceOfNode) node;
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+        } else if ( node instanceof NamedParameterNode ) {
+            NamedParameterNode n = (NamedParameterNode) node;
+            n.setExpression( fold( n.getExpression(), inFilter ) );
+        }
+        return node;
+    }
+
+    private void foldElements(List<BaseNode> elements, boolean inFilter) {
+        for ( int i = 0; i < elements.size(); i++ ) {
+            elements.set( i, fold( elements.get( i ), inFilter ) );
+        }
+    }
+
+    private boolean isFoldableInvocation(FunctionInvocationNode n, boolean inFilter) {
+        if ( inFilter || !(n.getName() instanceof NameRefNode) ) {
+            return false;
+        }
+        String name = ((NameRefNode) n.getName()).getVariableName();
+        return FOLDABLE_FUNCTIONS.containsKey( name ) &&
+               !definedNames.contains( name ) &&
+               n.getParams().getElements().stream().allMatch( this::isConstant );
+    }
+
+    private BaseNode specialize(InfixOpNode n) {
+        if ( NumericInfixOpNode.isNumericOperator( n.getOperator() ) &&
+             n.getLeft().getResultType() == BuiltInType.NUMBER &&
+             n.getRight().getResultType() == BuiltInType.NUMBER ) {
+            specializedNodes++;
+            return new NumericInfixOpNode( n );
+        }
+        return n;
+    }
+
+    private BaseNode specialize(QualifiedNameNode n, boolean inFilter) {
+        List<NameRefNode> parts = n.getParts();
+        NameRefNode root = parts.get( 0 );
+        root.setResultType( typeOf( root.getVariableName(), inFilter ) );
+        Type type = root.getResultType();
+        for ( int i = 1; i < parts.size(); i++ ) {
+            Property field = type instanceof CustomType ? findField( (CustomType) type, parts.get( i ).getVariableName() ) : null;
+            if ( field == null ) {
+                return n;
+            }
+            type = field.getType() != null ? field.getType() : BuiltInType.UNKNOWN;
+        }
+        specializedNodes++;
+        return new CompositeFieldAccessNode( n, type );
+    }
+
+    private Property findField(CustomType type, String name) {
+        for ( Property p : type.getProperties().values() ) {
+            if ( name.equals( EvalHelper.normalizeVariableName( p.getName() ) ) ) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the declared type of the input variable with the given name, unless
+     * it may be shadowed by a name defined in the expression or by a filtered item
+     */
+    private Type typeOf(String name, boolean inFilter) {
+        if ( inFilter || localNames.contains( name ) ) {
+            return null;
+        }
+        return inputTypes.get( name );
+    }
+
+    /**
+     * Binds calls to built-in functions whose name can not be shadowed,
+     * so they do not need to be looked up on every evaluation
+     */
+    private void bindBuiltInFunction(FunctionInvocationNode n, boolean inFilter) {
+        if ( inFilter || !(n.getName() instanceof NameRefNode) ) {
+            return;
+        }
+        String name = ((NameRefNode) n.getName()).getVariableName();
+        FEELFunction function = BUILT_IN_FUNCTIONS.get( name );
+        if ( function != null && !definedNames.contains( name ) ) {
+            n.setBoundFunction( function );
+            builtInNames.add( name );
+            specializedNodes++;
+            if ( function instanceof MatchesFunction ) {
+                compilePattern( n, 2 );
+            } else if ( function instanceof ReplaceFunction ) {
+                compilePattern( n, 3 );
+            } else if ( isSinglePassAggregate( function ) ) {
+                List<BaseNode> params = n.getParams().getElements();
+                if ( params.size() == 1 && params.get( 0 ) instanceof SequenceNode ) {
+                    // the list is consumed as it is produced, without building it
+                    n.setLazyArguments( true );
+                }
+            }
+        }
+    }
+
+    private static boolean isSinglePassAggregate(FEELFunction function) {
+        return function instanceof SumFunction || function instanceof MeanFunction ||
+               function instanceof MinFunction || function instanceof MaxFunction ||
+               function instanceof CountFunction || function instanceof AllFunction ||
+               function instanceof AnyFunction;
+    }
+
+    /**
+     * Compiles the literal pattern of a bound matches() or replace() call,
+     * passing the compiled pattern in place of the pattern and its flags.
+     * Invalid patterns are left alone, so they are reported on evaluation.
+     */
+    private void compilePattern(FunctionInvocationNode n, int flagsIndex) {
+        List<BaseNode> params = n.getParams().getElements();
+        if ( params.size() != flagsIndex && params.size() != flagsIndex + 1 ) {
+            return;
+        }
+        BaseNode pattern = params.get( 1 );
+        BaseNode flags = params.size() > flagsIndex ? params.get( flagsIndex ) : null;
+        if ( !isStringConstant( pattern ) || (flags != null && !isStringConstant( flags ) && !(flags instanceof NullNode)) ) {
+            return;
+        }
+        try {
+            String f = flags instanceof ConstantNode ? (String) ((ConstantNode) flags).getValue() : null;
+            Pattern compiled = Pattern.compile( (String) ((ConstantNode) pattern).getValue(), PatternCache.toFlags( f ) );
+            List<BaseNode> bound = new ArrayList<>( params.subList( 0, flagsIndex ) );
+            bound.set( 1, new ConstantNode( pattern, compiled ) );
+            n.getParams().setElements( bound );
+        } catch ( PatternSyntaxException e ) {
+            // not compiled: the error is raised when the expression is evaluated
+        }
+    }
+
+    private static boolean isStringConstant(BaseNode node) {
+        return node instanceof ConstantNode && ((ConstantNode) node).getValue() instanceof String;
+    }
+
+    private boolean isConstant(BaseNode node) {
+        return node instanceof ConstantNode ||
+               node instanceof NumberNode ||
+               node instanceof BooleanNode ||
+               node instanceof NullNode;
+    }
+
+    /**
+     * Evaluates the node and replaces it by a constant, unless
+     * the evaluation raised events or produced a mutable value
+     */
+    private BaseNode tryFold(BaseNode node) {
+        AtomicBoolean notified = new AtomicBoolean( false );
+        FEELEventListenersManager events = new FEELEventListenersManager();
+        events.addListener( evt -> notified.set( true ) );
+        try {
+            Object value = node.evaluate( new EvaluationContextImpl( events, numericMode ) );
+            if ( !notified.get() && isImmutable( value, true ) ) {
+                foldedNodes++;
+                return new ConstantNode( node, pool( value ) );
+            }
+        } catch ( RuntimeException e ) {
+            // not folded: the error is raised again when the expression is evaluated
+        }
+        return node;
+    }
+
+    private boolean isImmutable(Object value, boolean allowList) {
+        if ( value == null ||
+             value instanceof BigDecimal ||
+             value instanceof Double ||
+             value instanceof String ||
+             value instanceof Boolean ||
+             value instanceof LocalDate ||
+             value instanceof LocalTime ||
+             value instanceof LocalDateTime ||
+             value instanceof OffsetTime ||
+             value instanceof OffsetDateTime ||
+             value instanceof ZonedDateTime ||
+             value instanceof Duration ||
+             value instanceof Period ) {
+            return true;
+        } else if ( value instanceof RangeImpl ) {
+            RangeImpl range = (RangeImpl) value;
+            return isImmutable( range.getLowEndPoint(), false ) && isImmutable( range.getHighEndPoint(), false );
+        } else if ( allowList && value instanceof List ) {
+            // constant lists are copied on every evaluation, so only their elements need to be immutable
+            return ((List<?>) value).stream().allMatch( e -> isImmutable( e, false ) );
+        }
+        return false;
+    }
+
+    private static Object pool(Object value) {
+        if ( value instanceof BigDecimal || value instanceof String ) {
+            Object pooled = LITERAL_POOL.get( value );
+            if ( pooled != null ) {
+                return pooled;
+            }
+            if ( LITERAL_POOL.size() < MAX_POOLED_LITERALS ) {
+                pooled = LITERAL_POOL.putIfAbsent( value, value );
+                return pooled != null ? pooled : value;
+            }
+        }
+        return value;
+    }
+
+    private void defineLocal(String name) {
+        String normalized = EvalHelper.normalizeVariableName( name );
+        definedNames.add( normalized );
+        localNames.add( normalized );
+    }
+
+    /**
+     * Returns the names the given filter may resolve against the elements it
+     * filters, or null if they can not be known, as when the filter invokes a
+     * function other than a built-in, whose body resolves names in the scope
+     * it is invoked from.
+     */
+    private static Set<String> referencedNames(BaseNode filter) {
+        Set<String> names = new HashSet<>();
+        return collectReferencedNames( filter, names ) ? names : null;
+    }
+
+    private static boolean collectReferencedNames(BaseNode node, Set<String> names) {
+        if ( node == null || node instanceof ConstantNode || node instanceof NumberNode || node instanceof StringNode ||
+             node instanceof BooleanNode || node instanceof NullNode || node instanceof DashNode ) {
+            return true;
+        } else if ( node instanceof NameRefNode ) {
+            names.add( ((NameRefNode) node).getVariableName() );
+            return true;
+        } else if ( node instanceof QualifiedNameNode ) {
+            // only the first part is resolved as a name
+            names.add( ((QualifiedNameNode) node).getParts().get( 0 ).getVariableName() );
+            return true;
+        } else if ( node instanceof InfixOpNode ) {
+            return collectReferencedNames( ((InfixOpNode) node).getLeft(), names ) &&
+                   collectReferencedNames( ((InfixOpNode) node).getRight(), names );
+        } else if ( node instanceof SignedUnaryNode ) {
+            return collectReferencedNames( ((SignedUnaryNode) node).getExpression(), names );
+        } else if ( node instanceof ListNode ) {
+            return ((ListNode) node).getElements().stream().allMatch( e -> collectReferencedNames( e, names ) );
+        } else if ( node instanceof RangeNode ) {
+            return collectReferencedNames( ((RangeNode) node).getStart(), names ) &&
+                   collectReferencedNames( ((RangeNode) node).getEnd(), names );
+        } else if ( node instanceof FunctionInvocationNode ) {
+            FunctionInvocationNode n = (FunctionInvocationNode) node;
+            if ( !(n.getName() instanceof NameRefNode) || !BUILT_IN_FUNCTIONS.containsKey( ((NameRefNode) n.getName()).getVariableName() ) ) {
+                return false;
+            }
+            // an element may still define a name that shadows the built-in
+            names.add( ((NameRefNode) n.getName()).getVariableName() );
+            return collectReferencedNames( n.getParams(), names );
+        } else if ( node instanceof IfExpressionNode ) {
+            IfExpressionNode n = (IfExpressionNode) node;
+            return collectReferencedNames( n.getCondition(), names ) &&
+                   collectReferencedNames( n.getThenExpression(), names ) &&
+                   collectReferencedNames( n.getElseExpression(), names );
+        } else if ( node instanceof BetweenNode ) {
+            BetweenNode n = (BetweenNode) node;
+            return collectReferencedNames( n.getValue(), names ) &&
+                   collectReferencedNames( n.getStart(), names ) &&
+                   collectReferencedNames( n.getEnd(), names );
+        } else if ( node instanceof InNode ) {
+            return collectReferencedNames( ((InNode) node).getValue(), names ) &&
+                   collectReferencedNames( ((InNode) node).getExprs(), names );
+        } else if ( node instanceof UnaryTestNode ) {
+            return collectReferencedNames( ((UnaryTestNode) node).getValue(), names );
+        } else if ( node instanceof ContextNode ) {
+            return ((ContextNode) node).getEntries().stream().allMatch( e -> collectReferencedNames( e.getValue(), names ) );
+        } else if ( node instanceof ForExpressionNode ) {
+            ForExpressionNode n = (ForExpressionNode) node;
+            return n.getIterationContexts().stream().allMatch( ic -> collectReferencedNames( ic.getExpression(), names ) ) &&
+                   collectReferencedNames( n.getExpression(), names );
+        } else if ( node instanceof QuantifiedExpressionNode ) {
+            QuantifiedExpressionNode n = (QuantifiedExpressionNode) node;
+            return n.getIterationContexts().stream().allMatch( ic -> collectReferencedNames( ic.getExpression(), names ) ) &&
+                   collectReferencedNames( n.getExpression(), names );
+        } else if ( node instanceof FilterExpressionNode ) {
+            return collectReferencedNames( ((FilterExpressionNode) node).getExpression(), names ) &&
+                   collectReferencedNames( ((FilterExpressionNode) node).getFilter(), names );
+        } else if ( node instanceof PathExpressionNode ) {
+            return collectReferencedNames( ((PathExpressionNode) node).getExpression(), names );
+        } else if ( node instanceof InstanceOfNode ) {
+            return collectReferencedNames( ((InstanceOfNode) node).getExpression(), names );
+        } else if ( node instanceof NamedParameterNode ) {
+            return collectReferencedNames( ((NamedParameterNode) node).getExpression(), names );
+        }
+        // function definitions, and any other node, may resolve names not known here
+        return false;
+    }
+
+    private void collectDefinedNames(BaseNode node) {
+        if ( node == null ) {
+            return;
+        } else if ( node instanceof ContextNode ) {
+            for ( ContextEntryNode entry : ((ContextNode) node).getEntries() ) {
+                BaseNode name = entry.getName();
+                String text = name instanceof StringNode ? (String) name.evaluate( null ) : name.getText();
+                defineLocal( text );
+                collectDefinedNames( entry.getValue() );
+            }
+        } else if ( node instanceof ForExpressionNode ) {
+            ForExpressionNode n = (ForExpressionNode) node;
+            n.getIterationContexts().forEach( this::collectDefinedNames );
+            collectDefinedNames( n.getExpression() );
+        } else if ( node instanceof QuantifiedExpressionNode ) {
+            QuantifiedExpressionNode n = (QuantifiedExpressionNode) node;
+            n.getIterationContexts().forEach( this::collectDefinedNames );
+            collectDefinedNames( n.getExpression() );
+        } else if ( node instanceof IterationContextNode ) {
+            IterationContextNode n = (IterationContextNode) node;
+            defineLocal( n.getName().getText() );
+            collectDefinedNames( n.getExpression() );
+        } else if ( node instanceof FunctionDefNode ) {
+            FunctionDefNode n = (FunctionDefNode) node;
+            n.getFormalParameters().forEach( p -> defineLocal( p.getText() ) );
+            collectDefinedNames( n.getBody() );
+        } else if ( node instanceof InfixOpNode ) {
+            collectDefinedNames( ((InfixOpNode) node).getLeft() );
+            collectDefinedNames( ((InfixOpNode) node).getRight() );
+        } else if ( node instanceof SignedUnaryNode ) {
+            collectDefinedNames( ((SignedUnaryNode) node).getExpression() );
+        } else if ( node instanceof ListNode ) {
+            ((ListNode) node).getElements().forEach( this::collectDefinedNames );
+        } else if ( node instanceof RangeNode ) {
+            collectDefinedNames( ((RangeNode) node).getStart() );
+            collectDefinedNames( ((RangeNode) node).getEnd() );
+        } else if ( node instanceof FunctionInvocationNode ) {
+            collectDefinedNames( ((FunctionInvocationNode) node).getParams() );
+        } else if ( node instanceof IfExpressionNode ) {
+            IfExpressionNode n = (IfExpressionNode) node;
+            collectDefinedNames( n.getCondition() );
+            collectDefinedNames( n.getThenExpression() );
+            collectDefinedNames( n.getElseExpression() );
+        } else if ( node instanceof BetweenNode ) {
+            BetweenNode n = (BetweenNode) node;
+            collectDefinedNames( n.getValue() );
+            collectDefinedNames( n.getStart() );
+            collectDefinedNames( n.getEnd() );
+        } else if ( node instanceof InNode ) {
+            collectDefinedNames( ((InNode) node).getValue() );
+            collectDefinedNames( ((InNode) node).getExprs() );
+        } else if ( node instanceof UnaryTestNode ) {
+            collectDefinedNames( ((UnaryTestNode) node).getValue() );
+        } else if ( node instanceof FilterExpressionNode ) {
+            collectDefinedNames( ((FilterExpressionNode) node).getExpression() );
+            collectDefinedNames( ((FilterExpressionNode) node).getFilter() );
+        } else if ( node instanceof PathExpressionNode ) {
+            collectDefinedNames( ((PathExpressionNode) node).getExpression() );
+        } else if ( node instanceof InstanceOfNode ) {
+            collectDefinedNames( ((InstanceOfNode) node).getExpression() );
+        } else if ( node instanceof NamedParameterNode ) {
+            collectDefinedNames( ((NamedParameterNode) node).getExpression() );
+        }
+    }
+}
@@ -30,7 +30,7 @@ import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.util.Msg;
 
 public class BaseNode
-        implements ASTNode {
+        implements ASTNode, CompiledNode {
     private int startChar;
     private int endChar;
     private int startLine;
@@ -53,6 +53,20 @@ public class BaseNode
         this.setText( getOriginalText( ctx ) );
     }
 
+    /**
+     * Copies the source location and text of the given node, for
+     * nodes that replace another one after the AST is built.
+     */
+    protected void copyLocation(BaseNode other) {
+        this.setStartChar( other.getStartChar() );
+        this.setStartLine( other.getStartLine() );
+        this.setStartColumn( other.getStartColumn() );
+        this.setEndChar( other.getEndChar() );
+        this.setEndLine( other.getEndLine() );
+        this.setEndColumn( other.getEndColumn() );
+        this.setText( other.getText() );
+    }
+
     @Override
     public int getStartChar() {
         return startChar;
@@ -139,6 +153,14 @@ public class BaseNode
         return null;
     }
 
+    /**
+     * Compiles this node into a closure for the compiled backend.
+     * Nodes that do not specialize this method are interpreted.
+     */
+    public CompiledNode compile() {
+        return this;
+    }
+
     private String getOriginalText( ParserRuleContext ctx ) {
         int a = ctx.start.getStartIndex();
         int b = ctx.stop.getStopIndex();
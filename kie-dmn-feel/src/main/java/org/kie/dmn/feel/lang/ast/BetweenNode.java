@@ -19,6 +19,7 @@ package org.kie.dmn.feel.lang.ast;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
 
 public class BetweenNode
@@ -76,16 +77,22 @@ public class BetweenNode
         if ( e == null )   { ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.EVALUATED_TO_NULL, "end")) ); problem = true; }
         if (problem) return null;
         
-        if ( !val.getClass().isAssignableFrom( s.getClass() ) ) {
+        if ( !isComparable( val, s ) ) {
             ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.X_TYPE_INCOMPATIBLE_WITH_Y_TYPE, "value", "start")) );
             return null;
         }
         
-        if ( !val.getClass().isAssignableFrom( e.getClass() ) ) {
+        if ( !isComparable( val, e ) ) {
             ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.X_TYPE_INCOMPATIBLE_WITH_Y_TYPE, "value", "end")) );
             return null;
         }
         
-        return val.compareTo( s ) >= 0 && val.compareTo( e ) <= 0;
+        return EvalHelper.compare( val, s ) >= 0 && EvalHelper.compare( val, e ) <= 0;
+    }
+
+    private static boolean isComparable(Object value, Object bound) {
+        // doubles evaluated in NumericMode.DOUBLE are compared by value to other numbers
+        return value.getClass().isAssignableFrom( bound.getClass() ) ||
+               ( (value instanceof Double || bound instanceof Double) && value instanceof Number && bound instanceof Number );
     }
 }
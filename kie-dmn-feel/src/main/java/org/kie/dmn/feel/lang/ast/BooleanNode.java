@@ -18,6 +18,8 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 
 public class BooleanNode
         extends BaseNode {
@@ -33,8 +35,19 @@ public class BooleanNode
         return value;
     }
 
+    @Override
+    public Type getResultType() {
+        return BuiltInType.BOOLEAN;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
         return value;
     }
+
+    @Override
+    public CompiledNode compile() {
+        Boolean constant = value;
+        return ctx -> constant;
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+import org.kie.dmn.feel.util.EvalHelper;
+import org.kie.dmn.feel.util.Msg;
+
+import java.util.Map;
+
+/**
+ * A qualified name whose parts are statically known fields of a
+ * composite type. The field names are resolved once, and context
+ * values are accessed directly as maps.
+ */
+public class CompositeFieldAccessNode
+        extends QualifiedNameNode {
+
+    private final String[] fieldNames;
+    private final Type     resultType;
+
+    public CompositeFieldAccessNode(QualifiedNameNode node, Type resultType) {
+        super( node );
+        this.fieldNames = getParts().stream().skip( 1 ).map( NameRefNode::getVariableName ).toArray( String[]::new );
+        this.resultType = resultType;
+    }
+
+    @Override
+    public Type getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public Object evaluate(EvaluationContext ctx) {
+        Object current = getParts().get( 0 ).evaluate( ctx );
+        try {
+            for ( int i = 0; i < fieldNames.length && current != null; i++ ) {
+                if ( current instanceof Map ) {
+                    current = ((Map) current).get( fieldNames[i] );
+                } else {
+                    current = EvalHelper.getValue( current, fieldNames[i] );
+                }
+            }
+            return current;
+        } catch ( Exception e ) {
+            ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.ERROR_ACCESSING_QUALIFIED_NAME, getText()), e) );
+            return null;
+        }
+    }
+}
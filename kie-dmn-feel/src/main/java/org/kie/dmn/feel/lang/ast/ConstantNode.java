@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node holding the pre-evaluated value of a constant
+ * subexpression, as produced by the {@link ASTOptimizer}.
+ */
+public class ConstantNode
+        extends BaseNode {
+
+    private final Object value;
+
+    public ConstantNode(BaseNode folded, Object value) {
+        this.value = value;
+        copyLocation( folded );
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public Type getResultType() {
+        if ( value instanceof BigDecimal ) {
+            return BuiltInType.NUMBER;
+        } else if ( value instanceof String ) {
+            return BuiltInType.STRING;
+        } else if ( value instanceof Boolean ) {
+            return BuiltInType.BOOLEAN;
+        }
+        return BuiltInType.UNKNOWN;
+    }
+
+    @Override
+    public Object evaluate(EvaluationContext ctx) {
+        // lists are mutable, so every evaluation gets its own copy
+        return value instanceof List ? new ArrayList<>( (List<?>) value ) : value;
+    }
+
+    @Override
+    public CompiledNode compile() {
+        if ( value instanceof List ) {
+            return this;
+        }
+        Object constant = value;
+        return ctx -> constant;
+    }
+}
@@ -32,4 +32,10 @@ public class DashNode
         // a dash is a unary test that always evaluates to true
         return (c, o) -> Boolean.TRUE;
     }
+
+    @Override
+    public CompiledNode compile() {
+        UnaryTest test = (c, o) -> Boolean.TRUE;
+        return ctx -> test;
+    }
 }
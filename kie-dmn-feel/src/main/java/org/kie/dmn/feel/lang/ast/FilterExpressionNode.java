@@ -18,16 +18,22 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.ExecutionFrame;
+import org.kie.dmn.feel.lang.impl.ItemExecutionFrame;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.util.Msg;
 
 import java.util.*;
 
 public class FilterExpressionNode
-        extends BaseNode {
+        extends BaseNode
+        implements SequenceNode {
 
-    private BaseNode expression;
-    private BaseNode filter;
+    private BaseNode    expression;
+    private BaseNode    filter;
+    // names the filter may resolve against the keys of each element, null if unknown
+    private Set<String> referencedNames;
 
     public FilterExpressionNode(ParserRuleContext ctx, BaseNode expression, BaseNode filter) {
         super( ctx );
@@ -49,35 +55,47 @@ public class FilterExpressionNode
 
     public void setFilter(BaseNode filter) {
         this.filter = filter;
+        this.referencedNames = null;
+    }
+
+    public Set<String> getReferencedNames() {
+        return referencedNames;
+    }
+
+    /**
+     * Sets the normalized names the filter may reference, so that only those
+     * are looked up in the elements being filtered. Null, the default, means
+     * any name may be resolved against the elements.
+     */
+    public void setReferencedNames(Set<String> referencedNames) {
+        this.referencedNames = referencedNames;
     }
 
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        Object value = expression.evaluate( ctx );
-        // spec determines single values should be treated as lists of one element
-        List list = value instanceof List ? (List) value : Arrays.asList( value );
+        Object value;
+        try {
+            value = LazySequence.evaluate( expression, ctx );
+        } catch ( LazySequence.Failure f ) {
+            return null;
+        }
 
         try {
             // check if index
             Object f = filter.evaluate( ctx );
             if ( f != null && f instanceof Number ) {
-                // what to do if Number is not an integer??
-                int i = ((Number) f).intValue();
-                if ( i > 0 && i <= list.size() ) {
-                    return list.get( i - 1 );
-                } else if ( i < 0 && Math.abs( i ) <= list.size() ) {
-                    return list.get( list.size() + i );
-                } else {
-                    ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.INDEX_OUT_OF_BOUND)) );
-                    return null;
-                }
+                return elementAt( ctx, value, f );
             } else {
                 List results = new ArrayList(  );
-                for( Object v : list ) {
-                    evaluateExpressionInContext( ctx, results, v );
+                for( Object v : asIterable( value ) ) {
+                    if( evaluateExpressionInContext( ctx, null, v ) ) {
+                        results.add( v );
+                    }
                 }
                 return results;
             }
+        } catch ( LazySequence.Failure f ) {
+            // the list being filtered failed, and reported it
         } catch ( Exception e ) {
             ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.ERROR_EXECUTING_LIST_FILTER, getText()), e) );
         }
@@ -85,7 +103,106 @@ public class FilterExpressionNode
         return null;
     }
 
-    private void evaluateExpressionInContext(EvaluationContext ctx, List results, Object v) {
+    /**
+     * Produces the elements that satisfy the filter as they are iterated. Each
+     * element is tested in a frame on top of the frame the filter was evaluated
+     * in, as when all the elements are tested at once. An element failing the
+     * test is reported as when all the elements are tested at once, and then
+     * ends the sequence with a {@link LazySequence.Failure}.
+     */
+    @Override
+    public Object evaluateLazily(EvaluationContextImpl ctx) {
+        Object value = LazySequence.evaluate( expression, ctx );
+
+        try {
+            Object f = filter.evaluate( ctx );
+            if ( f != null && f instanceof Number ) {
+                return elementAt( ctx, value, f );
+            }
+            Iterator source = asIterable( value ).iterator();
+            ExecutionFrame parent = ctx.peek();
+            return new LazySequence( new Iterator<Object>() {
+                private boolean ready;
+                private Object  next;
+
+                @Override
+                public boolean hasNext() {
+                    try {
+                        while ( !ready && source.hasNext() ) {
+                            Object v = source.next();
+                            if ( evaluateExpressionInContext( ctx, parent, v ) ) {
+                                next = v;
+                                ready = true;
+                            }
+                        }
+                    } catch ( LazySequence.Failure f ) {
+                        throw f;
+                    } catch ( RuntimeException e ) {
+                        ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.ERROR_EXECUTING_LIST_FILTER, getText()), e) );
+                        throw new LazySequence.Failure( e );
+                    }
+                    return ready;
+                }
+
+                @Override
+                public Object next() {
+                    if ( !hasNext() ) {
+                        throw new NoSuchElementException();
+                    }
+                    Object v = next;
+                    next = null;
+                    ready = false;
+                    return v;
+                }
+            } );
+        } catch ( LazySequence.Failure f ) {
+            throw f;
+        } catch ( Exception e ) {
+            ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.ERROR_EXECUTING_LIST_FILTER, getText()), e) );
+        }
+
+        return null;
+    }
+
+    private static Iterable asIterable(Object value) {
+        // spec determines single values should be treated as lists of one element
+        return value instanceof List || value instanceof LazySequence ? (Iterable) value : Arrays.asList( value );
+    }
+
+    private Object elementAt(EvaluationContext ctx, Object value, Object f) {
+        // what to do if Number is not an integer??
+        int i = ((Number) f).intValue();
+        if ( value instanceof LazySequence && i > 0 ) {
+            // only the elements up to the index are produced
+            int position = 0;
+            for ( Object element : (LazySequence) value ) {
+                if ( ++position == i ) {
+                    return element;
+                }
+            }
+        } else {
+            List list = value instanceof LazySequence ? (List) LazySequence.materialize( value ) : (List) asIterable( value );
+            if ( i > 0 && i <= list.size() ) {
+                return list.get( i - 1 );
+            } else if ( i < 0 && Math.abs( i ) <= list.size() ) {
+                return list.get( list.size() + i );
+            }
+        }
+        ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.INDEX_OUT_OF_BOUND)) );
+        return null;
+    }
+
+    private boolean evaluateExpressionInContext(EvaluationContext ctx, ExecutionFrame parent, Object v) {
+        if ( ctx instanceof EvaluationContextImpl ) {
+            // the element is bound to the frame, and its entries are only looked up when referenced
+            EvaluationContextImpl c = (EvaluationContextImpl) ctx;
+            c.push( new ItemExecutionFrame( parent != null ? parent : c.peek(), v, referencedNames, c.getNumericMode() ) );
+            try {
+                return isTrue( this.filter.evaluate( ctx ) );
+            } finally {
+                c.pop();
+            }
+        }
         try {
             ctx.enterFrame();
             // handle it as a predicate
@@ -100,12 +217,13 @@ public class FilterExpressionNode
                 }
             }
 
-            Object r = this.filter.evaluate( ctx );
-            if( r instanceof Boolean && ((Boolean)r) == Boolean.TRUE ) {
-                results.add( v );
-            }
+            return isTrue( this.filter.evaluate( ctx ) );
         } finally {
             ctx.exitFrame();
         }
     }
+
+    private static boolean isTrue(Object r) {
+        return r instanceof Boolean && ((Boolean)r) == Boolean.TRUE;
+    }
 }
@@ -18,14 +18,18 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.ExecutionFrame;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public class ForExpressionNode
-        extends BaseNode {
+        extends BaseNode
+        implements SequenceNode {
 
     private List<IterationContextNode> iterationContexts;
     private BaseNode                   expression;
@@ -58,18 +62,102 @@ public class ForExpressionNode
     @Override
     public Object evaluate(EvaluationContext ctx) {
         try {
-            ctx.enterFrame();
-            List results = new ArrayList(  );
-            ForIteration[] ictx = initializeContexts( ctx, iterationContexts);
-
-            while ( nextIteration( ctx, ictx ) ) {
-                Object result = expression.evaluate( ctx );
-                results.add( result );
+            Object first = evaluateFirstContext( ctx );
+            try {
+                ctx.enterFrame();
+                List results = new ArrayList(  );
+                Results r = new Results( ctx, first );
+                while ( r.advance() ) {
+                    results.add( r.getValue() );
+                }
+                return results;
+            } finally {
+                ctx.exitFrame();
             }
-            return results;
+        } catch ( LazySequence.Failure f ) {
+            // the list being iterated failed, and reported it
+            return null;
+        }
+    }
+
+    /**
+     * Produces the results one at a time. The frame of the iteration is put
+     * back on the stack for each result, so the expression sees the same
+     * variables as when all the results are produced at once.
+     */
+    @Override
+    public Object evaluateLazily(EvaluationContextImpl ctx) {
+        Object first = evaluateFirstContext( ctx );
+        Results r;
+        ctx.enterFrame();
+        try {
+            r = new Results( ctx, first );
         } finally {
             ctx.exitFrame();
         }
+        ExecutionFrame frame = r.frame;
+        return new LazySequence( new Iterator<Object>() {
+            private Boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if ( ready == null ) {
+                    ctx.push( frame );
+                    try {
+                        ready = r.advance();
+                    } finally {
+                        ctx.pop();
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public Object next() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException();
+                }
+                ready = null;
+                return r.getValue();
+            }
+        } );
+    }
+
+    /**
+     * The first iteration context is evaluated before the frame of the iteration
+     * is created, as it does not see any of its variables. As it is iterated only
+     * once, it can be produced lazily.
+     */
+    private Object evaluateFirstContext(EvaluationContext ctx) {
+        return iterationContexts.isEmpty() ? null : LazySequence.evaluate( iterationContexts.get( 0 ).getExpression(), ctx );
+    }
+
+    /**
+     * The state of an iteration, to be advanced with its frame on top of the stack
+     */
+    private class Results {
+        private final EvaluationContext ctx;
+        private final ExecutionFrame    frame;
+        private final ForIteration[]    ictx;
+        private       Object            value;
+
+        private Results(EvaluationContext ctx, Object first) {
+            this.ctx = ctx;
+            this.frame = ctx instanceof EvaluationContextImpl ? ((EvaluationContextImpl) ctx).peek() : null;
+            this.ictx = initializeContexts( ctx, iterationContexts, first );
+        }
+
+        private boolean advance() {
+            if ( !nextIteration( ctx, ictx ) ) {
+                return false;
+            }
+            value = expression.evaluate( ctx );
+            return true;
+        }
+
+        private Object getValue() {
+            return value;
+        }
     }
 
     private boolean nextIteration( EvaluationContext ctx, ForIteration[] ictx ) {
@@ -89,11 +177,11 @@ public class ForExpressionNode
         ctx.setValue( forIteration.getName(), forIteration.getNextValue() );
     }
 
-    private ForIteration[] initializeContexts(EvaluationContext ctx, List<IterationContextNode> iterationContexts) {
+    private ForIteration[] initializeContexts(EvaluationContext ctx, List<IterationContextNode> iterationContexts, Object first) {
         ForIteration[] ictx = new ForIteration[iterationContexts.size()];
         int i = 0;
         for ( IterationContextNode icn : iterationContexts ) {
-            ictx[i] = createQuantifiedExpressionIterationContext( ctx, icn );
+            ictx[i] = createQuantifiedExpressionIterationContext( ctx, icn, i == 0 ? first : icn.evaluate( ctx ) );
             if( i < iterationContexts.size()-1 && ictx[i].hasNextValue() ) {
                 setValueIntoContext( ctx, ictx[i] );
             }
@@ -102,9 +190,8 @@ public class ForExpressionNode
         return ictx;
     }
 
-    private ForIteration createQuantifiedExpressionIterationContext(EvaluationContext ctx, IterationContextNode icn) {
+    private ForIteration createQuantifiedExpressionIterationContext(EvaluationContext ctx, IterationContextNode icn, Object result) {
         String name = icn.evaluateName( ctx );
-        Object result = icn.evaluate( ctx );
         Iterable values = result instanceof Iterable ? (Iterable) result : Collections.singletonList( result );
         ForIteration fi = new ForIteration( name, values );
         return fi;
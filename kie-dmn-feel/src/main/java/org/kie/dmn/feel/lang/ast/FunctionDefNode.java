@@ -35,14 +35,18 @@ public class FunctionDefNode
         extends BaseNode {
 
     private static final String ANONYMOUS = "<anonymous>";
-    private final Pattern METHOD_PARSER = Pattern.compile( "(.+)\\((.*)\\)" );
-    private final Pattern PARAMETER_PARSER = Pattern.compile( "([^, ]+)" );
+    private static final Pattern METHOD_PARSER = Pattern.compile( "(.+)\\((.*)\\)" );
+    private static final Pattern PARAMETER_PARSER = Pattern.compile( "([^, ]+)" );
 
 
     private List<NameDefNode> formalParameters;
     private boolean external;
     private BaseNode body;
 
+    // the external function resolved by the last evaluation
+    private volatile ExternalBinding binding;
+    private Boolean literalBody;
+
     public FunctionDefNode(ParserRuleContext ctx, ListNode formalParameters, boolean external, BaseNode body) {
         super( ctx );
         this.formalParameters = new ArrayList<>(  );
@@ -61,6 +65,7 @@ public class FunctionDefNode
 
     public void setFormalParameters(List<NameDefNode> formalParameters) {
         this.formalParameters = formalParameters;
+        this.binding = null;
     }
 
     public boolean isExternal() {
@@ -77,10 +82,19 @@ public class FunctionDefNode
 
     public void setBody(BaseNode body) {
         this.body = body;
+        this.binding = null;
+        this.literalBody = null;
     }
 
     @Override
     public Object evaluate(EvaluationContext ctx) {
+        if( external ) {
+            ExternalBinding b = binding;
+            if( b != null && isLiteralBody() ) {
+                // the configuration can not change, so neither can the function
+                return b.function;
+            }
+        }
         List<String> params = formalParameters.stream().map( p -> p.evaluate( ctx ) ).collect( Collectors.toList() );
         if( external ) {
             try {
@@ -93,6 +107,10 @@ public class FunctionDefNode
                     String clazzName = (String) java.get( "class" );
                     String methodSignature = (String) java.get( "method signature" );
                     if( clazzName != null && methodSignature != null ) {
+                        ExternalBinding b = binding;
+                        if( b != null && b.isBoundTo( clazzName, methodSignature ) ) {
+                            return b.function;
+                        }
                         // might need to explicitly use a classloader here
                         Class<?> clazz = Class.forName( clazzName );
                         if( clazz != null ) {
@@ -107,7 +125,9 @@ public class FunctionDefNode
                                         paramTypes[i] = getType( paramTypeNames[i] );
                                     }
                                     Method method = clazz.getMethod( methodName, paramTypes );
-                                    return new JavaFunction( ANONYMOUS, params, clazz, method );
+                                    JavaFunction function = new JavaFunction( ANONYMOUS, params, clazz, method );
+                                    binding = new ExternalBinding( clazzName, methodSignature, function );
+                                    return function;
                                 } else {
                                     ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.PARAMETER_COUNT_MISMATCH_ON_FUNCTION_DEFINITION, getText()) ) );
                                     return null;
@@ -126,6 +146,32 @@ public class FunctionDefNode
         }
     }
 
+    /**
+     * The configuration of external functions is usually a context of
+     * string literals, in which case it does not need to be evaluated again
+     */
+    private boolean isLiteralBody() {
+        Boolean literal = literalBody;
+        if( literal == null ) {
+            literal = isLiteral( body );
+            literalBody = literal;
+        }
+        return literal;
+    }
+
+    private static boolean isLiteral(BaseNode node) {
+        if( node instanceof ContextNode ) {
+            for( ContextEntryNode entry : ((ContextNode) node).getEntries() ) {
+                if( !isLiteral( entry.getValue() ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return node instanceof StringNode ||
+               (node instanceof ConstantNode && ((ConstantNode) node).getValue() instanceof String);
+    }
+
     private Class<?> getType(String typeName)
             throws ClassNotFoundException {
         // first check if it is primitive
@@ -190,4 +236,19 @@ public class FunctionDefNode
     }
 
 
+    private static final class ExternalBinding {
+        private final String       className;
+        private final String       methodSignature;
+        private final JavaFunction function;
+
+        private ExternalBinding(String className, String methodSignature, JavaFunction function) {
+            this.className = className;
+            this.methodSignature = methodSignature;
+            this.function = function;
+        }
+
+        private boolean isBoundTo(String className, String methodSignature) {
+            return this.className.equals( className ) && this.methodSignature.equals( methodSignature );
+        }
+    }
 }
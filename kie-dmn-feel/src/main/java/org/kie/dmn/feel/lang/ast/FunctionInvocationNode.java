@@ -18,11 +18,19 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
 import org.kie.dmn.feel.runtime.FEELFunction;
 import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+import org.kie.dmn.feel.runtime.functions.BaseFEELFunction;
 import org.kie.dmn.feel.util.Msg;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public class FunctionInvocationNode
         extends BaseNode {
 
@@ -30,6 +38,13 @@ public class FunctionInvocationNode
     private BaseNode name;
     private ListNode params;
 
+    // built-in function bound at compile time, when its name can not be shadowed
+    private FEELFunction boundFunction;
+    private final BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+    private CompiledNode[] paramNodes;
+    private String[]       qualifiedName;
+    private boolean        lazyArguments;
+
     public FunctionInvocationNode(ParserRuleContext ctx, BaseNode name, ListNode params) {
         super( ctx );
         this.name = name;
@@ -42,6 +57,7 @@ public class FunctionInvocationNode
 
     public void setName(BaseNode name) {
         this.name = name;
+        this.qualifiedName = null;
     }
 
     public ListNode getParams() {
@@ -50,38 +66,211 @@ public class FunctionInvocationNode
 
     public void setParams(ListNode params) {
         this.params = params;
+        this.paramNodes = null;
+    }
+
+    public FEELFunction getBoundFunction() {
+        return boundFunction;
+    }
+
+    /**
+     * Binds this invocation to the given function, skipping the lookup of
+     * the function name on every evaluation. Only to be used when the name
+     * can not be shadowed by a variable at runtime.
+     */
+    public void setBoundFunction(FEELFunction boundFunction) {
+        this.boundFunction = boundFunction;
+    }
+
+    public boolean isLazyArguments() {
+        return lazyArguments;
+    }
+
+    /**
+     * Lets the arguments that support it be passed as sequences produced while
+     * the function iterates them. Only to be used for functions that iterate
+     * their arguments at most once and do not keep them.
+     */
+    public void setLazyArguments(boolean lazyArguments) {
+        this.lazyArguments = lazyArguments;
+        this.paramNodes = null;
     }
 
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        FEELFunction function = null;
-        Object value = null;
-        if ( name instanceof NameRefNode ) {
+        CompiledNode[] p = paramNodes;
+        if ( p == null ) {
+            // the parameters are only known to be final once the expression is evaluated
+            p = lazyArguments ?
+                params.getElements().stream().map( n -> lazily( n, false ) ).toArray( CompiledNode[]::new ) :
+                params.getElements().toArray( new CompiledNode[params.getElements().size()] );
+            paramNodes = p;
+        }
+        return invoke( ctx, resolveFunction( ctx ), p );
+    }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode[] p = params.getElements().stream().map( n -> lazyArguments ? lazily( n, true ) : n.compile() ).toArray( CompiledNode[]::new );
+        FEELFunction bound = boundFunction;
+        if ( bound != null ) {
+            return ctx -> invoke( ctx, bound, p );
+        }
+        return ctx -> invoke( ctx, resolveFunction( ctx ), p );
+    }
+
+    private static CompiledNode lazily(BaseNode node, boolean compiled) {
+        if ( node instanceof SequenceNode ) {
+            return ctx -> LazySequence.evaluateGuarded( node, ctx );
+        }
+        return compiled ? node.compile() : node;
+    }
+
+    private Object resolveFunction(EvaluationContext ctx) {
+        if ( boundFunction != null ) {
+            return boundFunction;
+        } else if ( name instanceof NameRefNode ) {
             // simple name
-            value = ctx.getValue( name.getText() );
+            return ctx.getValue( ((NameRefNode) name).getVariableName() );
         } else {
-            QualifiedNameNode qn = (QualifiedNameNode) name;
-            String[] qns = qn.getPartsAsStringArray();
-            value = ctx.getValue( qns );
+            String[] qns = qualifiedName;
+            if ( qns == null ) {
+                qns = ((QualifiedNameNode) name).getPartsAsStringArray();
+                qualifiedName = qns;
+            }
+            return ctx.getValue( qns );
         }
+    }
+
+    private Object invoke(EvaluationContext ctx, Object value, CompiledNode[] params) {
+        FEELFunction function = null;
         if ( value instanceof FEELFunction ) {
             function = (FEELFunction) value;
             if ( function != null ) {
-                Object[] p = params.getElements().stream().map( e -> e.evaluate( ctx ) ).toArray( Object[]::new );
-                Object result = function.invokeReflectively( ctx, p );
+                Object[] p = new Object[params.length];
+                for ( int i = 0; i < params.length; i++ ) {
+                    p[i] = params[i].evaluate( ctx );
+                }
+                if ( !lazyArguments ) {
+                    return invokeFunction( ctx, function, p );
+                }
+                // the events of the call are held until the sequences are known not to have failed
+                HeldEventsContext held = new HeldEventsContext( ctx );
+                Object result = invokeFunction( held, function, p );
+                if ( discardFailedSequences( p ) ) {
+                    // the failing list was reported, and evaluated at once it would have been null
+                    return invokeFunction( ctx, function, p );
+                }
+                held.release();
                 return result;
             } else {
                 ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.FUNCTION_NOT_FOUND, name.getText())) );
             }
         } else if( value instanceof UnaryTest ) {
-            if( params.getElements().size() == 1 ) {
-                Object p = params.getElements().get( 0 ).evaluate( ctx );
+            if( params.length == 1 ) {
+                Object p = params[0].evaluate( ctx );
                 return ((UnaryTest) value).apply( ctx, p );
             } else {
-                ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.CAN_T_INVOKE_AN_UNARY_TEST_WITH_S_PARAMETERS_UNARY_TESTS_REQUIRE_1_SINGLE_PARAMETER, params.getElements().size()) ) );
+                ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.CAN_T_INVOKE_AN_UNARY_TEST_WITH_S_PARAMETERS_UNARY_TESTS_REQUIRE_1_SINGLE_PARAMETER, params.length) ) );
             }
         }
         return null;
     }
 
+    private Object invokeFunction(EvaluationContext ctx, FEELFunction function, Object[] params) {
+        // the call site cache skips resolving the invoke method again for the same function
+        return function instanceof BaseFEELFunction ?
+               ((BaseFEELFunction) function).invokeReflectively( ctx, params, callSite ) :
+               function.invokeReflectively( ctx, params );
+    }
+
+    /**
+     * Replaces the sequences that failed while the function iterated them with
+     * null, returning true if there was any
+     */
+    private static boolean discardFailedSequences(Object[] params) {
+        boolean failed = false;
+        for ( int i = 0; i < params.length; i++ ) {
+            if ( LazySequence.isFailed( params[i] ) ) {
+                params[i] = null;
+                failed = true;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * An evaluation context that holds the events notified through it,
+     * until they are released to the events manager of the wrapped context
+     */
+    private static final class HeldEventsContext
+            implements EvaluationContext {
+
+        private final EvaluationContext         ctx;
+        private final List<FEELEvent>           events = new ArrayList<>();
+        private final FEELEventListenersManager eventsManager = new FEELEventListenersManager();
+
+        private HeldEventsContext(EvaluationContext ctx) {
+            this.ctx = ctx;
+            FEELEventListenersManager target = ctx.getEventsManager();
+            if ( target != null && target.hasListeners() ) {
+                eventsManager.addListener( events::add );
+            }
+        }
+
+        private void release() {
+            events.forEach( ctx.getEventsManager()::notifyListeners );
+        }
+
+        @Override
+        public void enterFrame() {
+            ctx.enterFrame();
+        }
+
+        @Override
+        public void exitFrame() {
+            ctx.exitFrame();
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            ctx.setValue( name, value );
+        }
+
+        @Override
+        public Object getValue(String name) {
+            return ctx.getValue( name );
+        }
+
+        @Override
+        public Object getValue(String[] name) {
+            return ctx.getValue( name );
+        }
+
+        @Override
+        public boolean isDefined(String name) {
+            return ctx.isDefined( name );
+        }
+
+        @Override
+        public boolean isDefined(String[] name) {
+            return ctx.isDefined( name );
+        }
+
+        @Override
+        public Map<String, Object> getAllValues() {
+            return ctx.getAllValues();
+        }
+
+        @Override
+        public FEELEventListenersManager getEventsManager() {
+            return eventsManager;
+        }
+
+        @Override
+        public NumericMode getNumericMode() {
+            return ctx.getNumericMode();
+        }
+    }
+
 }
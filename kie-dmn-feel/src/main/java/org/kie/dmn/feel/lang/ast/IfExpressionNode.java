@@ -72,4 +72,19 @@ public class IfExpressionNode
         ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.CONDITION_WAS_NOT_A_BOOLEAN)) );
         return null;
     }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode c = condition.compile();
+        CompiledNode t = thenExpression.compile();
+        CompiledNode e = elseExpression.compile();
+        return ctx -> {
+            Object cond = c.evaluate( ctx );
+            if ( cond instanceof Boolean ) {
+                return ((Boolean) cond) ? t.evaluate( ctx ) : e.evaluate( ctx );
+            }
+            ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.CONDITION_WAS_NOT_A_BOOLEAN)) );
+            return null;
+        };
+    }
 }
@@ -21,6 +21,7 @@ import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.Range;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
 
 public class InNode
@@ -53,8 +54,17 @@ public class InNode
 
     @Override
     public Boolean evaluate(EvaluationContext ctx) {
-        Object value = this.value.evaluate( ctx );
-        Object expr = this.exprs.evaluate( ctx );
+        return evaluateIn( ctx, this.value.evaluate( ctx ), this.exprs.evaluate( ctx ) );
+    }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode v = value.compile();
+        CompiledNode e = exprs.compile();
+        return ctx -> evaluateIn( ctx, v.evaluate( ctx ), e.evaluate( ctx ) );
+    }
+
+    private Boolean evaluateIn(EvaluationContext ctx, Object value, Object expr) {
         if ( expr != null ) {
             if ( expr instanceof Iterable ) {
                 // evaluate in the collection
@@ -86,6 +96,9 @@ public class InNode
                 return null;
             }
             return ((Range) expr).includes( (Comparable) value );
+        } else if ( (value instanceof Double || expr instanceof Double) && value instanceof Number && expr instanceof Number ) {
+            // doubles evaluated in NumericMode.DOUBLE are compared by value to other numbers
+            return EvalHelper.compare( value, expr ) == 0;
         } else if ( value != null ) {
             return value.equals( expr );
         } else {
@@ -18,7 +18,11 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.runtime.Range;
+import org.kie.dmn.feel.util.DecimalArithmetic;
 import org.kie.dmn.feel.util.EvalHelper;
 
 import java.math.BigDecimal;
@@ -83,6 +87,16 @@ public class InfixOpNode
         this.right = right;
     }
 
+    /**
+     * Creates a copy of the given node, to be used by specialized subclasses
+     */
+    protected InfixOpNode(InfixOpNode other) {
+        copyLocation( other );
+        this.left = other.left;
+        this.operator = other.operator;
+        this.right = other.right;
+    }
+
     public InfixOperator getOperator() {
         return operator;
     }
@@ -111,10 +125,25 @@ public class InfixOpNode
         this.right = right;
     }
 
+    @Override
+    public Type getResultType() {
+        if ( operator.isBoolean() ) {
+            return BuiltInType.BOOLEAN;
+        } else if ( left.getResultType() == BuiltInType.NUMBER && right.getResultType() == BuiltInType.NUMBER ) {
+            return BuiltInType.NUMBER;
+        }
+        return BuiltInType.UNKNOWN;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        Object left = this.left.evaluate( ctx );
-        Object right = this.right.evaluate( ctx );
+        return evaluate( this.left.evaluate( ctx ), this.right.evaluate( ctx ), ctx );
+    }
+
+    /**
+     * Applies the operator to the already evaluated operands
+     */
+    protected Object evaluate(Object left, Object right, EvaluationContext ctx) {
         switch ( operator ) {
             case ADD:
                 return add( left, right, ctx );
@@ -131,22 +160,29 @@ public class InfixOpNode
             case OR:
                 return or( left, right, ctx );
             case LTE:
-                return comparison( left, right, ctx, (l, r) -> l.compareTo( r ) <= 0 );
+                return comparison( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) <= 0 );
             case LT:
-                return comparison( left, right, ctx, (l, r) -> l.compareTo( r ) < 0 );
+                return comparison( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) < 0 );
             case GT:
-                return comparison( left, right, ctx, (l, r) -> l.compareTo( r ) > 0 );
+                return comparison( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) > 0 );
             case GTE:
-                return comparison( left, right, ctx, (l, r) -> l.compareTo( r ) >= 0 );
+                return comparison( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) >= 0 );
             case EQ:
-                return equality( left, right, ctx, (l, r) -> l.compareTo( r ) == 0 );
+                return equality( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) == 0 );
             case NE:
-                return equality( left, right, ctx, (l, r) -> l.compareTo( r ) != 0 );
+                return equality( left, right, ctx, (l, r) -> EvalHelper.compare( l, r ) != 0 );
             default:
                 return null;
         }
     }
 
+    @Override
+    public CompiledNode compile() {
+        CompiledNode l = left.compile();
+        CompiledNode r = right.compile();
+        return ctx -> evaluate( l.evaluate( ctx ), r.evaluate( ctx ), ctx );
+    }
+
     private Object add(Object left, Object right, EvaluationContext ctx) {
         if ( left == null || right == null ) {
             return null;
@@ -189,7 +225,7 @@ public class InfixOpNode
         } else if ( left instanceof Duration && right instanceof OffsetTime ) {
             return ((OffsetTime) right).plus( (Duration) left);
         } else {
-            return math( left, right, ctx, (l, r) -> l.add( r, MathContext.DECIMAL128 ) );
+            return math( left, right, ctx, DecimalArithmetic::add );
         }
     }
 
@@ -228,7 +264,7 @@ public class InfixOpNode
         } else if ( left instanceof OffsetTime && right instanceof Duration ) {
             return ((OffsetTime) left).minus( (Duration) left);
         } else {
-            return math( left, right, ctx, (l, r) -> l.subtract( r, MathContext.DECIMAL128 )  );
+            return math( left, right, ctx, DecimalArithmetic::subtract );
         }
     }
 
@@ -248,7 +284,7 @@ public class InfixOpNode
         } else if ( left instanceof Period && right instanceof Period ) {
             return EvalHelper.getBigDecimalOrNull( ((Period) left).getMonths() ).multiply( EvalHelper.getBigDecimalOrNull( ((Period)right).getMonths() ), MathContext.DECIMAL128 );
         } else {
-            return math( left, right, ctx, (l, r) -> l.multiply( r, MathContext.DECIMAL128 ) );
+            return math( left, right, ctx, DecimalArithmetic::multiply );
         }
     }
 
@@ -268,11 +304,16 @@ public class InfixOpNode
         } else if ( left instanceof Period && right instanceof Period ) {
             return EvalHelper.getBigDecimalOrNull( ((Period) left).getMonths() ).divide( EvalHelper.getBigDecimalOrNull( ((Period)right).getMonths() ), MathContext.DECIMAL128 );
         } else {
-            return math( left, right, ctx, (l, r) -> l.divide( r, MathContext.DECIMAL128 ) );
+            return math( left, right, ctx, DecimalArithmetic::divide );
         }
     }
 
     private Object math(Object left, Object right, EvaluationContext ctx, BinaryOperator<BigDecimal> op) {
+        if ( ctx.getNumericMode() == NumericMode.DOUBLE ) {
+            Double l = EvalHelper.getDoubleOrNull( left );
+            Double r = EvalHelper.getDoubleOrNull( right );
+            return l == null || r == null ? null : doubleMath( operator, l, r );
+        }
         BigDecimal l = EvalHelper.getBigDecimalOrNull( left );
         BigDecimal r = EvalHelper.getBigDecimalOrNull( right );
         if ( l == null || r == null ) {
@@ -286,6 +327,34 @@ public class InfixOpNode
         }
     }
 
+    /**
+     * Applies an arithmetic operator in {@link NumericMode#DOUBLE}. Results that
+     * are not finite, like a division by zero, are null as in the decimal mode.
+     */
+    protected static Double doubleMath(InfixOperator operator, double l, double r) {
+        double result;
+        switch ( operator ) {
+            case ADD:
+                result = l + r;
+                break;
+            case SUB:
+                result = l - r;
+                break;
+            case MULT:
+                result = l * r;
+                break;
+            case DIV:
+                result = l / r;
+                break;
+            case POW:
+                result = Math.pow( l, (int) r );
+                break;
+            default:
+                return null;
+        }
+        return Double.isFinite( result ) ? result : null;
+    }
+
     /**
      * Implements the ternary logic AND operation
      */
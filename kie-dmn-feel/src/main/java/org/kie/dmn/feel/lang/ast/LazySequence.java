@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The elements of a list, produced as they are iterated. Nested for and
+ * filter expressions, and the built-in functions that iterate over their
+ * list only once, pass these around instead of building intermediate lists.
+ *
+ * A sequence can only be iterated once: iterating it again continues where
+ * the previous iteration stopped. It is never the result of an expression,
+ * as FEEL values are materialized into lists.
+ *
+ * When producing an element fails, the producer reports the error and throws
+ * a {@link Failure} through the consumers of the sequence, up to the node
+ * that evaluated it lazily. That node ends with null, as it would have if
+ * the failing list had been evaluated at once.
+ */
+public final class LazySequence
+        implements Iterable<Object> {
+
+    private final Iterator<Object> iterator;
+    private       boolean          failed;
+
+    LazySequence(Iterator<Object> iterator) {
+        this.iterator = iterator;
+    }
+
+    private LazySequence(LazySequence source) {
+        this.iterator = new Guard( source.iterator );
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return iterator;
+    }
+
+    /**
+     * Evaluates the node into a lazy sequence, if it evaluates to a list
+     * that can be produced lazily, or else into its value
+     */
+    static Object evaluate(BaseNode node, EvaluationContext ctx) {
+        if ( node instanceof SequenceNode && ctx instanceof EvaluationContextImpl ) {
+            return ((SequenceNode) node).evaluateLazily( (EvaluationContextImpl) ctx );
+        }
+        return node != null ? node.evaluate( ctx ) : null;
+    }
+
+    /**
+     * Evaluates the node as {@link #evaluate} does, for a consumer that can not
+     * let a {@link Failure} through, such as a function. A failing sequence
+     * then ends early and is marked as failed, and a failure raised before
+     * the sequence is produced makes the value null.
+     */
+    static Object evaluateGuarded(BaseNode node, EvaluationContext ctx) {
+        try {
+            Object value = evaluate( node, ctx );
+            return value instanceof LazySequence ? new LazySequence( (LazySequence) value ) : value;
+        } catch ( Failure f ) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the value is a guarded sequence that ended because
+     * producing one of its elements failed
+     */
+    static boolean isFailed(Object value) {
+        return value instanceof LazySequence && ((LazySequence) value).failed;
+    }
+
+    /**
+     * Returns the value, with a lazy sequence materialized into a list
+     */
+    static Object materialize(Object value) {
+        if ( value instanceof LazySequence ) {
+            List<Object> list = new ArrayList<>();
+            for ( Object element : (LazySequence) value ) {
+                list.add( element );
+            }
+            return list;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "LazySequence";
+    }
+
+    /**
+     * Thrown through the consumers of a sequence when producing one of its
+     * elements failed. The error has already been reported by then.
+     */
+    static final class Failure
+            extends RuntimeException {
+
+        Failure(Throwable cause) {
+            super( cause.getMessage(), cause, false, false );
+        }
+    }
+
+    /**
+     * Ends the elements of the source when producing one of them fails
+     */
+    private final class Guard
+            implements Iterator<Object> {
+
+        private final Iterator<Object> source;
+
+        private Guard(Iterator<Object> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ( failed ) {
+                return false;
+            }
+            try {
+                return source.hasNext();
+            } catch ( Failure f ) {
+                failed = true;
+                return false;
+            }
+        }
+
+        @Override
+        public Object next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            return source.next();
+        }
+    }
+}
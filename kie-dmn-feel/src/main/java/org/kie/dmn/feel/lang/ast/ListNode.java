@@ -51,4 +51,16 @@ public class ListNode
     public List evaluate(EvaluationContext ctx) {
         return elements.stream().map( e -> e != null ? e.evaluate( ctx ) : null ).collect( Collectors.toList() );
     }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode[] compiled = elements.stream().map( e -> e != null ? e.compile() : null ).toArray( CompiledNode[]::new );
+        return ctx -> {
+            List<Object> result = new ArrayList<>( compiled.length );
+            for ( CompiledNode e : compiled ) {
+                result.add( e != null ? e.evaluate( ctx ) : null );
+            }
+            return result;
+        };
+    }
 }
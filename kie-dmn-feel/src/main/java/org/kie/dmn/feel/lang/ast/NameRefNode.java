@@ -18,7 +18,9 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.Type;
 import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.SyntaxErrorEvent;
 import org.kie.dmn.feel.util.EvalHelper;
@@ -26,13 +28,44 @@ import org.kie.dmn.feel.util.EvalHelper;
 public class NameRefNode
         extends BaseNode {
 
+    // the variable name is normalized once, at compile time
+    private String varName;
+    private Type   resultType = BuiltInType.UNKNOWN;
+
     public NameRefNode(ParserRuleContext ctx) {
         super( ctx );
     }
 
+    @Override
+    public void setText(String text) {
+        super.setText( text );
+        this.varName = text != null ? EvalHelper.normalizeVariableName( text ) : null;
+    }
+
+    public String getVariableName() {
+        return varName;
+    }
+
+    @Override
+    public Type getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Sets the statically known type of the referenced variable
+     */
+    public void setResultType(Type resultType) {
+        this.resultType = resultType != null ? resultType : BuiltInType.UNKNOWN;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        String varName = EvalHelper.normalizeVariableName( getText() );
         return ctx.getValue( varName );
     }
+
+    @Override
+    public CompiledNode compile() {
+        String name = varName;
+        return ctx -> ctx.getValue( name );
+    }
 }
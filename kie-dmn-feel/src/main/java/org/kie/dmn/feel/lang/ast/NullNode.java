@@ -30,4 +30,9 @@ public class NullNode
     public Object evaluate(EvaluationContext ctx) {
         return null;
     }
+
+    @Override
+    public CompiledNode compile() {
+        return ctx -> null;
+    }
 }
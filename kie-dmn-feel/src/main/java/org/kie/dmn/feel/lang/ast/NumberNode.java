@@ -18,6 +18,9 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.util.EvalHelper;
 
 import java.math.BigDecimal;
@@ -26,10 +29,12 @@ public class NumberNode
         extends BaseNode {
 
     BigDecimal value;
+    // the value evaluated in NumericMode.DOUBLE
+    Double     doubleValue;
 
     public NumberNode(ParserRuleContext ctx) {
         super( ctx );
-        value = EvalHelper.getBigDecimalOrNull( ctx.getText() );
+        setValue( EvalHelper.getBigDecimalOrNull( ctx.getText() ) );
     }
 
     public BigDecimal getValue() {
@@ -38,10 +43,23 @@ public class NumberNode
 
     public void setValue(BigDecimal value) {
         this.value = value;
+        this.doubleValue = value != null ? value.doubleValue() : null;
+    }
+
+    @Override
+    public Type getResultType() {
+        return BuiltInType.NUMBER;
     }
 
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        return value;
+        return ctx.getNumericMode() == NumericMode.DOUBLE ? doubleValue : value;
+    }
+
+    @Override
+    public CompiledNode compile() {
+        BigDecimal constant = value;
+        Double doubleConstant = doubleValue;
+        return ctx -> ctx.getNumericMode() == NumericMode.DOUBLE ? doubleConstant : constant;
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.util.DecimalArithmetic;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.function.BiFunction;
+
+/**
+ * An infix operation whose operands are statically known to be numbers.
+ * When both operands evaluate to BigDecimals (or to Doubles, in
+ * {@link NumericMode#DOUBLE}) the operation is applied directly, otherwise (nulls, other number classes or values not matching
+ * the declared types) it falls back to the generic operator semantics.
+ */
+public class NumericInfixOpNode
+        extends InfixOpNode {
+
+    private final BiFunction<BigDecimal, BigDecimal, Object> numericOp;
+
+    public NumericInfixOpNode(InfixOpNode node) {
+        super( node );
+        this.numericOp = numericOperation( node.getOperator() );
+        if ( numericOp == null ) {
+            throw new IllegalArgumentException( "Operator '" + node.getOperator().symbol + "' is not a numeric operator" );
+        }
+    }
+
+    public static boolean isNumericOperator(InfixOperator operator) {
+        return numericOperation( operator ) != null;
+    }
+
+    private static BiFunction<BigDecimal, BigDecimal, Object> numericOperation(InfixOperator operator) {
+        switch ( operator ) {
+            case ADD:
+                return DecimalArithmetic::add;
+            case SUB:
+                return DecimalArithmetic::subtract;
+            case MULT:
+                return DecimalArithmetic::multiply;
+            case DIV:
+                return (l, r) -> {
+                    try {
+                        return DecimalArithmetic.divide( l, r );
+                    } catch ( ArithmeticException e ) {
+                        // happens in cases like division by 0
+                        return null;
+                    }
+                };
+            case POW:
+                return (l, r) -> {
+                    try {
+                        return l.pow( r.intValue(), MathContext.DECIMAL128 );
+                    } catch ( ArithmeticException e ) {
+                        return null;
+                    }
+                };
+            case LTE:
+                return (l, r) -> l.compareTo( r ) <= 0;
+            case LT:
+                return (l, r) -> l.compareTo( r ) < 0;
+            case GT:
+                return (l, r) -> l.compareTo( r ) > 0;
+            case GTE:
+                return (l, r) -> l.compareTo( r ) >= 0;
+            case EQ:
+                return (l, r) -> l.compareTo( r ) == 0;
+            case NE:
+                return (l, r) -> l.compareTo( r ) != 0;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object evaluate(EvaluationContext ctx) {
+        return apply( getLeft().evaluate( ctx ), getRight().evaluate( ctx ), ctx );
+    }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode l = getLeft().compile();
+        CompiledNode r = getRight().compile();
+        return ctx -> apply( l.evaluate( ctx ), r.evaluate( ctx ), ctx );
+    }
+
+    private Object apply(Object left, Object right, EvaluationContext ctx) {
+        if ( ctx.getNumericMode() == NumericMode.DOUBLE ) {
+            if ( left instanceof Double && right instanceof Double ) {
+                return applyDouble( (Double) left, (Double) right );
+            }
+        } else if ( left instanceof BigDecimal && right instanceof BigDecimal ) {
+            return numericOp.apply( (BigDecimal) left, (BigDecimal) right );
+        }
+        return evaluate( left, right, ctx );
+    }
+
+    private Object applyDouble(double l, double r) {
+        switch ( getOperator() ) {
+            case LTE:
+                return l <= r;
+            case LT:
+                return l < r;
+            case GT:
+                return l > r;
+            case GTE:
+                return l >= r;
+            case EQ:
+                return l == r;
+            case NE:
+                return l != r;
+            default:
+                return doubleMath( getOperator(), l, r );
+        }
+    }
+}
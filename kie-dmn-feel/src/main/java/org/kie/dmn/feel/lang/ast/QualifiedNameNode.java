@@ -34,6 +34,14 @@ public class QualifiedNameNode
         this.parts = parts;
     }
 
+    /**
+     * Creates a copy of the given node, to be used by specialized subclasses
+     */
+    protected QualifiedNameNode(QualifiedNameNode other) {
+        copyLocation( other );
+        this.parts = other.parts;
+    }
+
     public List<NameRefNode> getParts() {
         return parts;
     }
@@ -87,16 +87,24 @@ public class QuantifiedExpressionNode
     @Override
     public Boolean evaluate(EvaluationContext ctx) {
         if( quantifier == Quantifier.SOME || quantifier == Quantifier.EVERY ) {
-            return iterateContexts( ctx, iterationContexts, expression, quantifier );
+            try {
+                return iterateContexts( ctx, iterationContexts, expression, quantifier );
+            } catch ( LazySequence.Failure f ) {
+                // the list being iterated failed, and reported it
+                return null;
+            }
         }
         ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.IS_NULL, "Quantifier")) );
         return null;
     }
 
     private Boolean iterateContexts(EvaluationContext ctx, List<IterationContextNode> iterationContexts, BaseNode expression, Quantifier quantifier ) {
+        // the first context does not see any of the variables of the iteration, and it is
+        // iterated only once, so it is evaluated lazily, before the frame is created
+        Object first = iterationContexts.isEmpty() ? null : LazySequence.evaluate( iterationContexts.get( 0 ).getExpression(), ctx );
         try {
             ctx.enterFrame();
-            QEIteration[] ictx = initializeContexts(ctx, iterationContexts);
+            QEIteration[] ictx = initializeContexts(ctx, iterationContexts, first);
 
             while ( nextIteration( ctx, ictx ) ) {
                 Boolean result = (Boolean) expression.evaluate( ctx );
@@ -127,18 +135,18 @@ public class QuantifiedExpressionNode
         ctx.setValue( qeIteration.getName(), qeIteration.getNextValue() );
     }
 
-    private QEIteration[] initializeContexts(EvaluationContext ctx, List<IterationContextNode> iterationContexts) {
+    private QEIteration[] initializeContexts(EvaluationContext ctx, List<IterationContextNode> iterationContexts, Object first) {
         QEIteration[] ictx = new QEIteration[iterationContexts.size()];
         int i = 0;
         for ( IterationContextNode icn : iterationContexts ) {
-            ictx[i++] = createQuantifiedExpressionIterationContext( ctx, icn );
+            ictx[i] = createQuantifiedExpressionIterationContext( ctx, icn, i == 0 ? first : icn.evaluate( ctx ) );
+            i++;
         }
         return ictx;
     }
 
-    private QEIteration createQuantifiedExpressionIterationContext(EvaluationContext ctx, IterationContextNode icn) {
+    private QEIteration createQuantifiedExpressionIterationContext(EvaluationContext ctx, IterationContextNode icn, Object result) {
         String name = icn.evaluateName( ctx );
-        Object result = icn.evaluate( ctx );
         Iterable values = result instanceof Iterable ? (Iterable) result : Collections.singletonList( result );
         QEIteration qei = new QEIteration( name, values );
         return qei;
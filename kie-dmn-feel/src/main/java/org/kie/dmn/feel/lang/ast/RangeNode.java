@@ -79,9 +79,20 @@ public class RangeNode
 
     @Override
     public Range evaluate(EvaluationContext ctx) {
-        Comparable s = (Comparable) start.evaluate( ctx );
-        Comparable e = (Comparable) end.evaluate( ctx );
-        
+        return createRange( ctx, start.evaluate( ctx ), end.evaluate( ctx ) );
+    }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode s = start.compile();
+        CompiledNode e = end.compile();
+        return ctx -> createRange( ctx, s.evaluate( ctx ), e.evaluate( ctx ) );
+    }
+
+    private Range createRange(EvaluationContext ctx, Object start, Object end) {
+        Comparable s = (Comparable) start;
+        Comparable e = (Comparable) end;
+
         boolean problem = false;
         if ( s == null ) { ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.IS_NULL, "Start"))); problem = true; }
         if ( e == null ) { ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.IS_NULL, "End"))); problem = true; }
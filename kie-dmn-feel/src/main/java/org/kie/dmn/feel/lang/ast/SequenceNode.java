@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+
+/**
+ * A node that evaluates to a list whose elements can also be produced one
+ * at a time, for the nodes and functions that only iterate over it once.
+ */
+public interface SequenceNode {
+
+    /**
+     * Evaluates this node, returning a {@link LazySequence} instead of the
+     * list {@link BaseNode#evaluate} would return. Any other result is the
+     * same as the one of {@link BaseNode#evaluate}.
+     */
+    Object evaluateLazily(EvaluationContextImpl ctx);
+
+}
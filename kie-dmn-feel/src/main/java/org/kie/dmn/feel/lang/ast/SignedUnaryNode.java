@@ -18,6 +18,9 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
@@ -57,14 +60,41 @@ public class SignedUnaryNode
         return expression;
     }
 
+    public void setExpression(BaseNode expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    public Type getResultType() {
+        return expression.getResultType() == BuiltInType.NUMBER ? BuiltInType.NUMBER : BuiltInType.UNKNOWN;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        BigDecimal result = EvalHelper.getBigDecimalOrNull( expression.evaluate( ctx ) );
+        return applySign( ctx, expression.evaluate( ctx ) );
+    }
+
+    @Override
+    public CompiledNode compile() {
+        CompiledNode e = expression.compile();
+        return ctx -> applySign( ctx, e.evaluate( ctx ) );
+    }
+
+    private Object applySign(EvaluationContext ctx, Object value) {
+        if ( ctx.getNumericMode() == NumericMode.DOUBLE ) {
+            Double result = EvalHelper.getDoubleOrNull( value );
+            if ( result == null ) {
+                ctx.notifyEvt( astEvent(Severity.WARN, Msg.createMessage(Msg.NEGATING_A_NULL)));
+                return null;
+            }
+            return Sign.NEGATIVE == sign ? -result : result;
+        }
+        BigDecimal result = EvalHelper.getBigDecimalOrNull( value );
         if ( result == null ) {
             ctx.notifyEvt( astEvent(Severity.WARN, Msg.createMessage(Msg.NEGATING_A_NULL)));
             return null;
         } else if ( Sign.NEGATIVE == sign ) {
-            return BigDecimal.valueOf( -1 ).multiply( result );
+            return result.negate();
         } else {
             return result;
         }
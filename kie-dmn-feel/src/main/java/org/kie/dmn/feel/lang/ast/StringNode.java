@@ -18,6 +18,8 @@ package org.kie.dmn.feel.lang.ast;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.util.EvalHelper;
 
 public class StringNode
@@ -27,8 +29,19 @@ public class StringNode
         super( ctx );
     }
 
+    @Override
+    public Type getResultType() {
+        return BuiltInType.STRING;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
         return EvalHelper.unescapeString( getText() );
     }
+
+    @Override
+    public CompiledNode compile() {
+        String constant = EvalHelper.unescapeString( getText() );
+        return ctx -> constant;
+    }
 }
@@ -21,6 +21,7 @@ import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.Range;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
 
 import java.util.List;
@@ -80,36 +81,68 @@ public class UnaryTestNode
 
     @Override
     public UnaryTest evaluate(EvaluationContext ctx) {
+        UnaryTest test = isConstantComparison() ? new ConstantComparison( operator, value.evaluate( ctx ) ) : createTest( value );
+        if ( test == null ) {
+            ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.NULL_OR_UNKNOWN_OPERATOR)));
+        }
+        return test;
+    }
+
+    @Override
+    public CompiledNode compile() {
+        if ( isConstantComparison() ) {
+            // numbers depend on the numeric mode, so the constant is only known on evaluation
+            CompiledNode constant = value.compile();
+            UnaryOperator op = operator;
+            return ctx -> new ConstantComparison( op, constant.evaluate( ctx ) );
+        }
+        UnaryTest test = createTest( value.compile() );
+        if ( test == null ) {
+            return this;
+        }
+        // the test does not depend on the evaluation context, so it is created only once
+        return ctx -> test;
+    }
+
+    private boolean isConstantComparison() {
+        return operator != null && operator != UnaryOperator.NOT &&
+               (value instanceof ConstantNode || value instanceof NumberNode || value instanceof StringNode || value instanceof BooleanNode);
+    }
+
+    private UnaryTest createTest(CompiledNode value) {
+        if ( operator == null ) {
+            return null;
+        }
         switch ( operator ) {
             case LTE:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) <= 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) <= 0;
                 };
             case LT:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) < 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) < 0;
                 };
             case GT:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) > 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) > 0;
                 };
             case GTE:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) >= 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) >= 0;
                 };
             case EQ:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) == 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) == 0;
                 };
             case NE:
                 return (c, o) -> {
                     Object val = value.evaluate( c );
-                    return o == null || val == null ? null : ((Comparable) o).compareTo( val ) != 0;
+                    return o == null || val == null ? null : EvalHelper.compare( o, val ) != 0;
                 };
             case NOT:
                 return (c, o) -> {
@@ -137,7 +170,55 @@ public class UnaryTestNode
                     return true;
                 };
         }
-        ctx.notifyEvt( astEvent(Severity.ERROR, Msg.createMessage(Msg.NULL_OR_UNKNOWN_OPERATOR)));
         return null;
     }
+
+    /**
+     * A comparison of the input to a constant, as in "< 10". The constant is
+     * evaluated once, and is exposed so that decision tables can index the test.
+     */
+    public static class ConstantComparison
+            implements UnaryTest {
+
+        private final UnaryOperator operator;
+        private final Object        constant;
+
+        public ConstantComparison(UnaryOperator operator, Object constant) {
+            if ( operator == UnaryOperator.NOT ) {
+                throw new IllegalArgumentException( "Not a comparison: " + operator );
+            }
+            this.operator = operator;
+            this.constant = constant;
+        }
+
+        public UnaryOperator getOperator() {
+            return operator;
+        }
+
+        public Object getConstant() {
+            return constant;
+        }
+
+        @Override
+        public Boolean apply(EvaluationContext c, Object o) {
+            if ( o == null || constant == null ) {
+                return null;
+            }
+            int r = EvalHelper.compare( o, constant );
+            switch ( operator ) {
+                case LTE:
+                    return r <= 0;
+                case LT:
+                    return r < 0;
+                case GT:
+                    return r > 0;
+                case GTE:
+                    return r >= 0;
+                case EQ:
+                    return r == 0;
+                default:
+                    return r != 0;
+            }
+        }
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.impl;
+
+import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.CustomType;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Type;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread safe, least recently used cache of compiled
+ * expressions.
+ *
+ * Entries are keyed by the expression text together with the
+ * names (and types) of the input variables known at compile time,
+ * as those drive how multi-word names are tokenized by the parser,
+ * by the numeric mode the expression is compiled for, and by the
+ * backend and constant folding settings of the compiling instance.
+ *
+ * The cache is opt-in: either set it on a FEELImpl instance, or set
+ * the system property {@link #CACHE_SIZE_PROPERTY} to a positive
+ * size to have every FEEL instance share a JVM wide cache.
+ */
+public class CompiledExpressionCache {
+
+    public static final String CACHE_SIZE_PROPERTY = "org.kie.dmn.feel.compiledExpressionCache.size";
+
+    private static final CompiledExpressionCache SHARED = createShared();
+
+    private final int maxSize;
+    private final Map<Key, CompiledExpression> entries;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CompiledExpressionCache(int maxSize) {
+        if ( maxSize <= 0 ) {
+            throw new IllegalArgumentException( "Cache size must be positive: " + maxSize );
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Key, CompiledExpression>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompiledExpression> eldest) {
+                if ( size() > CompiledExpressionCache.this.maxSize ) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the JVM wide cache configured through {@link #CACHE_SIZE_PROPERTY},
+     * or null if it was not enabled.
+     */
+    public static CompiledExpressionCache getShared() {
+        return SHARED;
+    }
+
+    private static CompiledExpressionCache createShared() {
+        int size = Integer.getInteger( CACHE_SIZE_PROPERTY, 0 );
+        return size > 0 ? new CompiledExpressionCache( size ) : null;
+    }
+
+    public static Key newKey(String expression, CompilerContext ctx, boolean compiledBackend, boolean constantFolding) {
+        Map<String, String> types = new TreeMap<>();
+        ctx.getInputVariableTypes().forEach( (name, type) -> types.put( name, describe( type ) ) );
+        return new Key( expression, types, shapeOf( ctx.getInputVariables() ), ctx.getNumericMode(), compiledBackend, constantFolding );
+    }
+
+    /**
+     * Composite types drive the parsing of qualified names and are used
+     * to specialize the AST, so their fields are part of the description.
+     */
+    private static String describe(Type type) {
+        if ( type == null ) {
+            return null;
+        } else if ( type instanceof CustomType ) {
+            StringBuilder sb = new StringBuilder( String.valueOf( type.getName() ) ).append( '{' );
+            new TreeMap<>( ((CustomType) type).getProperties() ).forEach( (name, p) -> sb.append( name ).append( ':' ).append( describe( p.getType() ) ).append( ',' ) );
+            return sb.append( '}' ).toString();
+        }
+        return type.getName();
+    }
+
+    /**
+     * The parser only looks at the variable names, recursing into
+     * context values, so the shape is a tree of names.
+     */
+    private static Map<String, Object> shapeOf(Map<String, Object> variables) {
+        if ( variables.isEmpty() ) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> shape = new TreeMap<>();
+        variables.forEach( (name, value) -> shape.put( name, value instanceof Map ? shapeOf( (Map<String, Object>) value ) : null ) );
+        return shape;
+    }
+
+    public CompiledExpression get(Key key) {
+        CompiledExpression expr;
+        synchronized ( entries ) {
+            expr = entries.get( key );
+        }
+        if ( expr != null ) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return expr;
+    }
+
+    public void put(Key key, CompiledExpression expr) {
+        synchronized ( entries ) {
+            entries.put( key, expr );
+        }
+    }
+
+    public void clear() {
+        synchronized ( entries ) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized ( entries ) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledExpressionCache{" +
+               "size=" + size() +
+               ", maxSize=" + maxSize +
+               ", hits=" + hits +
+               ", misses=" + misses +
+               ", evictions=" + evictions +
+               '}';
+    }
+
+    public static final class Key {
+        private final String              expression;
+        private final Map<String, String> types;
+        private final Map<String, Object> variables;
+        private final NumericMode         numericMode;
+        private final boolean             compiledBackend;
+        private final boolean             constantFolding;
+        private final int                 hash;
+
+        private Key(String expression, Map<String, String> types, Map<String, Object> variables, NumericMode numericMode,
+                    boolean compiledBackend, boolean constantFolding) {
+            this.expression = expression;
+            this.types = types;
+            this.variables = variables;
+            this.numericMode = numericMode;
+            this.compiledBackend = compiledBackend;
+            this.constantFolding = constantFolding;
+            int h = expression.hashCode();
+            h = 31 * h + types.hashCode();
+            h = 31 * h + variables.hashCode();
+            h = 31 * h + numericMode.hashCode();
+            h = 31 * h + Boolean.hashCode( compiledBackend );
+            h = 31 * h + Boolean.hashCode( constantFolding );
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Key) ) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash &&
+                   expression.equals( key.expression ) &&
+                   types.equals( key.types ) &&
+                   variables.equals( key.variables ) &&
+                   numericMode == key.numericMode &&
+                   compiledBackend == key.compiledBackend &&
+                   constantFolding == key.constantFolding;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -17,26 +17,81 @@
 package org.kie.dmn.feel.lang.impl;
 
 import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.lang.ast.ASTNode;
+import org.kie.dmn.feel.lang.ast.CompiledNode;
 import org.kie.dmn.feel.lang.types.SymbolTable;
+import org.kie.dmn.feel.util.EvalHelper;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class CompiledExpressionImpl implements CompiledExpression {
-    private ASTNode     expression;
+    private final ASTNode      expression;
+    // the closure used by the compiled backend, or the AST itself when interpreted
+    private final CompiledNode evaluator;
+    private final NumericMode  numericMode;
+    // the built-in functions the evaluator assumes are not shadowed, and the evaluator to use when they are
+    private       Set<String>            builtInNames = Collections.emptySet();
+    private       Supplier<CompiledNode> unoptimized;
+    private volatile CompiledNode        unoptimizedEvaluator;
 
     public CompiledExpressionImpl(ASTNode expression) {
+        this( expression, expression::evaluate );
+    }
+
+    public CompiledExpressionImpl(ASTNode expression, CompiledNode evaluator) {
+        this( expression, evaluator, NumericMode.DECIMAL );
+    }
+
+    public CompiledExpressionImpl(ASTNode expression, CompiledNode evaluator, NumericMode numericMode) {
         this.expression = expression;
+        this.evaluator = evaluator;
+        this.numericMode = numericMode;
     }
 
     public ASTNode getExpression() {
         return expression;
     }
 
+    /**
+     * Sets the evaluator to use instead when a variable given on evaluation shadows
+     * one of the built-in functions the optimized expression was bound to
+     */
+    public void setUnoptimizedEvaluator(Set<String> builtInNames, Supplier<CompiledNode> unoptimized) {
+        this.builtInNames = builtInNames;
+        this.unoptimized = unoptimized;
+    }
+
     public Object evaluate(FEELEventListenersManager eventsManager, Map<String, Object> inputVariables) {
-        EvaluationContextImpl ctx = new EvaluationContextImpl( eventsManager );
+        EvaluationContextImpl ctx = new EvaluationContextImpl( eventsManager, numericMode );
         inputVariables.entrySet().stream().forEach( e -> ctx.setValue( e.getKey(), e.getValue() ) );
-        return expression.evaluate( ctx );
+        Object result = evaluatorFor( inputVariables ).evaluate( ctx );
+        // doubles never leave the evaluation, so callers always get the same number types
+        return numericMode == NumericMode.DOUBLE ? EvalHelper.coerceDoublesToDecimals( result ) : result;
+    }
+
+    private CompiledNode evaluatorFor(Map<String, Object> inputVariables) {
+        if ( builtInNames.isEmpty() ) {
+            return evaluator;
+        }
+        for ( String name : inputVariables.keySet() ) {
+            if ( builtInNames.contains( EvalHelper.normalizeVariableName( name ) ) ) {
+                CompiledNode e = unoptimizedEvaluator;
+                if ( e == null ) {
+                    e = unoptimized.get();
+                    unoptimizedEvaluator = e;
+                }
+                return e;
+            }
+        }
+        return evaluator;
+    }
+
+    public NumericMode getNumericMode() {
+        return numericMode;
     }
 
     @Override
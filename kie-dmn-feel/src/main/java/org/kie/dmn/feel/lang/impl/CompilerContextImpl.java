@@ -17,6 +17,7 @@
 package org.kie.dmn.feel.lang.impl;
 
 import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.lang.Type;
 
 import java.util.HashMap;
@@ -26,6 +27,7 @@ public class CompilerContextImpl implements CompilerContext {
     private final FEELEventListenersManager eventsManager;
     private Map<String, Object> inputVariables = new HashMap<>();
     private Map<String, Type> inputVariableTypes = new HashMap<>();
+    private NumericMode numericMode = NumericMode.DECIMAL;
 
     public CompilerContextImpl(FEELEventListenersManager eventsManager) {
         this.eventsManager = eventsManager;
@@ -56,4 +58,15 @@ public class CompilerContextImpl implements CompilerContext {
     public Map<String, Object> getInputVariables() {
         return this.inputVariables;
     }
+
+    @Override
+    public CompilerContext setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode;
+        return this;
+    }
+
+    @Override
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
 }
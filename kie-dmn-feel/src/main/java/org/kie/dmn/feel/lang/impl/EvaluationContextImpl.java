@@ -17,49 +17,70 @@
 package org.kie.dmn.feel.lang.impl;
 
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.runtime.functions.BuiltInFunctions;
 import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.runtime.FEELFunction;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
 public class EvaluationContextImpl implements EvaluationContext {
 
+    // the root frame holds all the built in functions and is shared by all contexts
+    private static final ExecutionFrame ROOT_FRAME = createRootFrame();
+
     private final FEELEventListenersManager eventsManager;
-    private       Stack<ExecutionFrame> stack;
+    private final NumericMode               numericMode;
+    // frames are kept on a plain array, as the context is never shared between threads
+    private       ExecutionFrame[]          stack;
+    private       int                       stackSize;
 
     public EvaluationContextImpl(FEELEventListenersManager eventsManager) {
+        this( eventsManager, NumericMode.DECIMAL );
+    }
+
+    public EvaluationContextImpl(FEELEventListenersManager eventsManager, NumericMode numericMode) {
         this.eventsManager = eventsManager;
-        this.stack = new Stack<>();
-        // we create a rootFrame to hold all the built in functions
-        // TODO: can we cache/reuse the rootFrame to avoid recreating it all the time?
-        ExecutionFrame rootFrame = new ExecutionFrame( null );
-        for( FEELFunction f : BuiltInFunctions.getFunctions() ) {
-            rootFrame.setValue( f.getName(), f );
-        }
-        push( rootFrame );
+        this.numericMode = numericMode;
+        this.stack = new ExecutionFrame[8];
+        push( ROOT_FRAME );
         // and then create a global frame to be the starting frame
         // for function evaluation
-        ExecutionFrame global = new ExecutionFrame( rootFrame );
+        ExecutionFrame global = new ExecutionFrame( ROOT_FRAME );
         push( global );
     }
 
+    private static ExecutionFrame createRootFrame() {
+        Map<String, Object> functions = new HashMap<>();
+        for( FEELFunction f : BuiltInFunctions.getFunctions() ) {
+            functions.put( f.getName(), f );
+        }
+        return new ImmutableExecutionFrame( functions );
+    }
+
     public void push(ExecutionFrame obj) {
-        stack.push( obj );
+        if ( stackSize == stack.length ) {
+            stack = Arrays.copyOf( stack, stackSize * 2 );
+        }
+        stack[stackSize++] = obj;
     }
 
     public ExecutionFrame pop() {
-        return stack.pop();
+        ExecutionFrame frame = stack[--stackSize];
+        stack[stackSize] = null;
+        return frame;
     }
 
     public ExecutionFrame peek() {
-        return stack.peek();
+        return stack[stackSize - 1];
     }
 
-    public Stack<ExecutionFrame> getStack() {
-        return this.stack;
+    public List<ExecutionFrame> getStack() {
+        return Collections.unmodifiableList( Arrays.asList( stack ).subList( 0, stackSize ) );
     }
 
     @Override
@@ -74,7 +95,7 @@ public class EvaluationContextImpl implements EvaluationContext {
 
     @Override
     public void setValue(String name, Object value) {
-        peek().setValue( name, EvalHelper.coerceNumber( value ) );
+        peek().setValue( name, EvalHelper.coerceNumber( value, numericMode ) );
     }
 
     @Override
@@ -100,8 +121,8 @@ public class EvaluationContextImpl implements EvaluationContext {
     @Override
     public Map<String, Object> getAllValues() {
         Map<String, Object> values = new HashMap<>(  );
-        for( int i = 0; i < stack.size(); i++ ) {
-            values.putAll( stack.get( i ).getAllValues() );
+        for( int i = 0; i < stackSize; i++ ) {
+            values.putAll( stack[i].getAllValues() );
         }
         return values;
     }
@@ -109,4 +130,9 @@ public class EvaluationContextImpl implements EvaluationContext {
     public FEELEventListenersManager getEventsManager() {
         return eventsManager;
     }
+
+    @Override
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
 }
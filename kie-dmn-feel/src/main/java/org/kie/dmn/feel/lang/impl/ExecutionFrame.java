@@ -23,12 +23,20 @@ import java.util.Map;
 import java.util.Objects;
 
 public class ExecutionFrame {
+    // returned by resolve() when the frame does not define a name
+    protected static final Object UNDEFINED = new Object();
+
     private ExecutionFrame parentFrame;
 
-    private Map<String, Object> variables = new HashMap<>();
+    private final Map<String, Object> variables;
 
     public ExecutionFrame(ExecutionFrame parentFrame) {
+        this( parentFrame, new HashMap<>() );
+    }
+
+    protected ExecutionFrame(ExecutionFrame parentFrame, Map<String, Object> variables) {
         this.parentFrame = parentFrame;
+        this.variables = variables;
     }
 
     public ExecutionFrame getParentFrame() {
@@ -41,26 +49,38 @@ public class ExecutionFrame {
 
     public Object getValue(String symbol) {
         symbol = EvalHelper.normalizeVariableName( symbol );
-        if ( variables.containsKey( symbol ) ) {
-            return variables.get( symbol );
-        }
-        if ( parentFrame != null ) {
-            return parentFrame.getValue( symbol );
+        // the name is normalized only once, and the parent frames are walked iteratively
+        for ( ExecutionFrame frame = this; frame != null; frame = frame.parentFrame ) {
+            Object value = frame.resolve( symbol );
+            if ( value != UNDEFINED ) {
+                return value;
+            }
         }
         return null;
     }
 
+    /**
+     * Returns the value of the given, already normalized, name in this frame
+     * only, or {@link #UNDEFINED} if this frame does not define it
+     */
+    protected Object resolve(String symbol) {
+        Object value = variables.get( symbol );
+        if ( value != null || variables.containsKey( symbol ) ) {
+            return value;
+        }
+        return UNDEFINED;
+    }
+
     public Object getValue(String[] symbol) {
         throw new UnsupportedOperationException( "needs implementation?" );
     }
 
     public boolean isDefined( String symbol ) {
         symbol = EvalHelper.normalizeVariableName( symbol );
-        if ( variables.containsKey( symbol ) ) {
-            return true;
-        }
-        if ( parentFrame != null ) {
-            return parentFrame.isDefined( symbol );
+        for ( ExecutionFrame frame = this; frame != null; frame = frame.parentFrame ) {
+            if ( frame.resolve( symbol ) != UNDEFINED ) {
+                return true;
+            }
         }
         return false;
     }
@@ -20,15 +20,23 @@ import org.antlr.v4.runtime.tree.ParseTree;
 import org.kie.dmn.feel.FEEL;
 import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.ast.ASTOptimizer;
 import org.kie.dmn.feel.lang.ast.BaseNode;
+import org.kie.dmn.feel.lang.ast.CompiledNode;
 import org.kie.dmn.feel.parser.feel11.ASTBuilderVisitor;
 import org.kie.dmn.feel.parser.feel11.FEELParser;
-import org.kie.dmn.feel.parser.feel11.FEEL_1_1Parser;
+import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.FEELEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Language runtime entry point
@@ -36,23 +44,66 @@ import java.util.Set;
 public class FEELImpl
         implements FEEL {
 
+    private static final Logger LOG = LoggerFactory.getLogger( FEELImpl.class );
+
+    /**
+     * System property that enables the compiled backend by default
+     * on every new FEEL instance.
+     */
+    public static final String COMPILED_BACKEND_PROPERTY = "org.kie.dmn.feel.compiledBackend";
+
     private static final Map<String,Object> EMPTY_INPUT = Collections.emptyMap();
 
     private FEELEventListenersManager eventsManager = new FEELEventListenersManager();
 
+    private CompiledExpressionCache expressionCache = CompiledExpressionCache.getShared();
+
+    private boolean compiledBackend = Boolean.getBoolean( COMPILED_BACKEND_PROPERTY );
+
+    private boolean constantFolding = true;
+
+    private NumericMode numericMode = NumericMode.DECIMAL;
+
     public CompilerContext newCompilerContext() {
-        return new CompilerContextImpl( eventsManager );
+        return new CompilerContextImpl( eventsManager ).setNumericMode( numericMode );
     }
 
     public CompiledExpression compile(String expression, CompilerContext ctx) {
-        FEEL_1_1Parser parser = FEELParser.parse( eventsManager, expression, ctx.getInputVariableTypes(), ctx.getInputVariables() );
-        ParseTree tree = parser.compilation_unit();
-        ASTBuilderVisitor v = new ASTBuilderVisitor();
-        BaseNode expr = v.visit( tree );
-        CompiledExpression ce = new CompiledExpressionImpl( expr );
+        return compile( eventsManager, expression, ctx );
+    }
+
+    private CompiledExpression compile(FEELEventListenersManager eventsManager, String expression, CompilerContext ctx) {
+        BaseNode expr = parse( eventsManager, expression, ctx.getInputVariableTypes(), ctx.getInputVariables() );
+        if ( !constantFolding ) {
+            return new CompiledExpressionImpl( expr, evaluator( expr, compiledBackend ), ctx.getNumericMode() );
+        }
+        Set<String> inputVariables = new HashSet<>( ctx.getInputVariableTypes().keySet() );
+        inputVariables.addAll( ctx.getInputVariables().keySet() );
+        ASTOptimizer optimizer = new ASTOptimizer( inputVariables, ctx.getInputVariableTypes(), ctx.getNumericMode() );
+        BaseNode optimized = optimizer.optimize( expr );
+        LOG.debug( "Folded {} nodes into constants and specialized {} nodes for expression '{}'", optimizer.getFoldedNodes(), optimizer.getSpecializedNodes(), expr.getText() );
+        CompiledExpressionImpl ce = new CompiledExpressionImpl( optimized, evaluator( optimized, compiledBackend ), ctx.getNumericMode() );
+        if ( !optimizer.getBuiltInNames().isEmpty() ) {
+            // variables only given on evaluation may shadow the built-in functions the optimizer relied on,
+            // and the expression is then parsed again, without reporting the events already reported
+            Map<String, Type> types = ctx.getInputVariableTypes();
+            Map<String, Object> variables = ctx.getInputVariables();
+            boolean compiled = compiledBackend;
+            ce.setUnoptimizedEvaluator( optimizer.getBuiltInNames(), () -> evaluator( parse( null, expression, types, variables ), compiled ) );
+        }
         return ce;
     }
 
+    private static BaseNode parse(FEELEventListenersManager eventsManager, String expression, Map<String, Type> inputVariableTypes, Map<String, Object> inputVariables) {
+        ParseTree tree = FEELParser.parseCompilationUnit( eventsManager, expression, inputVariableTypes, inputVariables );
+        ASTBuilderVisitor v = new ASTBuilderVisitor();
+        return v.visit( tree );
+    }
+
+    private static CompiledNode evaluator(BaseNode expr, boolean compiled) {
+        return compiled ? expr.compile() : expr::evaluate;
+    }
+
     public Object evaluate(String expression) {
         return evaluate( expression, FEELImpl.EMPTY_INPUT );
     }
@@ -62,10 +113,84 @@ public class FEELImpl
         if ( inputVariables != null ) {
             inputVariables.entrySet().stream().forEach( e -> ctx.addInputVariable( e.getKey(), e.getValue() ) );
         }
-        CompiledExpression expr = compile( expression, ctx );
+        CompiledExpression expr = expressionCache != null ? compileCached( expression, ctx ) : compile( expression, ctx );
         return evaluate( expr, inputVariables );
     }
 
+    /**
+     * Compiles the expression through the expression cache. Expressions
+     * that fail to compile are not cached, so that the errors are reported
+     * again on every evaluation.
+     */
+    private CompiledExpression compileCached(String expression, CompilerContext ctx) {
+        CompiledExpressionCache.Key key = CompiledExpressionCache.newKey( expression, ctx, compiledBackend, constantFolding );
+        CompiledExpression expr = expressionCache.get( key );
+        if ( expr == null ) {
+            AtomicBoolean failed = new AtomicBoolean( false );
+            FEELEventListenersManager compileEvents = new FEELEventListenersManager();
+            eventsManager.getListeners().forEach( compileEvents::addListener );
+            compileEvents.addListener( evt -> {
+                if ( evt.getSeverity() == FEELEvent.Severity.ERROR ) {
+                    failed.set( true );
+                }
+            } );
+            expr = compile( compileEvents, expression, ctx );
+            if ( !failed.get() ) {
+                expressionCache.put( key, expr );
+            }
+        }
+        return expr;
+    }
+
+    /**
+     * Sets the cache used to share compiled expressions across calls to
+     * {@link #evaluate(String, Map)}. A null cache disables caching.
+     */
+    public void setExpressionCache(CompiledExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
+
+    public CompiledExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
+    /**
+     * Enables or disables the compiled backend. When enabled, expressions
+     * compiled by this instance are turned into closures instead of being
+     * interpreted by walking the AST.
+     */
+    public void setCompiledBackend(boolean compiledBackend) {
+        this.compiledBackend = compiledBackend;
+    }
+
+    public boolean isCompiledBackend() {
+        return compiledBackend;
+    }
+
+    /**
+     * Enables or disables folding of constant subexpressions
+     * when expressions are compiled. Enabled by default.
+     */
+    public void setConstantFolding(boolean constantFolding) {
+        this.constantFolding = constantFolding;
+    }
+
+    public boolean isConstantFolding() {
+        return constantFolding;
+    }
+
+    /**
+     * Sets the numeric mode of the compiler contexts created by this instance,
+     * and so of the expressions it compiles. Defaults to {@link NumericMode#DECIMAL}.
+     */
+    public void setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode;
+    }
+
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
+
     public Object evaluate(CompiledExpression expr, Map<String, Object> inputVariables) {
         return ((CompiledExpressionImpl) expr).evaluate( eventsManager, inputVariables );
     }
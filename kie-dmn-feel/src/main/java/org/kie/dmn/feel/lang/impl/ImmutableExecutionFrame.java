@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.impl;
+
+import org.kie.dmn.feel.util.EvalHelper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A root execution frame whose variables are fixed at construction
+ * time, so that it can be shared by all evaluation contexts.
+ */
+public class ImmutableExecutionFrame
+        extends ExecutionFrame {
+
+    public ImmutableExecutionFrame(Map<String, Object> variables) {
+        super( null, Collections.unmodifiableMap( normalize( variables ) ) );
+    }
+
+    private static Map<String, Object> normalize(Map<String, Object> variables) {
+        Map<String, Object> normalized = new HashMap<>();
+        variables.forEach( (name, value) -> normalized.put( EvalHelper.normalizeVariableName( name ), value ) );
+        return normalized;
+    }
+
+    @Override
+    public void setParentFrame(ExecutionFrame parentFrame) {
+        throw new UnsupportedOperationException( "Immutable frame" );
+    }
+
+    @Override
+    public void setValue(String symbol, Object value) {
+        throw new UnsupportedOperationException( "Immutable frame" );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.lang.impl;
+
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.util.EvalHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The frame a list filter tests each element in. The element is bound
+ * to "item" and, when it is a context, its entries are bound to their
+ * keys, but they are only looked up when a name is resolved instead of
+ * being copied into the frame for every element.
+ *
+ * When the names the filter may reference are known, only those are
+ * looked up in the element.
+ */
+public class ItemExecutionFrame
+        extends ExecutionFrame {
+
+    private final Object      item;
+    private final Map<?, ?>   entries;
+    private final Set<String> names;
+    private final NumericMode numericMode;
+
+    /**
+     * @param names the normalized names that may be resolved against the
+     *        entries of the element, or null if any name may be
+     */
+    public ItemExecutionFrame(ExecutionFrame parentFrame, Object item, Set<String> names, NumericMode numericMode) {
+        super( parentFrame );
+        this.item = EvalHelper.coerceNumber( item, numericMode );
+        this.entries = item instanceof Map ? (Map<?, ?>) item : null;
+        this.names = names;
+        this.numericMode = numericMode;
+    }
+
+    @Override
+    protected Object resolve(String symbol) {
+        Object value = super.resolve( symbol );
+        if ( value != UNDEFINED ) {
+            return value;
+        }
+        if ( entries != null && (names == null || names.contains( symbol )) ) {
+            value = resolveEntry( symbol );
+            if ( value != UNDEFINED ) {
+                return EvalHelper.coerceNumber( value, numericMode );
+            }
+        }
+        return "item".equals( symbol ) ? item : UNDEFINED;
+    }
+
+    private Object resolveEntry(String symbol) {
+        try {
+            Object value = entries.get( symbol );
+            if ( value != null || entries.containsKey( symbol ) ) {
+                return value;
+            }
+        } catch ( ClassCastException | NullPointerException e ) {
+            // the map does not accept string keys, so it has none
+            return UNDEFINED;
+        }
+        if ( symbol.indexOf( ' ' ) >= 0 ) {
+            // only a key with other or more whitespace in it may normalize to the name
+            for ( Map.Entry<?, ?> entry : entries.entrySet() ) {
+                if ( entry.getKey() instanceof String && symbol.equals( EvalHelper.normalizeVariableName( (String) entry.getKey() ) ) ) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return UNDEFINED;
+    }
+
+    @Override
+    public Map<String, Object> getAllValues() {
+        Map<String, Object> values = new HashMap<>();
+        values.put( "item", item );
+        if ( entries != null ) {
+            for ( Map.Entry<?, ?> entry : entries.entrySet() ) {
+                if ( entry.getKey() instanceof String ) {
+                    values.put( EvalHelper.normalizeVariableName( (String) entry.getKey() ), EvalHelper.coerceNumber( entry.getValue(), numericMode ) );
+                }
+            }
+        }
+        values.putAll( super.getAllValues() );
+        return values;
+    }
+}
@@ -23,7 +23,13 @@ import org.kie.dmn.feel.parser.feel11.ParserHelper;
 import org.kie.dmn.feel.util.EvalHelper;
 
 public class JavaBackedType implements CustomType {
-    private static Map<Class<?>, JavaBackedType> cache = new HashMap<>();
+    // classes that can not be represented as a JavaBackedType map to BuiltInType.UNKNOWN
+    private static final ClassValue<Type> cache = new ClassValue<Type>() {
+        @Override
+        protected Type computeValue(Class<?> type) {
+            return Optional.ofNullable( (Type) createIfAnnotated( type ) ).orElse( BuiltInType.UNKNOWN );
+        }
+    };
     
     private static Set<Method> javaObjectMethods = new HashSet<>( Arrays.asList( Object.class.getMethods() ) );
     
@@ -59,7 +65,7 @@ public class JavaBackedType implements CustomType {
      * @return JavaBackedType representing clazz or BuiltInType.UNKNOWN
      */
     public static Type of(Class<?> clazz) {
-        return Optional.ofNullable( (Type) cache.computeIfAbsent( clazz, JavaBackedType::createIfAnnotated ) ).orElse( BuiltInType.UNKNOWN );
+        return cache.get( clazz );
     }
     
     /**
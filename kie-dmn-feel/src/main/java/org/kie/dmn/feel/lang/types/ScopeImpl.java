@@ -28,11 +28,21 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ScopeImpl
         implements Scope {
     public static final Logger LOG = LoggerFactory.getLogger(ScopeImpl.class);
 
+    // symbol names are tokenized over and over for every compiled expression,
+    // so both the tokens and the token trees built from whole symbol sets
+    // are shared process wide. Both caches simply stop growing when full.
+    private static final int MAX_CACHED_TOKENIZATIONS = 10000;
+    private static final int MAX_CACHED_TOKEN_TREES   = 1000;
+
+    private static final Map<String, List<String>>  TOKENIZATIONS = new ConcurrentHashMap<>();
+    private static final Map<Set<String>, TokenTree> TOKEN_TREES   = new ConcurrentHashMap<>();
+
     private String name;
     private Scope  parentScope;
 
@@ -40,6 +50,10 @@ public class ScopeImpl
     private Map<String, Scope>  childScopes = new LinkedHashMap<>();
 
     private TokenTree tokenTree;
+    // true while the token tree is a view of a shared snapshot, that must be copied before adding names
+    private boolean   sharedTokenTree = false;
+
+    private boolean frozen = false;
 
     public ScopeImpl() {
     }
@@ -61,12 +75,19 @@ public class ScopeImpl
     }
 
     public boolean define(Symbol symbol) {
+        if ( frozen ) {
+            throw new IllegalStateException( "Unable to define symbol '" + symbol.getId() + "' on frozen scope " + name );
+        }
         if ( symbols.containsKey( symbol.getId() ) ) {
             // duplicate symbol definition
             return false;
         }
         symbols.put( EvalHelper.normalizeVariableName( symbol.getId() ), symbol );
         if( tokenTree != null ) {
+            if( sharedTokenTree ) {
+                tokenTree = tokenTree.copy();
+                sharedTokenTree = false;
+            }
             // also load the symbol into the token tree
             tokenTree.addName( tokenize( symbol.getId() ) );
         }
@@ -120,6 +141,35 @@ public class ScopeImpl
         return symbols;
     }
 
+    /**
+     * Freezes this scope: its token tree is built eagerly and no new
+     * symbols can be defined afterwards, so that views of it can be
+     * shared safely across threads.
+     */
+    public void freeze() {
+        if ( tokenTree == null ) {
+            initializeTokenTree();
+        }
+        symbols = Collections.unmodifiableMap( symbols );
+        frozen = true;
+    }
+
+    /**
+     * Returns a new scope sharing the symbols and token tree nodes of this
+     * frozen scope, with its own parsing state and child scopes.
+     */
+    public ScopeImpl newView() {
+        if ( !frozen ) {
+            throw new IllegalStateException( "Views can only be created from frozen scopes" );
+        }
+        ScopeImpl view = new ScopeImpl( name, null );
+        view.symbols = symbols;
+        view.tokenTree = tokenTree.newView();
+        view.sharedTokenTree = true;
+        view.frozen = true;
+        return view;
+    }
+
     public void start( String token ) {
         LOG.trace("[{}]: start() {}", name, token);
         if( tokenTree == null ) {
@@ -139,15 +189,43 @@ public class ScopeImpl
     }
 
     private void initializeTokenTree() {
-        LOG.trace("[{}]: initializeTokenTree()");
-        tokenTree = new TokenTree();
-        for( String symbol : symbols.keySet() ) {
-            List<String> tokens = tokenize( symbol );
-            tokenTree.addName( tokens );
+        LOG.trace("[{}]: initializeTokenTree()", name);
+        if( symbols.isEmpty() ) {
+            tokenTree = new TokenTree();
+            return;
+        }
+        Set<String> names = new HashSet<>( symbols.keySet() );
+        TokenTree snapshot = TOKEN_TREES.get( names );
+        if( snapshot == null ) {
+            snapshot = buildTokenTree( names );
+            if( TOKEN_TREES.size() < MAX_CACHED_TOKEN_TREES ) {
+                TOKEN_TREES.putIfAbsent( names, snapshot );
+            }
+        }
+        tokenTree = snapshot.newView();
+        sharedTokenTree = true;
+    }
+
+    private static TokenTree buildTokenTree(Set<String> names) {
+        TokenTree tree = new TokenTree();
+        for( String symbol : names ) {
+            tree.addName( tokenize( symbol ) );
         }
+        return tree;
+    }
+
+    private static List<String> tokenize(String symbol) {
+        List<String> tokens = TOKENIZATIONS.get( symbol );
+        if( tokens == null ) {
+            tokens = Collections.unmodifiableList( lex( symbol ) );
+            if( TOKENIZATIONS.size() < MAX_CACHED_TOKENIZATIONS ) {
+                TOKENIZATIONS.putIfAbsent( symbol, tokens );
+            }
+        }
+        return tokens;
     }
 
-    private List<String> tokenize(String symbol) {
+    private static List<String> lex(String symbol) {
         ANTLRInputStream input = new ANTLRInputStream(symbol);
         FEEL_1_1Lexer lexer = new FEEL_1_1Lexer( input );
         List<String> tokens = new ArrayList<>(  );
@@ -22,19 +22,27 @@ import org.kie.dmn.feel.runtime.functions.BuiltInFunctions;
 import java.util.stream.Stream;
 
 public class SymbolTable {
-    private Scope builtInScope = new ScopeImpl( Scope.BUILT_IN, null );
+    // the built-in functions and types are loaded only once, and each symbol table gets its own view of them
+    private static final ScopeImpl BUILT_IN_SCOPE = createBuiltInScope();
+
+    private Scope builtInScope = BUILT_IN_SCOPE.newView();
 
     public SymbolTable() {
         init();
     }
 
+    private static ScopeImpl createBuiltInScope() {
+        ScopeImpl scope = new ScopeImpl( Scope.BUILT_IN, null );
+        // pre-loads all the built in functions and types
+        Stream.of( BuiltInFunctions.getFunctions() ).forEach( f -> scope.define( f.getSymbol() ) );
+        Stream.of( BuiltInType.values() ).forEach( t -> scope.define( t.getSymbol() ) );
+        scope.freeze();
+        return scope;
+    }
+
     private void init() {
         // the following automatically adds the GLOBAL scope as a child to the built-in scope
         new ScopeImpl( Scope.GLOBAL, builtInScope );
-
-        // pre-loads all the built in functions and types
-        Stream.of( BuiltInFunctions.getFunctions() ).forEach( f -> builtInScope.define( f.getSymbol() ) );
-        Stream.of( BuiltInType.values() ).forEach( t -> builtInScope.define( t.getSymbol() ) );
     }
 
     public Scope getBuiltInScope() {
@@ -17,6 +17,9 @@
 package org.kie.dmn.feel.parser.feel11;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.kie.dmn.feel.lang.Type;
 import org.kie.dmn.feel.lang.impl.JavaBackedType;
 import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
@@ -29,6 +32,38 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FEELParser {
 
+    // building lexers and parsers is expensive, so each thread keeps and resets its own
+    private static final ThreadLocal<ReusableParser> REUSABLE_PARSER = ThreadLocal.withInitial( ReusableParser::new );
+
+    private static final AtomicBoolean WARMED_UP = new AtomicBoolean( false );
+
+    // representative expressions used to warm up the shared ANTLR DFA cache
+    private static final String[] WARM_UP_EXPRESSIONS = new String[]{
+            "1 + 2 * 3 - 4 / 5 ** 2",
+            "-10.5 + a",
+            "a < 10 and b >= 20 or not( c = 30 )",
+            "x != y",
+            "\"foo\" + \"bar\"",
+            "[ 1, 2, 3 ]",
+            "[ < 10, [ 10 .. 20 ), > 20 ]",
+            "-",
+            "{ a : 1, \"b\" : [ 1, 2 ], c : { d : true } }",
+            "if a > b then a else null",
+            "for x in [ 1, 2, 3 ] return x * 2",
+            "some x in [ 1, 2 ] satisfies x > 1",
+            "every x in [ 1, 2 ] satisfies x > 0",
+            "[ { a : 1 }, { a : 2 } ][ a > 1 ]",
+            "{ a : { b : 1 } }.a.b",
+            "x between 1 and 10",
+            "x in ( 1, 2, 3 )",
+            "x instance of number",
+            "date( \"2016-01-01\" ) + duration( \"P1Y\" )",
+            "date and time( \"2016-01-01T10:00:00\" )",
+            "substring( string : \"foo\", start position : 2 )",
+            "function( a, b ) a + b",
+            "sum( [ 1, 2, 3 ] ) / count( [ 1, 2, 3 ] )"
+    };
+
     public static FEEL_1_1Parser parse(FEELEventListenersManager eventsManager, String source, Map<String, Type> inputVariableTypes, Map<String, Object> inputVariables) {
         ANTLRInputStream input = new ANTLRInputStream(source);
         FEEL_1_1Lexer lexer = new FEEL_1_1Lexer( input );
@@ -44,6 +79,55 @@ public class FEELParser {
         return parser;
     }
 
+    /**
+     * Parses a whole expression (compilation unit) in two stages. The
+     * faster SLL prediction mode is tried first, bailing out at the first
+     * error, and only on failure the expression is parsed again using the
+     * full LL prediction mode, which also reports the syntax errors.
+     */
+    public static ParseTree parseCompilationUnit(FEELEventListenersManager eventsManager, String source, Map<String, Type> inputVariableTypes, Map<String, Object> inputVariables) {
+        ReusableParser reusable = REUSABLE_PARSER.get();
+        if ( reusable.inUse ) {
+            // nested parse on the same thread: do not disturb the one in progress
+            reusable = new ReusableParser();
+        }
+        reusable.inUse = true;
+        try {
+            FEEL_1_1Parser parser = reusable.reset( source );
+            parser.getInterpreter().setPredictionMode( PredictionMode.SLL );
+            parser.setErrorHandler( new BailErrorStrategy() );
+            parser.removeErrorListeners();
+            defineVariables( inputVariableTypes, inputVariables, parser );
+            try {
+                return parser.compilation_unit();
+            } catch ( ParseCancellationException e ) {
+                // the grammar actions changed the scopes, so the helper is replaced before parsing again
+                parser.reset();
+                parser.setHelper( new ParserHelper() );
+                parser.getInterpreter().setPredictionMode( PredictionMode.LL );
+                parser.setErrorHandler( new FEELErrorHandler() );
+                parser.addErrorListener( new FEELParserErrorListener( eventsManager ) );
+                defineVariables( inputVariableTypes, inputVariables, parser );
+                return parser.compilation_unit();
+            }
+        } finally {
+            reusable.release();
+        }
+    }
+
+    /**
+     * Warms up the ANTLR DFA cache, that is shared by all parser instances,
+     * by parsing a set of representative expressions. Only the first call
+     * does any work.
+     */
+    public static void warmUp() {
+        if ( WARMED_UP.compareAndSet( false, true ) ) {
+            for ( String expression : WARM_UP_EXPRESSIONS ) {
+                parseCompilationUnit( null, expression, Collections.emptyMap(), Collections.emptyMap() );
+            }
+        }
+    }
+
     public static boolean isVariableNameValid( String source ) {
         if( source == null ) {
             return false;
@@ -87,6 +171,33 @@ public class FEELParser {
 
     }
 
+    private static class ReusableParser {
+        private final ANTLRInputStream  empty  = new ANTLRInputStream( "" );
+        private final FEEL_1_1Lexer     lexer  = new FEEL_1_1Lexer( null );
+        private final CommonTokenStream tokens = new CommonTokenStream( lexer );
+        private final FEEL_1_1Parser    parser = new FEEL_1_1Parser( tokens );
+        private       boolean           inUse  = false;
+
+        private FEEL_1_1Parser reset(String source) {
+            lexer.setInputStream( new ANTLRInputStream( source ) );
+            tokens.setTokenSource( lexer );
+            parser.setTokenStream( tokens );
+            parser.setHelper( new ParserHelper() );
+            return parser;
+        }
+
+        /**
+         * Drops the input and the tokens of the last expression, so that
+         * the thread does not keep them until its next parse
+         */
+        private void release() {
+            lexer.setInputStream( empty );
+            tokens.setTokenSource( lexer );
+            parser.setTokenStream( tokens );
+            inUse = false;
+        }
+    }
+
     public static class FEELErrorHandler extends DefaultErrorStrategy {
 
         @Override
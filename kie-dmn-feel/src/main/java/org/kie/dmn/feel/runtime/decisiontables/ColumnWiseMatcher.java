@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.runtime.UnaryTest;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the rules of a decision table input by input, instead of rule
+ * by rule. Each input gives the set of rules whose entry accepts its
+ * value, and the sets are intersected until they are all applied or the
+ * result is empty.
+ *
+ * The set of an input comes from the index when the input is indexed and
+ * its value can be looked up. Otherwise each distinct entry of the input
+ * is tested once, as the same entry instance is usually shared by many
+ * rules, and only if one of its rules is still a candidate, so entries
+ * are tested against the same values as when matching rule by rule.
+ */
+class ColumnWiseMatcher {
+
+    private final int                ruleCount;
+    private final Column[]           columns;
+    private final DecisionTableIndex index;
+
+    private ColumnWiseMatcher(int ruleCount, Column[] columns, DecisionTableIndex index) {
+        this.ruleCount = ruleCount;
+        this.columns = columns;
+        this.index = index;
+    }
+
+    /**
+     * Returns a matcher for the given rules, or null if some rule does not have
+     * an entry for every input
+     */
+    static ColumnWiseMatcher build(int inputCount, List<DTDecisionRule> rules, DecisionTableIndex index) {
+        for ( DTDecisionRule rule : rules ) {
+            if ( rule.getInputEntry().size() < inputCount ) {
+                return null;
+            }
+        }
+        Column[] columns = new Column[inputCount];
+        for ( int i = 0; i < inputCount; i++ ) {
+            columns[i] = new Column( i, rules );
+        }
+        return new ColumnWiseMatcher( rules.size(), columns, index );
+    }
+
+    /**
+     * Returns the number of distinct entries tested for the given input
+     */
+    int getDistinctEntries(int input) {
+        return columns[input].entries.length;
+    }
+
+    /**
+     * Returns the positions of the rules matching the given input values
+     */
+    BitSet match(EvaluationContext ctx, Object[] params) {
+        BitSet matched = new BitSet( ruleCount );
+        matched.set( 0, ruleCount );
+        for ( int i = 0; i < columns.length && !matched.isEmpty(); i++ ) {
+            BitSet accepted = index != null ? index.accepted( i, params[i] ) : null;
+            if ( accepted != null ) {
+                matched.and( accepted );
+            } else {
+                columns[i].retainAccepted( ctx, params[i], matched );
+            }
+        }
+        return matched;
+    }
+
+    private static class Column {
+        // rules with a dash for this input
+        private final BitSet      any;
+        private final UnaryTest[] entries;
+        private final BitSet[]    rules;
+
+        Column(int input, List<DTDecisionRule> decisionRules) {
+            any = new BitSet( decisionRules.size() );
+            Map<UnaryTest, BitSet> byEntry = new IdentityHashMap<>();
+            List<UnaryTest> distinct = new ArrayList<>();
+            for ( int r = 0; r < decisionRules.size(); r++ ) {
+                UnaryTest entry = decisionRules.get( r ).getInputEntry().get( input );
+                if ( entry instanceof DTInputEntry && ((DTInputEntry) entry).isAny() ) {
+                    any.set( r );
+                } else {
+                    BitSet entryRules = byEntry.get( entry );
+                    if ( entryRules == null ) {
+                        entryRules = new BitSet( decisionRules.size() );
+                        byEntry.put( entry, entryRules );
+                        distinct.add( entry );
+                    }
+                    entryRules.set( r );
+                }
+            }
+            entries = distinct.toArray( new UnaryTest[distinct.size()] );
+            rules = new BitSet[entries.length];
+            for ( int i = 0; i < entries.length; i++ ) {
+                rules[i] = byEntry.get( entries[i] );
+            }
+        }
+
+        void retainAccepted(EvaluationContext ctx, Object value, BitSet matched) {
+            BitSet accepted = (BitSet) any.clone();
+            for ( int i = 0; i < entries.length; i++ ) {
+                if ( rules[i].intersects( matched ) && entries[i].apply( ctx, value ) ) {
+                    accepted.or( rules[i] );
+                }
+            }
+            matched.and( accepted );
+        }
+    }
+}
@@ -16,7 +16,7 @@
 
 package org.kie.dmn.feel.runtime.decisiontables;
 
-import org.kie.dmn.feel.model.v1_1.LiteralExpression;
+import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.runtime.UnaryTest;
 
 import java.util.ArrayList;
@@ -51,7 +51,7 @@ th OutputClause.
 public class DTDecisionRule {
     private int                     index;
     private List<UnaryTest>         inputEntry;
-    private List<String>            outputEntry;
+    private List<CompiledExpression> outputEntry;
 
     public DTDecisionRule(int index) {
         this.index = index;
@@ -71,10 +71,11 @@ index) inputExpression.
 
     /**
 A list of the instances of LiteralExpression that compose
-the output components of this DecisionRule. 
+the output components of this DecisionRule. The output entries
+are compiled once, when the decision table is built.
      * @return
      */
-    public List<String> getOutputEntry() {
+    public List<CompiledExpression> getOutputEntry() {
         if ( outputEntry == null ) {
             outputEntry = new ArrayList<>();
         }
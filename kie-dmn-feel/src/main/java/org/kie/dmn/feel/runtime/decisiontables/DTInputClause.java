@@ -4,16 +4,19 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.runtime.UnaryTest;
 
 public class DTInputClause {
     private final String inputExpression;
     private final String inputValuesText;
     private final List<UnaryTest> inputValues;
+    private final CompiledExpression compiledInput;
 
-    public DTInputClause(String inputExpression, String inputValuesText, List<UnaryTest> inputValues) {
+    public DTInputClause(String inputExpression, String inputValuesText, List<UnaryTest> inputValues, CompiledExpression compiledInput) {
         super();
         this.inputExpression = inputExpression;
+        this.compiledInput = compiledInput;
         this.inputValuesText = inputValuesText;
         if (inputValues != null) {
             this.inputValues = Collections.unmodifiableList(new ArrayList<UnaryTest>(inputValues));
@@ -33,4 +36,8 @@ public class DTInputClause {
     public String getInputValuesText() {
         return inputValuesText;
     }
+
+    public CompiledExpression getCompiledInput() {
+        return compiledInput;
+    }
 }
\ No newline at end of file
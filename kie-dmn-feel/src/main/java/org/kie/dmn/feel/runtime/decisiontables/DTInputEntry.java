@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.runtime.Range;
+import org.kie.dmn.feel.runtime.UnaryTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The input entry of a decision rule: a list of unary tests, satisfied
+ * when any of them is satisfied by the input value.
+ *
+ * The entry keeps track of the tests that just compare the input to a
+ * constant, and of whether it is a dash, so that decision tables can
+ * index the rules by the values of their inputs. Its tests can be
+ * inspected for constant ranges and comparisons as well.
+ */
+public class DTInputEntry
+        implements UnaryTest {
+
+    /**
+     * The "-" entry, satisfied by any input value
+     */
+    public static final DTInputEntry ANY = new DTInputEntry( Collections.emptyList(), true );
+
+    private final UnaryTest[]  tests;
+    private final List<Object> constants;
+    private final boolean      any;
+
+    public DTInputEntry(List<? extends UnaryTest> tests) {
+        this( tests, false );
+    }
+
+    private DTInputEntry(List<? extends UnaryTest> tests, boolean any) {
+        this.tests = tests.toArray( new UnaryTest[tests.size()] );
+        this.any = any;
+        List<Object> values = new ArrayList<>();
+        for ( UnaryTest test : this.tests ) {
+            if ( !(test instanceof EqualsConstant) ) {
+                values = null;
+                break;
+            }
+            values.add( ((EqualsConstant) test).getValue() );
+        }
+        this.constants = values != null ? Collections.unmodifiableList( values ) : null;
+    }
+
+    @Override
+    public Boolean apply(EvaluationContext ctx, Object value) {
+        if ( any ) {
+            return Boolean.TRUE;
+        }
+        for ( UnaryTest test : tests ) {
+            if ( test.apply( ctx, value ) ) {
+                return Boolean.TRUE;
+            }
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Returns true if this entry is satisfied by any input value
+     */
+    public boolean isAny() {
+        return any;
+    }
+
+    public List<UnaryTest> getTests() {
+        return Collections.unmodifiableList( Arrays.asList( tests ) );
+    }
+
+    /**
+     * Returns the constants this entry is satisfied by, when all its tests are
+     * equalities to a constant, or null otherwise
+     */
+    public List<Object> getConstants() {
+        return any ? null : constants;
+    }
+
+    /**
+     * A unary test satisfied by the values equal to a constant. Numbers are
+     * equal by value, whatever their scale.
+     */
+    public static class EqualsConstant
+            implements UnaryTest {
+
+        private final Object value;
+
+        public EqualsConstant(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Boolean apply(EvaluationContext ctx, Object x) {
+            if ( x instanceof BigDecimal && value instanceof BigDecimal ) {
+                return ((BigDecimal) x).compareTo( (BigDecimal) value ) == 0;
+            }
+            return x != null && x.equals( value );
+        }
+    }
+
+    /**
+     * A unary test satisfied by the values included in a range
+     */
+    public static class IncludedInRange
+            implements UnaryTest {
+
+        private final Range range;
+
+        public IncludedInRange(Range range) {
+            this.range = range;
+        }
+
+        public Range getRange() {
+            return range;
+        }
+
+        @Override
+        public Boolean apply(EvaluationContext ctx, Object x) {
+            return x != null && range.includes( (Comparable<?>) x );
+        }
+    }
+}
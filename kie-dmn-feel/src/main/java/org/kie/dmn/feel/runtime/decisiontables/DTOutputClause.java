@@ -4,10 +4,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.kie.dmn.feel.lang.CompiledExpression;
+
 public class DTOutputClause {
     private final String name;
     private final String id;
     private final String defaultValue;
+    private final CompiledExpression compiledDefault;
     /**
 [...] output values is a list of values for the one output. Each value is a string.
 TODO ^ this might be conflict in specs if comparing FEEL scope Vs broader DMN scope.
@@ -15,13 +18,14 @@ TODO ^ this might be conflict in specs if comparing FEEL scope Vs broader DMN sc
     private final List<String> outputValues;
 
     public DTOutputClause(String name, List<String> outputValues) {
-        this( name, null, outputValues, null );
+        this( name, null, outputValues, null, null );
     }
     
-    public DTOutputClause(String name, String id, List<String> outputValues, String defaultValue) {
+    public DTOutputClause(String name, String id, List<String> outputValues, String defaultValue, CompiledExpression compiledDefault) {
         this.name = name;
         this.id = id;
         this.defaultValue = defaultValue;
+        this.compiledDefault = compiledDefault;
 
         if (outputValues != null) {
             this.outputValues = Collections.unmodifiableList(new ArrayList<String>(outputValues));
@@ -45,4 +49,8 @@ TODO ^ this might be conflict in specs if comparing FEEL scope Vs broader DMN sc
     public String getDefaultValue() {
         return defaultValue;
     }
+
+    public CompiledExpression getCompiledDefault() {
+        return compiledDefault;
+    }
 }
@@ -17,7 +17,15 @@
 package org.kie.dmn.feel.runtime.decisiontables;
 
 import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.ast.ASTNode;
+import org.kie.dmn.feel.lang.ast.BooleanNode;
+import org.kie.dmn.feel.lang.ast.ConstantNode;
+import org.kie.dmn.feel.lang.ast.NullNode;
+import org.kie.dmn.feel.lang.ast.NumberNode;
+import org.kie.dmn.feel.lang.ast.StringNode;
+import org.kie.dmn.feel.lang.impl.CompiledExpressionImpl;
 import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.events.DecisionTableRulesMatchedEvent;
@@ -31,8 +39,12 @@ import org.kie.dmn.feel.util.Either;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -45,6 +57,26 @@ import static java.util.stream.Collectors.toMap;
 public class DecisionTableImpl {
     private static final Logger logger = LoggerFactory.getLogger( DecisionTableImpl.class );
 
+    /**
+     * Tables with at least this many rules are matched input by input, unless
+     * set otherwise with {@link #setColumnWiseMatching(boolean)}
+     */
+    public static final String COLUMN_WISE_THRESHOLD_PROPERTY = "org.kie.dmn.feel.decisionTable.columnWiseThreshold";
+
+    private static final int COLUMN_WISE_THRESHOLD = Integer.getInteger( COLUMN_WISE_THRESHOLD_PROPERTY, 64 );
+
+    /**
+     * The largest number of nodes of the decision trees built with {@link #setDecisionTreeMatching(boolean)}
+     */
+    public static final String MAX_TREE_NODES_PROPERTY = "org.kie.dmn.feel.decisionTable.maxTreeNodes";
+
+    private static final int MAX_TREE_NODES = Integer.getInteger( MAX_TREE_NODES_PROPERTY, 10000 );
+
+    // rank of an output entry that is only known once evaluated
+    private static final int UNKNOWN_RANK = -1;
+
+    private static final Object UNEVALUATED = new Object();
+
     private String               name;
     private List<String>         parameterNames;
     private List<DTInputClause>  inputs;
@@ -52,6 +84,15 @@ public class DecisionTableImpl {
     private List<DTDecisionRule> decisionRules;
     private HitPolicy            hitPolicy;
     private boolean              hasDefaultValues;
+    // null when no input can be indexed
+    private DecisionTableIndex   index;
+    // null when matching rule by rule
+    private ColumnWiseMatcher    columnWiseMatcher;
+    // null when not matching through a decision tree
+    private DecisionTree         decisionTree;
+    // for PRIORITY tables, the outputs ranking the rules, and the ranks of the constant output entries
+    private int[]                priorityOutputs;
+    private Map<DTDecisionRule, int[]> outputRanks;
 
     public DecisionTableImpl(String name,
                              List<String> parameterNames,
@@ -65,17 +106,121 @@ public class DecisionTableImpl {
         this.outputs = outputs;
         this.decisionRules = decisionRules;
         this.hitPolicy = hitPolicy;
-        this.hasDefaultValues = outputs.stream().allMatch( o -> o.getDefaultValue() != null );
+        this.hasDefaultValues = outputs.stream().allMatch( o -> o.getCompiledDefault() != null );
+        this.index = DecisionTableIndex.build( inputs.size(), decisionRules );
+        if ( index != null ) {
+            logger.debug( "Indexed {} of {} inputs of decision table '{}'", index.getIndexedInputs(), inputs.size(), name );
+        }
+        setColumnWiseMatching( decisionRules.size() >= COLUMN_WISE_THRESHOLD );
+        if ( hitPolicy == HitPolicy.PRIORITY ) {
+            rankOutputEntries();
+        }
     }
 
     /**
-     * Evaluates this decision table returning the result
+     * Ranks the rules as HitPolicy.PRIORITY does: by the position of their output
+     * in the output values of the first output listing values, then the next one.
+     * Output entries that are literals are ranked once, here.
+     */
+    private void rankOutputEntries() {
+        priorityOutputs = IntStream.range( 0, outputs.size() ).filter( k -> !outputs.get( k ).getOutputValues().isEmpty() ).toArray();
+        outputRanks = new HashMap<>();
+        for ( DTDecisionRule rule : decisionRules ) {
+            int[] ranks = new int[priorityOutputs.length];
+            for ( int j = 0; j < priorityOutputs.length; j++ ) {
+                int k = priorityOutputs[j];
+                ranks[j] = k < rule.getOutputEntry().size() ? constantRank( outputs.get( k ), rule.getOutputEntry().get( k ) ) : UNKNOWN_RANK;
+            }
+            outputRanks.put( rule, ranks );
+        }
+    }
+
+    private static int constantRank(DTOutputClause output, CompiledExpression entry) {
+        if ( entry instanceof CompiledExpressionImpl ) {
+            ASTNode ast = ((CompiledExpressionImpl) entry).getExpression();
+            if ( ast instanceof StringNode || ast instanceof NumberNode || ast instanceof BooleanNode || ast instanceof NullNode || ast instanceof ConstantNode ) {
+                return rankOf( output, ((CompiledExpressionImpl) entry).evaluate( null, Collections.emptyMap() ) );
+            }
+        }
+        return UNKNOWN_RANK;
+    }
+
+    private static int rankOf(DTOutputClause output, Object value) {
+        int rank = output.getOutputValues().indexOf( value );
+        // values not listed rank after all the listed ones
+        return rank >= 0 ? rank : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Selects whether the rules are matched input by input, testing each distinct
+     * input entry once, or rule by rule. The rules found and their order are the
+     * same either way. Tables with rules missing input entries are always
+     * matched rule by rule.
+     */
+    public void setColumnWiseMatching(boolean columnWise) {
+        this.columnWiseMatcher = columnWise ? ColumnWiseMatcher.build( inputs.size(), decisionRules, index ) : null;
+    }
+
+    public boolean isColumnWiseMatching() {
+        return columnWiseMatcher != null;
+    }
+
+    /**
+     * Selects whether the rules are matched by walking a decision tree over the
+     * indexed inputs, which looks up each of them at most once, instead of the
+     * rule list. The rules found and their order are the same either way. No
+     * tree is built when no input is indexed, or when it would have more nodes
+     * than set by {@link #MAX_TREE_NODES_PROPERTY}.
+     */
+    public void setDecisionTreeMatching(boolean tree) {
+        this.decisionTree = tree ? DecisionTree.build( inputs.size(), decisionRules, index, MAX_TREE_NODES ) : null;
+        if ( tree && decisionTree == null && index != null ) {
+            logger.warn( "Decision tree of decision table '{}' would exceed {} nodes, matching its rules from the list", name, MAX_TREE_NODES );
+        }
+    }
+
+    public boolean isDecisionTreeMatching() {
+        return decisionTree != null;
+    }
+
+    /**
+     * Returns the largest number of branches on a path of the decision tree,
+     * or 0 when not matching through one
+     */
+    public int getDecisionTreeDepth() {
+        return decisionTree != null ? decisionTree.getDepth() : 0;
+    }
+
+    /**
+     * Returns the number of nodes of the decision tree, or 0 when not matching through one
+     */
+    public int getDecisionTreeNodeCount() {
+        return decisionTree != null ? decisionTree.getNodeCount() : 0;
+    }
+
+    /**
+     * Evaluates this decision table returning the result. All the matching rules
+     * are found and reported when listeners are registered on the context.
      * @param ctx
      * @param params these are the required information items, not to confuse with the columns of the
      *               decision table that are expressions derived from these parameters
      * @return
      */
     public FEELFnResult<Object> evaluate(EvaluationContext ctx, Object[] params) {
+        return evaluate( ctx, params, hasListeners( ctx ) );
+    }
+
+    /**
+     * Evaluates this decision table returning the result
+     * @param ctx
+     * @param params these are the required information items, not to confuse with the columns of the
+     *               decision table that are expressions derived from these parameters
+     * @param reportAllMatches whether all the matching rules are found and reported with a
+     *               DecisionTableRulesMatchedEvent; otherwise matching stops as soon as the hit
+     *               policy has the matches it needs, and no such event is sent
+     * @return
+     */
+    public FEELFnResult<Object> evaluate(EvaluationContext ctx, Object[] params, boolean reportAllMatches) {
         if ( decisionRules.isEmpty() ) {
             return FEELFnResult.ofError(new FEELEventBase(Severity.WARN, "Decision table is empty", null));
         }
@@ -88,9 +233,16 @@ public class DecisionTableImpl {
             return actualInputMatch.cata( e -> FEELFnResult.ofError(e), e -> FEELFnResult.ofError(null) );
         }
 
-        List<DTDecisionRule> matches = findMatches( ctx, actualInputs );
+        List<DTDecisionRule> matches = findMatches( ctx, actualInputs, reportAllMatches );
         if( !matches.isEmpty() ) {
-            List<Object> results = evaluateResults( ctx, feel, actualInputs, matches );
+            MatchResults matchResults = new MatchResults( ctx, feel, matches );
+            List<Object> results = matchResults;
+            if ( outputRanks != null && matches.size() > 1 ) {
+                // only the outputs of the winning rule are evaluated
+                int winner = priorityWinner( matchResults );
+                matches = Collections.singletonList( matches.get( winner ) );
+                results = Collections.singletonList( matchResults.get( winner ) );
+            }
             Object result = hitPolicy.getDti().dti( ctx, this, actualInputs, matches, results );
 
             return FEELFnResult.ofResult( result );
@@ -113,7 +265,7 @@ public class DecisionTableImpl {
         Map<String, Object> variables = ctx.getAllValues();
         Object[] actualInputs = new Object[ inputs.size() ];
         for( int i = 0; i < inputs.size(); i++ ) {
-            actualInputs[i] = feel.evaluate( inputs.get( i ).getInputExpression(), variables );
+            actualInputs[i] = feel.evaluate( inputs.get( i ).getCompiledInput(), variables );
         }
         return actualInputs;
     }
@@ -147,29 +299,73 @@ public class DecisionTableImpl {
         return Either.ofRight(true);
     }
 
+    public static boolean hasListeners(EvaluationContext ctx) {
+        FEELEventListenersManager eventsManager = ctx.getEventsManager();
+        return eventsManager != null && eventsManager.hasListeners();
+    }
+
+    /**
+     * The number of matches the hit policy needs: the first one for FIRST, and
+     * all of them otherwise. UNIQUE needs them all too, as a violation reports
+     * every overlapping rule.
+     */
+    private int matchLimit() {
+        return hitPolicy == HitPolicy.FIRST ? 1 : Integer.MAX_VALUE;
+    }
+
     /**
-     * Finds all rules that match a given set of parameters
+     * Finds the rules that match a given set of parameters, in table order,
+     * stopping once the hit policy has the matches it needs unless all of them
+     * are reported. When some inputs are indexed, only the rules
+     * the index finds for their values are tested. Wide tables are matched
+     * input by input instead, and tables compiled into a decision tree by
+     * walking it.
      *
      * @param ctx
      * @param params
+     * @param reportAllMatches
      * @return
      */
-    private List<DTDecisionRule> findMatches(EvaluationContext ctx, Object[] params) {
+    private List<DTDecisionRule> findMatches(EvaluationContext ctx, Object[] params, boolean reportAllMatches) {
+        int limit = reportAllMatches ? Integer.MAX_VALUE : matchLimit();
         List<DTDecisionRule> matchingDecisionRules = new ArrayList<>();
-        for ( DTDecisionRule decisionRule : decisionRules ) {
-            if ( matches( ctx, params, decisionRule ) ) {
-                matchingDecisionRules.add( decisionRule );
+        if ( decisionTree != null ) {
+            BitSet matched = decisionTree.match( ctx, params, limit );
+            for ( int i = matched.nextSetBit( 0 ); i >= 0; i = matched.nextSetBit( i + 1 ) ) {
+                matchingDecisionRules.add( decisionRules.get( i ) );
             }
-        }
-        FEELEventListenersManager.notifyListeners( ctx.getEventsManager() , () -> {
-            List<Integer> matches = matchingDecisionRules.stream().map( dr -> dr.getIndex() + 1 ).collect( Collectors.toList() );
-            return new DecisionTableRulesMatchedEvent(FEELEvent.Severity.INFO,
-                                                      "Rules matched for decision table '" + getName() + "': " + matches.toString(),
-                                                      getName(),
-                                                      getName(),
-                                                      matches );
+        } else if ( columnWiseMatcher != null ) {
+            BitSet matched = columnWiseMatcher.match( ctx, params );
+            for ( int i = matched.nextSetBit( 0 ); i >= 0 && matchingDecisionRules.size() < limit; i = matched.nextSetBit( i + 1 ) ) {
+                matchingDecisionRules.add( decisionRules.get( i ) );
+            }
+        } else if ( index != null ) {
+            BitSet candidates = index.candidates( params );
+            for ( int i = candidates.nextSetBit( 0 ); i >= 0 && matchingDecisionRules.size() < limit; i = candidates.nextSetBit( i + 1 ) ) {
+                DTDecisionRule decisionRule = decisionRules.get( i );
+                if ( matches( ctx, params, decisionRule ) ) {
+                    matchingDecisionRules.add( decisionRule );
+                }
+            }
+        } else {
+            for ( int i = 0; i < decisionRules.size() && matchingDecisionRules.size() < limit; i++ ) {
+                DTDecisionRule decisionRule = decisionRules.get( i );
+                if ( matches( ctx, params, decisionRule ) ) {
+                    matchingDecisionRules.add( decisionRule );
+                }
             }
-        );
+        }
+        if ( reportAllMatches ) {
+            FEELEventListenersManager.notifyListeners( ctx.getEventsManager() , () -> {
+                List<Integer> matches = matchingDecisionRules.stream().map( dr -> dr.getIndex() + 1 ).collect( Collectors.toList() );
+                return new DecisionTableRulesMatchedEvent(FEELEvent.Severity.INFO,
+                                                          "Rules matched for decision table '" + getName() + "': " + matches.toString(),
+                                                          getName(),
+                                                          getName(),
+                                                          matches );
+                }
+            );
+        }
         return matchingDecisionRules;
     }
 
@@ -200,24 +396,92 @@ public class DecisionTableImpl {
         return test.apply( ctx, param );
     }
 
-    private List<Object> evaluateResults(EvaluationContext ctx, FEEL feel, Object[] params, List<DTDecisionRule> matchingDecisionRules) {
-        List<Object> results = matchingDecisionRules.stream().map( dr -> hitToOutput( ctx, feel, dr ) ).collect( Collectors.toList());
-        return results;
+    /**
+     * Picks the match HitPolicy.PRIORITY would return: the first one with the best
+     * ranks. Output entries are only evaluated when they are not literals, and
+     * only while the ranks before them are tied.
+     */
+    private int priorityWinner(MatchResults results) {
+        int winner = 0;
+        for ( int i = 1; i < results.size(); i++ ) {
+            for ( int j = 0; j < priorityOutputs.length; j++ ) {
+                int best = rankOf( results, winner, j );
+                int rank = rankOf( results, i, j );
+                if ( rank != best ) {
+                    if ( rank < best ) {
+                        winner = i;
+                    }
+                    break;
+                }
+            }
+        }
+        return winner;
+    }
+
+    private int rankOf(MatchResults results, int match, int priority) {
+        int rank = outputRanks.get( results.matches.get( match ) )[priority];
+        if ( rank == UNKNOWN_RANK ) {
+            int k = priorityOutputs[priority];
+            rank = rankOf( outputs.get( k ), outputs.size() == 1 ? results.get( match ) : results.entry( match, k ) );
+        }
+        return rank;
     }
 
     /**
-     *  Each hit results in one output value (multiple outputs are collected into a single context value)
+     * The outputs of the matches, evaluated on first access. Each hit results in
+     * one output value (multiple outputs are collected into a single context value).
      */
-    private Object hitToOutput(EvaluationContext ctx, FEEL feel, DTDecisionRule rule) {
-        List<String> outputEntries = rule.getOutputEntry();
-        Map<String, Object> values = ctx.getAllValues();
-        if ( outputEntries.size() == 1 ) {
-            Object value = feel.evaluate( outputEntries.get( 0 ), values );
-            return value;
-        } else {
-            // zip outputEntries with its name:
-            return IntStream.range( 0, outputs.size() ).boxed()
-                    .collect( toMap( i -> outputs.get( i ).getName(), i -> feel.evaluate( outputEntries.get( i ), values ) ) );
+    private class MatchResults
+            extends AbstractList<Object> {
+
+        private final EvaluationContext    ctx;
+        private final FEEL                 feel;
+        private final List<DTDecisionRule> matches;
+        private final Object[]             results;
+        private final Object[][]           entries;
+        private       Map<String, Object>  values;
+
+        private MatchResults(EvaluationContext ctx, FEEL feel, List<DTDecisionRule> matches) {
+            this.ctx = ctx;
+            this.feel = feel;
+            this.matches = matches;
+            this.results = new Object[matches.size()];
+            this.entries = new Object[matches.size()][];
+            Arrays.fill( results, UNEVALUATED );
+        }
+
+        @Override
+        public Object get(int match) {
+            if ( results[match] == UNEVALUATED ) {
+                List<CompiledExpression> outputEntries = matches.get( match ).getOutputEntry();
+                if ( outputEntries.size() == 1 ) {
+                    results[match] = entry( match, 0 );
+                } else {
+                    // zip outputEntries with its name:
+                    results[match] = IntStream.range( 0, outputs.size() ).boxed()
+                            .collect( toMap( i -> outputs.get( i ).getName(), i -> entry( match, i ) ) );
+                }
+            }
+            return results[match];
+        }
+
+        private Object entry(int match, int output) {
+            if ( entries[match] == null ) {
+                entries[match] = new Object[matches.get( match ).getOutputEntry().size()];
+                Arrays.fill( entries[match], UNEVALUATED );
+            }
+            if ( entries[match][output] == UNEVALUATED ) {
+                if ( values == null ) {
+                    values = ctx.getAllValues();
+                }
+                entries[match][output] = feel.evaluate( matches.get( match ).getOutputEntry().get( output ), values );
+            }
+            return entries[match][output];
+        }
+
+        @Override
+        public int size() {
+            return matches.size();
         }
     }
 
@@ -227,12 +491,12 @@ public class DecisionTableImpl {
     private Object defaultToOutput(EvaluationContext ctx, FEEL feel) {
         Map<String, Object> values = ctx.getAllValues();
         if ( outputs.size() == 1 ) {
-            Object value = feel.evaluate( outputs.get( 0 ).getDefaultValue(), values );
+            Object value = feel.evaluate( outputs.get( 0 ).getCompiledDefault(), values );
             return value;
         } else {
             // zip outputEntries with its name:
             return IntStream.range( 0, outputs.size() ).boxed()
-                    .collect( toMap( i -> outputs.get( i ).getName(), i -> feel.evaluate( outputs.get( i ).getDefaultValue(), values ) ) );
+                    .collect( toMap( i -> outputs.get( i ).getName(), i -> feel.evaluate( outputs.get( i ).getCompiledDefault(), values ) ) );
         }
     }
 
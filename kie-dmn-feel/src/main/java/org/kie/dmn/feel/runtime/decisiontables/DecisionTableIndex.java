@@ -0,0 +1,413 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import org.kie.dmn.feel.lang.ast.UnaryTestNode;
+import org.kie.dmn.feel.runtime.Range;
+import org.kie.dmn.feel.runtime.Range.RangeBoundary;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.util.EvalHelper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Indexes the rules of a decision table by the values of their inputs,
+ * so that only the rules that may match need to be tested. Looking up
+ * the input values gives the candidate rules of each indexed input, in
+ * table order, and the candidates of all indexed inputs are intersected.
+ *
+ * An input is indexed by value when, for every rule, its entry is a dash
+ * or equalities to constants, and by interval when, for every rule, its
+ * entry is a dash or ranges and comparisons ("<", "<=", ">", ">=", "=",
+ * "!=") with constant endpoints of a single type. Inputs with any other
+ * entry, as tests depending on other variables, are not indexed, and
+ * their entries are tested against every candidate. Input values that
+ * are null, or of another type than the indexed constants, do not
+ * narrow the candidates either.
+ */
+class DecisionTableIndex {
+
+    private final int      ruleCount;
+    private final Column[] columns;
+    private final Column[] byInput;
+
+    private DecisionTableIndex(int ruleCount, int inputCount, List<Column> columns) {
+        this.ruleCount = ruleCount;
+        this.columns = columns.toArray( new Column[columns.size()] );
+        this.byInput = new Column[inputCount];
+        for ( Column column : columns ) {
+            byInput[column.input] = column;
+        }
+    }
+
+    /**
+     * Returns the index of the given rules, or null if none of the inputs can be indexed
+     */
+    static DecisionTableIndex build(int inputCount, List<DTDecisionRule> rules) {
+        List<Column> columns = new ArrayList<>();
+        for ( int i = 0; i < inputCount; i++ ) {
+            Column column = Column.build( i, rules );
+            if ( column != null ) {
+                columns.add( column );
+            }
+        }
+        return columns.isEmpty() ? null : new DecisionTableIndex( rules.size(), inputCount, columns );
+    }
+
+    int getIndexedInputs() {
+        return columns.length;
+    }
+
+    List<Column> getColumns() {
+        return Arrays.asList( columns );
+    }
+
+    /**
+     * Returns the positions of the rules that may match the given input values
+     */
+    BitSet candidates(Object[] params) {
+        BitSet candidates = new BitSet( ruleCount );
+        candidates.set( 0, ruleCount );
+        for ( Column column : columns ) {
+            BitSet accepted = column.accepted( params[column.input] );
+            if ( accepted != null ) {
+                candidates.and( accepted );
+                if ( candidates.isEmpty() ) {
+                    break;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the positions of the rules whose entry for the given input accepts
+     * the value, or null if the input is not indexed or the value can not be
+     * looked up. The returned set must not be modified.
+     */
+    BitSet accepted(int input, Object value) {
+        Column column = byInput[input];
+        return column != null ? column.accepted( value ) : null;
+    }
+
+    /**
+     * Only values whose equals() and hashCode() agree with the constants
+     * they are compared to are looked up
+     */
+    private static boolean isIndexable(Object value) {
+        return value instanceof String || value instanceof BigDecimal || value instanceof Boolean;
+    }
+
+    /**
+     * Numbers are keyed without trailing zeros, as they are equal by value
+     */
+    private static Object keyOf(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value;
+    }
+
+    abstract static class Column {
+        final int input;
+
+        Column(int input) {
+            this.input = input;
+        }
+
+        static Column build(int input, List<DTDecisionRule> rules) {
+            Column column = ValueColumn.build( input, rules );
+            return column != null ? column : IntervalColumn.build( input, rules );
+        }
+
+        /**
+         * Returns the entry of the given input of the rule, if it can be inspected
+         */
+        static DTInputEntry entryOf(DTDecisionRule rule, int input) {
+            List<UnaryTest> entries = rule.getInputEntry();
+            return input < entries.size() && entries.get( input ) instanceof DTInputEntry ? (DTInputEntry) entries.get( input ) : null;
+        }
+
+        /**
+         * Returns the rules accepting the value, or null if it can not be looked up
+         */
+        abstract BitSet accepted(Object value);
+
+        /**
+         * Returns the region of the value, or -1 if it can not be looked up. All
+         * the values of a region are accepted by the same rules.
+         */
+        abstract int regionOf(Object value);
+
+        abstract int regionCount();
+
+        /**
+         * Returns the rules accepting the values of the given region. The returned
+         * set must not be modified.
+         */
+        abstract BitSet acceptedIn(int region);
+    }
+
+    private static class ValueColumn
+            extends Column {
+        // rules with a dash for this input
+        private final BitSet               any;
+        private final Map<Object, BitSet>  byValue;
+        // a region per value, then one for the values not listed
+        private final Object[]             values;
+        private final Map<Object, Integer> regions;
+
+        private ValueColumn(int input, BitSet any, Map<Object, BitSet> byValue) {
+            super( input );
+            this.any = any;
+            this.byValue = byValue;
+            this.values = byValue.keySet().toArray();
+            this.regions = new HashMap<>();
+            for ( int i = 0; i < values.length; i++ ) {
+                regions.put( values[i], i );
+            }
+        }
+
+        static ValueColumn build(int input, List<DTDecisionRule> rules) {
+            BitSet any = new BitSet( rules.size() );
+            Map<Object, BitSet> byValue = new HashMap<>();
+            for ( int r = 0; r < rules.size(); r++ ) {
+                DTInputEntry entry = entryOf( rules.get( r ), input );
+                if ( entry == null ) {
+                    return null;
+                } else if ( entry.isAny() ) {
+                    any.set( r );
+                } else if ( entry.getConstants() != null && entry.getConstants().stream().allMatch( DecisionTableIndex::isIndexable ) ) {
+                    for ( Object value : entry.getConstants() ) {
+                        byValue.computeIfAbsent( keyOf( value ), v -> new BitSet( rules.size() ) ).set( r );
+                    }
+                } else {
+                    return null;
+                }
+            }
+            return byValue.isEmpty() ? null : new ValueColumn( input, any, byValue );
+        }
+
+        @Override
+        BitSet accepted(Object value) {
+            if ( value != null && !isIndexable( value ) ) {
+                // the entries are still tested against the value
+                return null;
+            }
+            BitSet matching = value != null ? byValue.get( keyOf( value ) ) : null;
+            if ( matching == null ) {
+                return any;
+            }
+            BitSet rules = (BitSet) matching.clone();
+            rules.or( any );
+            return rules;
+        }
+
+        @Override
+        int regionOf(Object value) {
+            if ( value != null && !isIndexable( value ) ) {
+                return -1;
+            }
+            Integer region = value != null ? regions.get( keyOf( value ) ) : null;
+            return region != null ? region : values.length;
+        }
+
+        @Override
+        int regionCount() {
+            return values.length + 1;
+        }
+
+        @Override
+        BitSet acceptedIn(int region) {
+            return region < values.length ? accepted( values[region] ) : any;
+        }
+    }
+
+    /**
+     * Splits the line of values at the distinct endpoints of the entries, into
+     * the intervals before, at and after each endpoint, and keeps for each of
+     * them the rules accepting its values. A value is looked up by binary search.
+     */
+    private static class IntervalColumn
+            extends Column {
+
+        // columns needing more bits than this are not indexed
+        private static final long MAX_BITS = 1L << 24;
+
+        private final Class<?>     type;
+        private final Comparable[] endpoints;
+        // the rules accepting the values before, at and after each endpoint
+        private final BitSet[]     regions;
+
+        private IntervalColumn(int input, Class<?> type, Comparable[] endpoints, BitSet[] regions) {
+            super( input );
+            this.type = type;
+            this.endpoints = endpoints;
+            this.regions = regions;
+        }
+
+        static IntervalColumn build(int input, List<DTDecisionRule> rules) {
+            BitSet any = new BitSet( rules.size() );
+            List<Interval> intervals = new ArrayList<>();
+            for ( int r = 0; r < rules.size(); r++ ) {
+                DTInputEntry entry = entryOf( rules.get( r ), input );
+                if ( entry == null ) {
+                    return null;
+                } else if ( entry.isAny() ) {
+                    any.set( r );
+                } else {
+                    for ( UnaryTest test : entry.getTests() ) {
+                        if ( !Interval.addIntervals( test, r, intervals ) ) {
+                            return null;
+                        }
+                    }
+                }
+            }
+            if ( intervals.isEmpty() ) {
+                return null;
+            }
+            Class<?> type = null;
+            TreeSet<Comparable> sorted = new TreeSet<>( EvalHelper::compare );
+            for ( Interval interval : intervals ) {
+                for ( Comparable endpoint : new Comparable[]{ interval.low, interval.high } ) {
+                    if ( endpoint != null ) {
+                        if ( type == null ) {
+                            type = endpoint.getClass();
+                        } else if ( type != endpoint.getClass() ) {
+                            return null;
+                        }
+                        sorted.add( endpoint );
+                    }
+                }
+            }
+            if ( type == Double.class || type == Float.class || (long) (2 * sorted.size() + 1) * rules.size() > MAX_BITS ) {
+                // doubles are not totally ordered by their comparison
+                return null;
+            }
+            Comparable[] endpoints = sorted.toArray( new Comparable[sorted.size()] );
+            BitSet[] regions = new BitSet[2 * endpoints.length + 1];
+            for ( int i = 0; i < regions.length; i++ ) {
+                regions[i] = (BitSet) any.clone();
+            }
+            for ( Interval interval : intervals ) {
+                int first = interval.low == null ? 0 : 2 * Arrays.binarySearch( endpoints, interval.low, EvalHelper::compare ) + (interval.lowIncluded ? 1 : 2);
+                int last = interval.high == null ? regions.length - 1 : 2 * Arrays.binarySearch( endpoints, interval.high, EvalHelper::compare ) + (interval.highIncluded ? 1 : 0);
+                for ( int i = first; i <= last; i++ ) {
+                    regions[i].set( interval.rule );
+                }
+            }
+            return new IntervalColumn( input, type, endpoints, regions );
+        }
+
+        @Override
+        BitSet accepted(Object value) {
+            int region = regionOf( value );
+            // the entries are still tested against values that can not be looked up
+            return region >= 0 ? regions[region] : null;
+        }
+
+        @Override
+        int regionOf(Object value) {
+            if ( value == null || value.getClass() != type ) {
+                return -1;
+            }
+            int i = Arrays.binarySearch( endpoints, value, EvalHelper::compare );
+            return i >= 0 ? 2 * i + 1 : -2 * (i + 1);
+        }
+
+        @Override
+        int regionCount() {
+            return regions.length;
+        }
+
+        @Override
+        BitSet acceptedIn(int region) {
+            return regions[region];
+        }
+    }
+
+    /**
+     * The values between two endpoints, unbounded when an endpoint is null
+     */
+    private static class Interval {
+        final Comparable low;
+        final boolean    lowIncluded;
+        final Comparable high;
+        final boolean    highIncluded;
+        final int        rule;
+
+        private Interval(Comparable low, boolean lowIncluded, Comparable high, boolean highIncluded, int rule) {
+            this.low = low;
+            this.lowIncluded = lowIncluded;
+            this.high = high;
+            this.highIncluded = highIncluded;
+            this.rule = rule;
+        }
+
+        /**
+         * Adds the intervals of values satisfying the given test, returning false
+         * if the test is not a range or a comparison to a constant
+         */
+        static boolean addIntervals(UnaryTest test, int rule, List<Interval> intervals) {
+            if ( test instanceof DTInputEntry.IncludedInRange ) {
+                Range range = ((DTInputEntry.IncludedInRange) test).getRange();
+                if ( range.getLowEndPoint() == null || range.getHighEndPoint() == null ||
+                     range.getLowBoundary() == null || range.getHighBoundary() == null ) {
+                    return false;
+                }
+                intervals.add( new Interval( range.getLowEndPoint(), range.getLowBoundary() == RangeBoundary.CLOSED,
+                                             range.getHighEndPoint(), range.getHighBoundary() == RangeBoundary.CLOSED, rule ) );
+                return true;
+            } else if ( test instanceof UnaryTestNode.ConstantComparison ) {
+                UnaryTestNode.ConstantComparison comparison = (UnaryTestNode.ConstantComparison) test;
+                if ( !(comparison.getConstant() instanceof Comparable) ) {
+                    return false;
+                }
+                Comparable c = (Comparable) comparison.getConstant();
+                switch ( comparison.getOperator() ) {
+                    case LT:
+                        intervals.add( new Interval( null, false, c, false, rule ) );
+                        return true;
+                    case LTE:
+                        intervals.add( new Interval( null, false, c, true, rule ) );
+                        return true;
+                    case GT:
+                        intervals.add( new Interval( c, false, null, false, rule ) );
+                        return true;
+                    case GTE:
+                        intervals.add( new Interval( c, true, null, false, rule ) );
+                        return true;
+                    case EQ:
+                        intervals.add( new Interval( c, true, c, true, rule ) );
+                        return true;
+                    case NE:
+                        intervals.add( new Interval( null, false, c, false, rule ) );
+                        intervals.add( new Interval( c, false, null, false, rule ) );
+                        return true;
+                    default:
+                        return false;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.runtime.decisiontables.DecisionTableIndex.Column;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the indexed inputs of a decision table into a decision diagram.
+ * Each branch looks up the value of one input, and follows the region of
+ * values it falls in to the rules still accepting it; rules with a dash
+ * for the input follow every region. Leaves hold the remaining rules, in
+ * table order, and their entries for the inputs not looked up on the way,
+ * as inputs that are not indexed, are tested there.
+ *
+ * The inputs are looked up in the order that best splits the rules, that
+ * is by the average number of rules accepting the values of a region.
+ * Branches and leaves for the same rules at the same depth are shared, so
+ * each input is looked up at most once per path. Values that can not be
+ * looked up follow a branch that keeps the rules and tests the input at
+ * the leaf.
+ */
+class DecisionTree {
+
+    private final List<DTDecisionRule> rules;
+    private final int                  inputCount;
+    private final Node                 root;
+    private final int                  nodeCount;
+
+    private DecisionTree(List<DTDecisionRule> rules, int inputCount, Node root, int nodeCount) {
+        this.rules = rules;
+        this.inputCount = inputCount;
+        this.root = root;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Returns the tree of the given rules, or null if none of their inputs is
+     * indexed, or the tree would have more than maxNodes nodes
+     */
+    static DecisionTree build(int inputCount, List<DTDecisionRule> rules, DecisionTableIndex index, int maxNodes) {
+        if ( index == null ) {
+            return null;
+        }
+        List<Column> columns = new ArrayList<>( index.getColumns() );
+        columns.sort( Comparator.comparingDouble( DecisionTree::averageAccepted ) );
+        Builder builder = new Builder( columns, maxNodes );
+        BitSet all = new BitSet( rules.size() );
+        all.set( 0, rules.size() );
+        Node root = builder.node( 0, all );
+        return root != null && builder.nodeCount <= maxNodes ? new DecisionTree( rules, inputCount, root, builder.nodeCount ) : null;
+    }
+
+    private static double averageAccepted(Column column) {
+        long accepted = 0;
+        for ( int r = 0; r < column.regionCount(); r++ ) {
+            accepted += column.acceptedIn( r ).cardinality();
+        }
+        return (double) accepted / column.regionCount();
+    }
+
+    /**
+     * Returns the largest number of branches on a path
+     */
+    int getDepth() {
+        return root.depth;
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the positions of the first limit rules matching the given input values
+     */
+    BitSet match(EvaluationContext ctx, Object[] params, int limit) {
+        boolean[] lookedUp = new boolean[inputCount];
+        Node node = root;
+        while ( node instanceof Branch ) {
+            Branch branch = (Branch) node;
+            int region = branch.column.regionOf( params[branch.column.input] );
+            if ( region >= 0 ) {
+                lookedUp[branch.column.input] = true;
+                node = branch.children[region];
+            } else {
+                node = branch.notLookedUp;
+            }
+        }
+        BitSet matched = new BitSet( rules.size() );
+        int found = 0;
+        for ( int r : ((Leaf) node).rules ) {
+            if ( found == limit ) {
+                break;
+            }
+            if ( matches( ctx, params, rules.get( r ), lookedUp ) ) {
+                matched.set( r );
+                found++;
+            }
+        }
+        return matched;
+    }
+
+    private static boolean matches(EvaluationContext ctx, Object[] params, DTDecisionRule rule, boolean[] lookedUp) {
+        for ( int i = 0; i < params.length; i++ ) {
+            if ( !lookedUp[i] && !rule.getInputEntry().get( i ).apply( ctx, params[i] ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Builder {
+        private final List<Column>        columns;
+        private final int                 maxNodes;
+        private final Map<BitSet, Node>[] branches;
+        private final Map<BitSet, Leaf>   leaves = new HashMap<>();
+        private       int                 nodeCount;
+
+        Builder(List<Column> columns, int maxNodes) {
+            this.columns = columns;
+            this.maxNodes = maxNodes;
+            this.branches = new Map[columns.size()];
+            for ( int i = 0; i < branches.length; i++ ) {
+                branches[i] = new HashMap<>();
+            }
+        }
+
+        /**
+         * Returns the node for the given rules, looking up the inputs from the given
+         * level on, or null if there are too many nodes
+         */
+        Node node(int level, BitSet rules) {
+            if ( nodeCount > maxNodes ) {
+                return null;
+            } else if ( level == columns.size() || rules.cardinality() <= 1 ) {
+                return leaf( rules );
+            }
+            Node node = branches[level].get( rules );
+            if ( node != null ) {
+                return node;
+            }
+            Node notLookedUp = node( level + 1, rules );
+            if ( notLookedUp == null ) {
+                return null;
+            }
+            Column column = columns.get( level );
+            Node[] children = new Node[column.regionCount()];
+            boolean splits = false;
+            for ( int r = 0; r < children.length; r++ ) {
+                BitSet accepted = (BitSet) rules.clone();
+                accepted.and( column.acceptedIn( r ) );
+                if ( accepted.equals( rules ) ) {
+                    children[r] = notLookedUp;
+                } else {
+                    splits = true;
+                    children[r] = node( level + 1, accepted );
+                    if ( children[r] == null ) {
+                        return null;
+                    }
+                }
+            }
+            if ( splits ) {
+                node = new Branch( column, children, notLookedUp );
+                nodeCount++;
+            } else {
+                // every rule accepts every value
+                node = notLookedUp;
+            }
+            branches[level].put( rules, node );
+            return node;
+        }
+
+        private Leaf leaf(BitSet rules) {
+            Leaf leaf = leaves.get( rules );
+            if ( leaf == null ) {
+                leaf = new Leaf( rules.stream().toArray() );
+                leaves.put( rules, leaf );
+                nodeCount++;
+            }
+            return leaf;
+        }
+    }
+
+    private abstract static class Node {
+        final int depth;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    private static class Branch
+            extends Node {
+        final Column column;
+        final Node[] children;
+        // followed by the values that can not be looked up
+        final Node   notLookedUp;
+
+        Branch(Column column, Node[] children, Node notLookedUp) {
+            super( 1 + maxDepth( children, notLookedUp ) );
+            this.column = column;
+            this.children = children;
+            this.notLookedUp = notLookedUp;
+        }
+
+        private static int maxDepth(Node[] children, Node notLookedUp) {
+            int depth = notLookedUp.depth;
+            for ( Node child : children ) {
+                depth = Math.max( depth, child.depth );
+            }
+            return depth;
+        }
+    }
+
+    private static class Leaf
+            extends Node {
+        // positions of the rules, in table order
+        final int[] rules;
+
+        Leaf(int[] rules) {
+            super( 0 );
+            this.rules = rules;
+        }
+    }
+}
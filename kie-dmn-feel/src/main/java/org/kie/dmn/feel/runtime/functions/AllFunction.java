@@ -31,7 +31,10 @@ public class AllFunction
         super( "all" );
     }
 
-    public FEELFnResult<Boolean> invoke(@ParameterName( "list" ) List list) {
+    public FEELFnResult<Boolean> invoke(@ParameterName( "list" ) Iterable list) {
+        if ( list == null ) {
+            return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be null"));
+        }
         boolean result = true;
         for ( Object element : list ) {
             if ( element instanceof Boolean ) {
@@ -45,6 +48,10 @@ public class AllFunction
         }
         return FEELFnResult.ofResult( result );
     }
+    public FEELFnResult<Boolean> invoke(@ParameterName( "list" ) List list) {
+        return invoke( (Iterable) list );
+    }
+
 
     public FEELFnResult<Boolean> invoke(@ParameterName( "list" ) Boolean single) {
         return FEELFnResult.ofResult( single );
@@ -17,6 +17,7 @@
 package org.kie.dmn.feel.runtime.functions;
 
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.lang.Symbol;
 import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
 import org.kie.dmn.feel.lang.impl.NamedParameter;
@@ -32,12 +33,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -48,9 +55,14 @@ public abstract class BaseFEELFunction
 
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
+    static final int MAX_CACHED_DISPATCHES = 64;
+
     private String name;
     private Symbol symbol;
 
+    // invoke methods resolved for each shape of the arguments
+    private final Map<DispatchKey, Dispatch> dispatchCache = new ConcurrentHashMap<>();
+
     public BaseFEELFunction(String name) {
         this.name = name;
         this.symbol = new FunctionSymbol( name, this );
@@ -73,21 +85,38 @@ public abstract class BaseFEELFunction
 
     @Override
     public Object invokeReflectively(EvaluationContext ctx, Object[] params) {
+        return invokeReflectively( ctx, params, null );
+    }
+
+    /**
+     * Invokes this function, first trying the method resolved by the previous
+     * call through the same call site. Call sites keep a single entry, so
+     * hitting it only requires comparing the classes of the parameters.
+     */
+    public Object invokeReflectively(EvaluationContext ctx, Object[] params, CallSiteCache callSite) {
         // use reflection to call the appropriate invoke method
         try {
             boolean isNamedParams = params.length > 0 && params[0] instanceof NamedParameter;
             if ( !isCustomFunction() ) {
-                List<String> available = null;
-                if ( isNamedParams ) {
-                    available = Stream.of( params ).map( p -> ((NamedParameter) p).getName() ).collect( Collectors.toList() );
+                if ( ctx.getNumericMode() == NumericMode.DOUBLE ) {
+                    params = toDecimalParams( params );
+                }
+                Dispatch dispatch = callSite != null ? callSite.lookup( this, params, isNamedParams ) : null;
+                if ( dispatch == null ) {
+                    DispatchKey key = new DispatchKey( params, isNamedParams );
+                    dispatch = dispatchCache.get( key );
+                    if ( dispatch == null ) {
+                        dispatch = resolveDispatch( ctx, params, isNamedParams, key );
+                    }
+                    if ( dispatch != null && callSite != null ) {
+                        callSite.update( this, dispatch );
+                    }
                 }
 
-                Class[] classes = Stream.of( params ).map( p -> p != null ? p.getClass() : null ).toArray( Class[]::new );
-
-                CandidateMethod cm = getCandidateMethod( ctx, params, isNamedParams, available, classes );
-
-                if ( cm != null ) {
-                    Object result = cm.apply.invoke( this, cm.actualParams );
+                if ( dispatch != null ) {
+                    final Method method = dispatch.method;
+                    final Object[] actualParams = dispatch.arguments( ctx, params, isNamedParams );
+                    Object result = dispatch.invoke( this, actualParams );
 
                     if ( result instanceof Either ) {
                         @SuppressWarnings("unchecked")
@@ -99,8 +128,8 @@ public abstract class BaseFEELFunction
                                                                                InvalidParametersEvent invalidParametersEvent = (InvalidParametersEvent) left;
                                                                                invalidParametersEvent.setNodeName( getName() );
                                                                                invalidParametersEvent.setActualParameters(
-                                                                                       Stream.of( cm.apply.getParameters() ).map( p -> p.getAnnotation( ParameterName.class ).value() ).collect( Collectors.toList() ),
-                                                                                       Arrays.asList( cm.actualParams )
+                                                                                       Stream.of( method.getParameters() ).map( p -> p.getAnnotation( ParameterName.class ).value() ).collect( Collectors.toList() ),
+                                                                                       Arrays.asList( actualParams )
                                                                                );
                                                                            }
                                                                            return left;
@@ -114,6 +143,7 @@ public abstract class BaseFEELFunction
 
                     return result;
                 } else {
+                    Class[] classes = Stream.of( params ).map( p -> p != null ? p.getClass() : null ).toArray( Class[]::new );
                     String ps = Arrays.toString( classes );
                     logger.error( "Unable to find function '" + getName() + "( " + ps.substring( 1, ps.length() - 1 ) + " )'" );
                     FEELEventListenersManager.notifyListeners( ctx.getEventsManager(), () -> {
@@ -159,6 +189,32 @@ public abstract class BaseFEELFunction
         return null;
     }
 
+    /**
+     * Built-in functions declare their numeric parameters as BigDecimal,
+     * so in double mode the arguments are converted back before dispatching.
+     * Functions that compute in double themselves read the numeric mode
+     * from the context.
+     */
+    private static Object[] toDecimalParams(Object[] params) {
+        Object[] result = params;
+        for ( int i = 0; i < params.length; i++ ) {
+            Object param = params[i];
+            Object coerced;
+            if ( param instanceof NamedParameter && ((NamedParameter) param).getValue() instanceof Double ) {
+                coerced = new NamedParameter( ((NamedParameter) param).getName(), EvalHelper.coerceDoublesToDecimals( ((NamedParameter) param).getValue() ) );
+            } else if ( param instanceof Double ) {
+                coerced = EvalHelper.coerceDoublesToDecimals( param );
+            } else {
+                continue;
+            }
+            if ( result == params ) {
+                result = params.clone();
+            }
+            result[i] = coerced;
+        }
+        return result;
+    }
+
     /**
      * this method should be overriden by custom function implementations that should be invoked reflectively
      * @param ctx
@@ -193,54 +249,14 @@ public abstract class BaseFEELFunction
                 continue;
             }
 
-            Object[] actualParams = null;
-            boolean injectCtx = Arrays.stream( m.getParameterTypes() ).anyMatch( p -> EvaluationContext.class.isAssignableFrom( p ) );
-            if( injectCtx ) {
-                actualParams = new Object[ params.length + 1 ];
-                int j = 0;
-                for( int i = 0; i < m.getParameterCount() && j < params.length; i++ ) {
-                    if( EvaluationContext.class.isAssignableFrom( m.getParameterTypes()[i] ) ) {
-                        if( isNamedParams ) {
-                            actualParams[i] = new NamedParameter( "ctx", ctx );
-                        } else {
-                            actualParams[i] = ctx;
-                        }
-//                        if( available != null ) {
-//                            // if there is a list of available parameter names, add the injected context parameter into the list
-//                            Annotation[][] annotations = m.getParameterAnnotations();
-//                            boolean foundName = false;
-//                            for( int k = 0; k < annotations[i].length; k++ ) {
-//                                if( annotations[i][k] instanceof NamedParameter ) {
-//                                    available = new ArrayList<>( available );
-//                                    available.add( ((NamedParameter)annotations[i][k]).getName() );
-//                                    foundName = true;
-//                                    break;
-//                                }
-//                            }
-//                            if( ! foundName ) {
-//                                // use default name
-//                                available.add( "ctx" );
-//                            }
-//                        }
-                    } else {
-                        actualParams[i] = params[j];
-                        j++;
-                    }
-                }
-            } else {
-                actualParams = params;
-            }
-            if( isNamedParams ) {
-                actualParams = calculateActualParams( ctx, m, actualParams, available );
-                if( actualParams == null ) {
-                    // incompatible method
-                    continue;
-                }
+            Object[] actualParams = buildActualParams( ctx, m, params, isNamedParams, available );
+            if ( actualParams == null ) {
+                // incompatible method
+                continue;
             }
             CandidateMethod cm = new CandidateMethod( actualParams );
 
             Class<?>[] parameterTypes = m.getParameterTypes();
-            adjustForVariableParameters( cm, parameterTypes );
 
             if ( parameterTypes.length != cm.getActualParams().length ) {
                 continue;
@@ -263,6 +279,60 @@ public abstract class BaseFEELFunction
         return candidate;
     }
 
+    /**
+     * Builds the actual parameters for the given method: injects the context, maps
+     * named parameters and packs variable parameters. Returns null if the named
+     * parameters do not match the method.
+     */
+    private Object[] buildActualParams(Object ctx, Method m, Object[] params, boolean isNamedParams, List<String> available) {
+        Object[] actualParams = null;
+        boolean injectCtx = Arrays.stream( m.getParameterTypes() ).anyMatch( p -> EvaluationContext.class.isAssignableFrom( p ) );
+        if( injectCtx ) {
+            actualParams = new Object[ params.length + 1 ];
+            int j = 0;
+            // all the parameters are copied, as the trailing ones may be packed into variable parameters
+            for( int i = 0; i < actualParams.length; i++ ) {
+                if( i < m.getParameterCount() && EvaluationContext.class.isAssignableFrom( m.getParameterTypes()[i] ) ) {
+                    if( isNamedParams ) {
+                        actualParams[i] = new NamedParameter( "ctx", ctx );
+                    } else {
+                        actualParams[i] = ctx;
+                    }
+//                        if( available != null ) {
+//                            // if there is a list of available parameter names, add the injected context parameter into the list
+//                            Annotation[][] annotations = m.getParameterAnnotations();
+//                            boolean foundName = false;
+//                            for( int k = 0; k < annotations[i].length; k++ ) {
+//                                if( annotations[i][k] instanceof NamedParameter ) {
+//                                    available = new ArrayList<>( available );
+//                                    available.add( ((NamedParameter)annotations[i][k]).getName() );
+//                                    foundName = true;
+//                                    break;
+//                                }
+//                            }
+//                            if( ! foundName ) {
+//                                // use default name
+//                                available.add( "ctx" );
+//                            }
+//                        }
+                } else if( j < params.length ) {
+                    actualParams[i] = params[j];
+                    j++;
+                }
+            }
+        } else {
+            actualParams = params;
+        }
+        if( isNamedParams ) {
+            actualParams = calculateActualParams( ctx, m, actualParams, available );
+            if( actualParams == null ) {
+                // incompatible method
+                return null;
+            }
+        }
+        return adjustForVariableParameters( actualParams, m.getParameterTypes() );
+    }
+
     @Override
     public List<List<String>> getParameterNames() {
         // TODO: we could implement this method using reflection, just for consistency,
@@ -270,21 +340,22 @@ public abstract class BaseFEELFunction
         return Collections.emptyList();
     }
 
-    private void adjustForVariableParameters(CandidateMethod cm, Class<?>[] parameterTypes) {
+    private Object[] adjustForVariableParameters(Object[] actualParams, Class<?>[] parameterTypes) {
         if ( parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1].isArray() ) {
             // then it is a variable parameters function call
             Object[] newParams = new Object[parameterTypes.length];
             if ( newParams.length > 1 ) {
-                System.arraycopy( cm.getActualParams(), 0, newParams, 0, newParams.length - 1 );
+                System.arraycopy( actualParams, 0, newParams, 0, newParams.length - 1 );
             }
-            Object[] remaining = new Object[cm.getActualParams().length - parameterTypes.length + 1];
+            Object[] remaining = new Object[actualParams.length - parameterTypes.length + 1];
             newParams[newParams.length - 1] = remaining;
-            System.arraycopy( cm.getActualParams(), parameterTypes.length - 1, remaining, 0, remaining.length );
-            cm.setActualParams( newParams );
+            System.arraycopy( actualParams, parameterTypes.length - 1, remaining, 0, remaining.length );
+            return newParams;
         }
+        return actualParams;
     }
 
-    private Object[] calculateActualParams(EvaluationContext ctx, Method m, Object[] params, List<String> available) {
+    private Object[] calculateActualParams(Object ctx, Method m, Object[] params, List<String> available) {
         Annotation[][] pas = m.getParameterAnnotations();
         List<String> names = new ArrayList<>( m.getParameterCount() );
         for ( int i = 0; i < m.getParameterCount(); i++ ) {
@@ -312,6 +383,81 @@ public abstract class BaseFEELFunction
         }
     }
 
+    /**
+     * Resolves the invoke method for the given parameters using reflection, which
+     * only runs the first time a shape of parameters is seen by this function
+     */
+    private Dispatch resolveDispatch(EvaluationContext ctx, Object[] params, boolean isNamedParams, DispatchKey key) {
+        List<String> available = null;
+        if ( isNamedParams ) {
+            available = Stream.of( params ).map( p -> ((NamedParameter) p).getName() ).collect( Collectors.toList() );
+        }
+
+        Class[] classes = Stream.of( params ).map( p -> p != null ? p.getClass() : null ).toArray( Class[]::new );
+
+        CandidateMethod cm = getCandidateMethod( ctx, params, isNamedParams, available, classes );
+        if ( cm == null ) {
+            return null;
+        }
+        Dispatch dispatch = newDispatch( cm.apply, params.length, isNamedParams, available, key );
+        if ( dispatchCache.size() < MAX_CACHED_DISPATCHES ) {
+            dispatchCache.putIfAbsent( key, dispatch );
+        }
+        return dispatch;
+    }
+
+    /**
+     * Creates the dispatch for the given method, replaying the parameter
+     * transformations on markers to record where each actual parameter
+     * comes from
+     */
+    private Dispatch newDispatch(Method m, int paramCount, boolean isNamedParams, List<String> available, DispatchKey key) {
+        Object[] markers = new Object[paramCount];
+        for ( int i = 0; i < paramCount; i++ ) {
+            markers[i] = isNamedParams ? new NamedParameter( available.get( i ), new ArgumentRef( i ) ) : new ArgumentRef( i );
+        }
+        Object[] recipe = buildActualParams( CONTEXT_ARGUMENT, m, markers, isNamedParams, available );
+        int[] sources = new int[recipe.length];
+        int[] varargSources = null;
+        for ( int i = 0; i < recipe.length; i++ ) {
+            if ( recipe[i] instanceof Object[] ) {
+                // the packed variable parameters
+                Object[] packed = (Object[]) recipe[i];
+                varargSources = new int[packed.length];
+                for ( int j = 0; j < packed.length; j++ ) {
+                    varargSources[j] = sourceOf( packed[j] );
+                }
+                sources[i] = VARARGS;
+            } else {
+                sources[i] = sourceOf( recipe[i] );
+            }
+        }
+        MethodHandle handle = null;
+        try {
+            handle = MethodHandles.lookup().unreflect( m )
+                    .bindTo( this )
+                    .asSpreader( Object[].class, m.getParameterCount() )
+                    .asType( MethodType.methodType( Object.class, Object[].class ) );
+        } catch ( IllegalAccessException e ) {
+            logger.debug( "Unable to create a method handle for function " + getName() + ", using reflection.", e );
+        }
+        return new Dispatch( key, m, handle, sources, varargSources );
+    }
+
+    /**
+     * The number of shapes of parameters whose invoke method is cached
+     */
+    int cachedDispatches() {
+        return dispatchCache.size();
+    }
+
+    private static int sourceOf(Object marker) {
+        if ( marker instanceof ArgumentRef ) {
+            return ((ArgumentRef) marker).index;
+        }
+        return marker == CONTEXT_ARGUMENT ? CONTEXT : NO_ARGUMENT;
+    }
+
     private Object normalizeResult(Object result) {
         // this is to normalize types returned by external functions
         return result != null && result instanceof Number && !(result instanceof BigDecimal) ? EvalHelper.getBigDecimalOrNull( result.toString() ) : result;
@@ -321,6 +467,171 @@ public abstract class BaseFEELFunction
         return false;
     }
 
+    private static final Object CONTEXT_ARGUMENT = new Object();
+
+    private static final int CONTEXT     = -1;
+    private static final int NO_ARGUMENT = -2;
+    private static final int VARARGS     = -3;
+
+    private static class ArgumentRef {
+        private final int index;
+
+        private ArgumentRef(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * A resolved invoke method, with the positions of the actual
+     * parameters in the parameters of the call
+     */
+    private static class Dispatch {
+        private final DispatchKey  key;
+        private final Method       method;
+        private final MethodHandle handle;
+        private final int[]        sources;
+        private final int[]        varargSources;
+
+        private Dispatch(DispatchKey key, Method method, MethodHandle handle, int[] sources, int[] varargSources) {
+            this.key = key;
+            this.method = method;
+            this.handle = handle;
+            this.sources = sources;
+            this.varargSources = varargSources;
+        }
+
+        private Object[] arguments(EvaluationContext ctx, Object[] params, boolean isNamedParams) {
+            Object[] actualParams = new Object[sources.length];
+            for ( int i = 0; i < sources.length; i++ ) {
+                if ( sources[i] == VARARGS ) {
+                    Object[] varargs = new Object[varargSources.length];
+                    for ( int j = 0; j < varargs.length; j++ ) {
+                        varargs[j] = argument( varargSources[j], ctx, params, isNamedParams );
+                    }
+                    actualParams[i] = varargs;
+                } else {
+                    actualParams[i] = argument( sources[i], ctx, params, isNamedParams );
+                }
+            }
+            return actualParams;
+        }
+
+        private static Object argument(int source, EvaluationContext ctx, Object[] params, boolean isNamedParams) {
+            if ( source >= 0 ) {
+                return isNamedParams ? ((NamedParameter) params[source]).getValue() : params[source];
+            }
+            return source == CONTEXT ? ctx : null;
+        }
+
+        private Object invoke(Object target, Object[] actualParams) throws Exception {
+            if ( handle == null ) {
+                return method.invoke( target, actualParams );
+            }
+            try {
+                return (Object) handle.invokeExact( actualParams );
+            } catch ( Throwable t ) {
+                // same as reflection, so errors are reported the same way
+                throw new InvocationTargetException( t );
+            }
+        }
+    }
+
+    /**
+     * The shape of the parameters of a call: whether they are named,
+     * their names and the classes of their values
+     */
+    private static final class DispatchKey {
+        private final boolean  named;
+        private final String[] names;
+        private final Class[]  classes;
+        private final int      hash;
+
+        private DispatchKey(Object[] params, boolean named) {
+            this.named = named;
+            this.names = named ? new String[params.length] : null;
+            this.classes = new Class[params.length];
+            for ( int i = 0; i < params.length; i++ ) {
+                Object value = params[i];
+                if ( named ) {
+                    names[i] = ((NamedParameter) value).getName();
+                    value = ((NamedParameter) value).getValue();
+                }
+                classes[i] = value != null ? value.getClass() : null;
+            }
+            this.hash = 31 * (31 * Boolean.hashCode( named ) + Arrays.hashCode( names )) + Arrays.hashCode( classes );
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof DispatchKey) ) {
+                return false;
+            }
+            DispatchKey that = (DispatchKey) o;
+            return hash == that.hash &&
+                   named == that.named &&
+                   Arrays.equals( names, that.names ) &&
+                   Arrays.equals( classes, that.classes );
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Checks whether the given parameters have this shape, without allocating a new key
+         */
+        private boolean matches(Object[] params, boolean isNamedParams) {
+            if ( named != isNamedParams || classes.length != params.length ) {
+                return false;
+            }
+            for ( int i = 0; i < params.length; i++ ) {
+                Object value = params[i];
+                if ( named ) {
+                    NamedParameter np = (NamedParameter) value;
+                    if ( !names[i].equals( np.getName() ) ) {
+                        return false;
+                    }
+                    value = np.getValue();
+                }
+                if ( classes[i] != (value != null ? value.getClass() : null) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A single entry cache, kept by a call site, of the function it last
+     * invoked and the method resolved for that call
+     */
+    public static final class CallSiteCache {
+        private volatile Entry entry;
+
+        private Dispatch lookup(BaseFEELFunction function, Object[] params, boolean isNamedParams) {
+            Entry e = entry;
+            return e != null && e.function == function && e.dispatch.key.matches( params, isNamedParams ) ? e.dispatch : null;
+        }
+
+        private void update(BaseFEELFunction function, Dispatch dispatch) {
+            entry = new Entry( function, dispatch );
+        }
+
+        private static final class Entry {
+            private final BaseFEELFunction function;
+            private final Dispatch         dispatch;
+
+            private Entry(BaseFEELFunction function, Dispatch dispatch) {
+                this.function = function;
+                this.dispatch = dispatch;
+            }
+        }
+    }
+
     private static class CandidateMethod {
         private Method   apply         = null;
         private Object[] actualParams  = null;
@@ -18,6 +18,8 @@ package org.kie.dmn.feel.runtime.functions;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import org.kie.dmn.feel.runtime.events.FEELEvent;
@@ -32,13 +34,23 @@ public class CountFunction
         super( "count" );
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName( "list" ) List list) {
+    public FEELFnResult<BigDecimal> invoke(@ParameterName( "list" ) Iterable list) {
         if ( list == null ) {
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be null"));
         }
-        
-        return FEELFnResult.ofResult( BigDecimal.valueOf( list.size() ) );
+        if ( list instanceof Collection ) {
+            return FEELFnResult.ofResult( BigDecimal.valueOf( ((Collection) list).size() ) );
+        }
+        long count = 0;
+        for ( Iterator it = list.iterator(); it.hasNext(); it.next() ) {
+            count++;
+        }
+        return FEELFnResult.ofResult( BigDecimal.valueOf( count ) );
     }
+    public FEELFnResult<BigDecimal> invoke(@ParameterName( "list" ) List list) {
+        return invoke( (Iterable) list );
+    }
+
 
     public FEELFnResult<BigDecimal> invoke(@ParameterName( "c" ) Object[] list) {
         if ( list == null ) {
@@ -40,13 +40,22 @@ public class DTInvokerFunction
     }
 
     public FEELFnResult<Object> invoke(EvaluationContext ctx, Object[] params) {
+        return invokeReportingMatches( ctx, params, DecisionTableImpl.hasListeners( ctx ) );
+    }
+
+    /**
+     * Invokes the decision table, finding and reporting all the matching rules
+     * only if reportAllMatches is set, not to stop matching early
+     * @see DecisionTableImpl#evaluate(EvaluationContext, Object[], boolean)
+     */
+    public FEELFnResult<Object> invokeReportingMatches(EvaluationContext ctx, Object[] params, boolean reportAllMatches) {
         FEELEvent capturedException = null;
         try {
             ctx.enterFrame();
             for( int i = 0; i < params.length; i++ ) {
                 ctx.setValue( dt.getParameterNames().get( i ), params[i] );
             }
-            return dt.evaluate( ctx, params );
+            return dt.evaluate( ctx, params, reportAllMatches );
         } catch ( Exception e ) {
             capturedException = new FEELEventBase(Severity.ERROR, "Error invoking decision table '"+getName()+"'.", e);
         } finally {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import org.kie.dmn.feel.util.EvalHelper;
+
+import java.math.BigDecimal;
+
+/**
+ * Sums numbers in a single pass. Integers are accumulated in a long for
+ * as long as the sum fits, and the other numbers in a BigDecimal, so
+ * adding an element does not allocate. The result is the same, value and
+ * scale, as adding all the elements to {@link BigDecimal#ZERO}.
+ */
+final class DecimalSum {
+
+    // a long with up to 18 digits is always exact
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private long       longSum;
+    private BigDecimal decimalSum;
+    private long       count;
+
+    /**
+     * Adds the element, returning false if it is not a number
+     */
+    boolean add(Object element) {
+        if ( element instanceof BigDecimal ) {
+            BigDecimal value = (BigDecimal) element;
+            if ( value.scale() == 0 && value.precision() <= MAX_LONG_PRECISION ) {
+                addLong( value.longValue() );
+            } else {
+                addDecimal( value );
+            }
+        } else if ( element instanceof Long || element instanceof Integer || element instanceof Short || element instanceof Byte ) {
+            addLong( ((Number) element).longValue() );
+        } else if ( element instanceof Number ) {
+            BigDecimal value = EvalHelper.getBigDecimalOrNull( element );
+            if ( value == null ) {
+                return false;
+            }
+            addDecimal( value );
+        } else {
+            return false;
+        }
+        count++;
+        return true;
+    }
+
+    private void addLong(long value) {
+        long sum = longSum + value;
+        if ( ((longSum ^ sum) & (value ^ sum)) < 0 ) {
+            // overflow: the long sum so far moves to the decimal sum
+            addDecimal( BigDecimal.valueOf( longSum ) );
+            sum = value;
+        }
+        longSum = sum;
+    }
+
+    private void addDecimal(BigDecimal value) {
+        decimalSum = decimalSum == null ? value : decimalSum.add( value );
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    BigDecimal getSum() {
+        BigDecimal sum = BigDecimal.valueOf( longSum );
+        return decimalSum == null ? sum : decimalSum.add( sum );
+    }
+}
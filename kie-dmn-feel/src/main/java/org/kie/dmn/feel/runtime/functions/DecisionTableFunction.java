@@ -16,6 +16,10 @@
 
 package org.kie.dmn.feel.runtime.functions;
 
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.runtime.Range;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.decisiontables.*;
@@ -65,6 +69,11 @@ public class DecisionTableFunction
         // TODO isn't ^ conflicting with the specs page 136 "input expression list: a LIST of the"
         List<String> inputExpressions = inputExpressionList instanceof List ? (List) inputExpressionList : Collections.singletonList( (String) inputExpressionList );
 
+        // input and output entries are compiled once, with the input expressions as the known variables
+        FEEL feel = FEEL.newInstance();
+        CompilerContext compilerCtx = feel.newCompilerContext();
+        inputExpressions.forEach( ie -> compilerCtx.addInputVariableType( ie, BuiltInType.UNKNOWN ) );
+
         List<DTInputClause> inputs;
         if ( inputValuesList != null ) {
             List<UnaryTest> inputValues = inputValuesList.stream().map( DecisionTableFunction::toUnaryTest ).collect( Collectors.toList() );
@@ -73,10 +82,10 @@ public class DecisionTableFunction
             }
             // zip inputExpression with its inputValue
             inputs = IntStream.range( 0, inputExpressions.size() )
-                    .mapToObj( i -> new DTInputClause( inputExpressions.get( i ), inputValuesList.toString(), Collections.singletonList( inputValues.get( i ) ) ) )
+                    .mapToObj( i -> new DTInputClause( inputExpressions.get( i ), inputValuesList.toString(), Collections.singletonList( inputValues.get( i ) ), feel.compile( inputExpressions.get( i ), compilerCtx ) ) )
                     .collect( Collectors.toList() );
         } else {
-            inputs = inputExpressions.stream().map( ie -> new DTInputClause( ie, null, null ) ).collect( Collectors.toList() );
+            inputs = inputExpressions.stream().map( ie -> new DTInputClause( ie, null, null, feel.compile( ie, compilerCtx ) ) ).collect( Collectors.toList() );
         }
 
         List<String> parseOutputs = outputs instanceof List ? (List) outputs : Collections.singletonList( (String) outputs );
@@ -98,7 +107,7 @@ public class DecisionTableFunction
 
         // TODO parse default output value.
         List<DTDecisionRule> decisionRules = IntStream.range( 0, ruleList.size() )
-                .mapToObj( index -> DecisionTableFunction.toDecisionRule( index, ruleList.get( index ), inputExpressions.size() ) )
+                .mapToObj( index -> DecisionTableFunction.toDecisionRule( feel, compilerCtx, index, ruleList.get( index ), inputExpressions.size() ) )
                 .collect( Collectors.toList() );
 
         // TODO is there a way to avoid UUID and get from _evaluation_ ctx the name of the wrapping context? 
@@ -106,7 +115,7 @@ public class DecisionTableFunction
         return new DTInvokerFunction( dti );
     }
 
-    public static DTDecisionRule toDecisionRule(int index, List<?> rule, int inputSize) {
+    public static DTDecisionRule toDecisionRule(FEEL feel, CompilerContext compilerCtx, int index, List<?> rule, int inputSize) {
         // TODO should be check indeed block of inputSize n inputs, followed by block of outputs.
         DTDecisionRule dr = new DTDecisionRule( index );
         for ( int i = 0; i < rule.size(); i++ ) {
@@ -114,8 +123,8 @@ public class DecisionTableFunction
             if ( i < inputSize ) {
                 dr.getInputEntry().add( toUnaryTest( o ) );
             } else {
-                // TODO: should we pre-compile the expression? probably...
-                dr.getOutputEntry().add( (String) o );
+                CompiledExpression compiledOutput = feel.compile( (String) o, compilerCtx );
+                dr.getOutputEntry().add( compiledOutput );
             }
         }
         return dr;
@@ -17,7 +17,6 @@
 package org.kie.dmn.feel.runtime.functions;
 
 import org.kie.dmn.feel.lang.EvaluationContext;
-import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.FEELEventBase;
 import org.kie.dmn.feel.runtime.events.InvalidInputEvent;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
@@ -25,11 +24,20 @@ import org.kie.dmn.feel.runtime.functions.FEELFnResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * A function backed by a static java method. The method handle and the
+ * coercion of each parameter are resolved once, when the function is created.
+ */
 public class JavaFunction
         extends BaseFEELFunction {
 
@@ -38,12 +46,35 @@ public class JavaFunction
     private final List<String> parameters;
     private final Class        clazz;
     private final Method       method;
+    private final MethodHandle handle;
+    private final Coercer[]    coercers;
 
     public JavaFunction(String name, List<String> parameters, Class clazz, Method method) {
         super( name );
         this.parameters = parameters;
         this.clazz = clazz;
         this.method = method;
+        Class<?>[] paramTypes = method.getParameterTypes();
+        this.coercers = new Coercer[paramTypes.length];
+        for ( int i = 0; i < paramTypes.length; i++ ) {
+            coercers[i] = coercerFor( i, paramTypes[i] );
+        }
+        this.handle = createHandle( method );
+    }
+
+    private MethodHandle createHandle(Method method) {
+        if ( !Modifier.isStatic( method.getModifiers() ) ) {
+            // not supported, but reflection reports the error the same way it always did
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect( method )
+                    .asSpreader( Object[].class, method.getParameterCount() )
+                    .asType( MethodType.methodType( Object.class, Object[].class ) );
+        } catch ( IllegalAccessException e ) {
+            logger.debug( "Unable to create a method handle for function " + getSignature() + ", using reflection.", e );
+            return null;
+        }
     }
 
     public List<List<String>> getParameterNames() {
@@ -54,58 +85,58 @@ public class JavaFunction
         if( params.length != parameters.size() ) {
             return FEELFnResult.ofError(new InvalidInputEvent(Severity.ERROR, "Illegal invocation of function", getName(), getName() + "( " + Arrays.asList(params)+" )", getSignature()));
         }
-        
-        FEELEvent capturedException = null;
+
         try {
-            ctx.enterFrame();
-            for ( int i = 0; i < parameters.size(); i++ ) {
-                ctx.setValue( parameters.get( i ), params[i] );
-            }
             Object[] actualParams = prepareParams( params );
-            Object result = method.invoke( clazz, actualParams );
+            Object result = handle != null ? (Object) handle.invokeExact( actualParams ) : method.invoke( clazz, actualParams );
             return FEELFnResult.ofResult( result );
-        } catch ( Exception e ) {
-            capturedException = new FEELEventBase(Severity.ERROR, "Error invoking function", new RuntimeException("Error invoking function " + getSignature() + ".", e));
-        } finally {
-            ctx.exitFrame();
+        } catch ( Throwable e ) {
+            return FEELFnResult.ofError( new FEELEventBase(Severity.ERROR, "Error invoking function", new RuntimeException("Error invoking function " + getSignature() + ".", e)) );
         }
-        return FEELFnResult.ofError( capturedException );
     }
 
     private Object[] prepareParams(Object[] params) {
         Object[] actual = new Object[ params.length ];
-        Class[] paramTypes = method.getParameterTypes();
-        for( int i = 0; i < paramTypes.length; i++ ) {
-            if( paramTypes[i].isAssignableFrom( params[i].getClass() ) ) {
-                actual[i] = params[i];
-            } else {
-                // try to coerce
-                if( params[i] == null ) {
-                    actual[i] = null;
-                } else if( params[i] instanceof Number ) {
-                    if( paramTypes[i] == byte.class || paramTypes[i] == Byte.class ) {
-                        actual[i] = ((Number)params[i]).byteValue();
-                    } else if( paramTypes[i] == short.class || paramTypes[i] == Short.class ) {
-                        actual[i] = ((Number) params[i]).shortValue();
-                    } else if( paramTypes[i] == int.class || paramTypes[i] == Integer.class ) {
-                        actual[i] = ((Number) params[i]).intValue();
-                    } else if( paramTypes[i] == long.class || paramTypes[i] == Long.class ) {
-                        actual[i] = ((Number) params[i]).longValue();
-                    } else if( paramTypes[i] == float.class || paramTypes[i] == Float.class ) {
-                        actual[i] = ((Number) params[i]).floatValue();
-                    } else if( paramTypes[i] == double.class || paramTypes[i] == Double.class ) {
-                        actual[i] = ((Number) params[i]).doubleValue();
-                    } else {
-                        throw new IllegalArgumentException( "Unable to coerce parameter "+parameters.get( 0 )+". Expected "+paramTypes[i]+" but found "+params[i].getClass() );
-                    }
-                } else {
-                    throw new IllegalArgumentException( "Unable to coerce parameter "+parameters.get( 0 )+". Expected "+paramTypes[i]+" but found "+params[i].getClass() );
-                }
-            }
+        for( int i = 0; i < coercers.length; i++ ) {
+            actual[i] = coercers[i].coerce( params[i] );
         }
         return actual;
     }
 
+    private Coercer coercerFor(int index, Class<?> paramType) {
+        Class<?> boxed = MethodType.methodType( paramType ).wrap().returnType();
+        Function<Number, Object> conversion = numberConversion( boxed );
+        return value -> {
+            if( value == null || boxed.isInstance( value ) ) {
+                return value;
+            } else if( conversion != null && value instanceof Number ) {
+                return conversion.apply( (Number) value );
+            }
+            throw new IllegalArgumentException( "Unable to coerce parameter "+parameters.get( index )+". Expected "+paramType+" but found "+value.getClass() );
+        };
+    }
+
+    private static Function<Number, Object> numberConversion(Class<?> type) {
+        if( type == Byte.class ) {
+            return Number::byteValue;
+        } else if( type == Short.class ) {
+            return Number::shortValue;
+        } else if( type == Integer.class ) {
+            return Number::intValue;
+        } else if( type == Long.class ) {
+            return Number::longValue;
+        } else if( type == Float.class ) {
+            return Number::floatValue;
+        } else if( type == Double.class ) {
+            return Number::doubleValue;
+        }
+        return null;
+    }
+
+    private interface Coercer {
+        Object coerce(Object value);
+    }
+
     private String getSignature() {
         return getName() + "( " + parameters.stream().collect( Collectors.joining( ", " ) ) + " )";
     }
@@ -42,10 +42,8 @@ public class MatchesFunction
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "cannot be null" ) );
         }
         try {
-            int f = processFlags( flags );
-            Pattern p = Pattern.compile( pattern, f );
-            Matcher m = p.matcher( input );
-            return FEELFnResult.ofResult( m.find() );
+            Pattern p = PatternCache.getShared().compile( pattern, PatternCache.toFlags( flags ) );
+            return invoke( input, p );
         } catch ( PatternSyntaxException e ) {
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "is invalid and can not be compiled", e ) );
         } catch ( Throwable t ) {
@@ -53,20 +51,18 @@ public class MatchesFunction
         }
     }
 
-    private int processFlags(String flags) {
-        int f = 0;
-        if( flags != null ) {
-            if( flags.contains( "s" ) ) {
-                f |= Pattern.DOTALL;
-            }
-            if( flags.contains( "m" ) ) {
-                f |= Pattern.MULTILINE;
-            }
-            if( flags.contains( "i" ) ) {
-                f |= Pattern.CASE_INSENSITIVE;
-            }
+    /**
+     * Invoked when the pattern, and its flags, were compiled along with the expression
+     */
+    public FEELFnResult<Boolean> invoke(@ParameterName("input") String input, @ParameterName("pattern") Pattern pattern) {
+        if ( input == null ) {
+            return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "input", "cannot be null" ) );
+        }
+        if ( pattern == null ) {
+            return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "cannot be null" ) );
         }
-        return f;
+        Matcher m = pattern.matcher( input );
+        return FEELFnResult.ofResult( m.find() );
     }
 
 }
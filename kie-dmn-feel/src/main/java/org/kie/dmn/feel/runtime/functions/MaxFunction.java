@@ -17,13 +17,14 @@
 package org.kie.dmn.feel.runtime.functions;
 
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.InvalidParametersEvent;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.runtime.functions.FEELFnResult;
+import org.kie.dmn.feel.util.EvalHelper;
 
 public class MaxFunction
         extends BaseFEELFunction {
@@ -32,13 +33,30 @@ public class MaxFunction
         super( "max" );
     }
 
-    public FEELFnResult<Object> invoke(@ParameterName("list") List list) {
+    public FEELFnResult<Object> invoke(@ParameterName("list") Iterable list) {
         if ( list == null ) {
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be null"));
-        } else {
-            return FEELFnResult.ofResult( Collections.max( list ) );
         }
+        Iterator it = list.iterator();
+        if ( !it.hasNext() ) {
+            return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be empty"));
+        }
+        Object result = it.next();
+        while ( it.hasNext() ) {
+            Object element = it.next();
+            if ( element == null || result == null ) {
+                return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot contain null values"));
+            }
+            if ( EvalHelper.compare( element, result ) > 0 ) {
+                result = element;
+            }
+        }
+        return FEELFnResult.ofResult( result );
     }
+    public FEELFnResult<Object> invoke(@ParameterName("list") List list) {
+        return invoke( (Iterable) list );
+    }
+
 
     public FEELFnResult<Object> invoke(@ParameterName("c") Object[] list) {
         if ( list == null ) { 
@@ -17,50 +17,74 @@
 package org.kie.dmn.feel.runtime.functions;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
 
+import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.InvalidParametersEvent;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.runtime.functions.FEELFnResult;
+import org.kie.dmn.feel.util.DecimalArithmetic;
 import org.kie.dmn.feel.util.EvalHelper;
 
 public class MeanFunction
         extends BaseFEELFunction {
 
-    private SumFunction sum = new SumFunction();
-
     public MeanFunction() {
         super( "mean" );
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName( "list" ) List list) {
-        FEELFnResult<BigDecimal> s = sum.invoke( list );
-        
-        Function<FEELEvent, FEELFnResult<BigDecimal>> ifLeft = (event) -> {
-            return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "unable to sum the elements which is required to calculate the mean"));
-        };
-        
-        Function<BigDecimal, FEELFnResult<BigDecimal>> ifRight = (sum) -> {
-            try {
-                return FEELFnResult.ofResult( sum.divide( BigDecimal.valueOf( list.size() ), MathContext.DECIMAL128 ) );
-            } catch (Exception e) {
-                return FEELFnResult.ofError( new InvalidParametersEvent(Severity.ERROR, "unable to perform division to calculate the mean", e) );
+    public FEELFnResult<Number> invoke(@ParameterName( "ctx" ) EvaluationContext ctx, @ParameterName( "list" ) Iterable list) {
+        if ( list == null ) {
+            return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be null"));
+        }
+        // the sum and the count are taken in the same pass, as the list may only be iterated once
+        try {
+            if ( SumFunction.isDoubleMode( ctx ) ) {
+                double sum = 0;
+                long count = 0;
+                for ( Object element : list ) {
+                    if ( !(element instanceof Number) ) {
+                        return unableToSum();
+                    }
+                    sum += ((Number) element).doubleValue();
+                    count++;
+                }
+                if ( count == 0 ) {
+                    throw new ArithmeticException( "Division by zero" );
+                }
+                return FEELFnResult.ofResult( sum / count );
             }
-        };
-        
-        return s.cata(ifLeft, ifRight);
+            DecimalSum sum = new DecimalSum();
+            for ( Object element : list ) {
+                if ( !sum.add( element ) ) {
+                    return unableToSum();
+                }
+            }
+            return FEELFnResult.ofResult( DecimalArithmetic.divide( sum.getSum(), BigDecimal.valueOf( sum.getCount() ) ) );
+        } catch (Exception e) {
+            return FEELFnResult.ofError( new InvalidParametersEvent(Severity.ERROR, "unable to perform division to calculate the mean", e) );
+        }
+    }
+    public FEELFnResult<Number> invoke(@ParameterName( "ctx" ) EvaluationContext ctx, @ParameterName( "list" ) List list) {
+        return invoke( ctx, (Iterable) list );
+    }
+
+
+    private static FEELFnResult<Number> unableToSum() {
+        return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "unable to sum the elements which is required to calculate the mean"));
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName( "list" ) Number single) {
+    public FEELFnResult<Number> invoke(@ParameterName( "ctx" ) EvaluationContext ctx, @ParameterName( "list" ) Number single) {
         if ( single == null ) { 
             // Arrays.asList does not accept null as parameter
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "the single value list cannot be null"));
         }
         
+        if ( SumFunction.isDoubleMode( ctx ) ) {
+            return FEELFnResult.ofResult( single.doubleValue() );
+        }
         if( single instanceof BigDecimal ) {
             return FEELFnResult.ofResult((BigDecimal) single );
         } 
@@ -72,12 +96,12 @@ public class MeanFunction
         }
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName( "n" ) Object[] list) {
+    public FEELFnResult<Number> invoke(@ParameterName( "ctx" ) EvaluationContext ctx, @ParameterName( "n" ) Object[] list) {
         if ( list == null ) { 
             // Arrays.asList does not accept null as parameter
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "n", "cannot be null"));
         }
         
-        return invoke( Arrays.asList( list ) );
+        return invoke( ctx, Arrays.asList( list ) );
     }
 }
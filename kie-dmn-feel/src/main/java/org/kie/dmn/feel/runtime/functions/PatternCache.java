@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A bounded, thread safe cache of the regular expressions compiled
+ * by matches() and replace(), keyed by the pattern and its flags.
+ *
+ * Lookups do not lock: when the cache is full, an arbitrary entry
+ * is evicted to make room for the new one. Patterns that fail to
+ * compile are not cached.
+ *
+ * The size of the JVM wide cache can be set through the system
+ * property {@link #CACHE_SIZE_PROPERTY}.
+ */
+public class PatternCache {
+
+    public static final String CACHE_SIZE_PROPERTY = "org.kie.dmn.feel.patternCache.size";
+
+    private static final PatternCache SHARED = new PatternCache( Integer.getInteger( CACHE_SIZE_PROPERTY, 1000 ) );
+
+    private final int                         maxSize;
+    private final ConcurrentMap<Key, Pattern> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PatternCache(int maxSize) {
+        if ( maxSize <= 0 ) {
+            throw new IllegalArgumentException( "Cache size must be positive: " + maxSize );
+        }
+        this.maxSize = maxSize;
+    }
+
+    public static PatternCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Converts the FEEL regular expression flags into java.util.regex flags
+     */
+    public static int toFlags(String flags) {
+        int f = 0;
+        if( flags != null ) {
+            if( flags.contains( "s" ) ) {
+                f |= Pattern.DOTALL;
+            }
+            if( flags.contains( "m" ) ) {
+                f |= Pattern.MULTILINE;
+            }
+            if( flags.contains( "i" ) ) {
+                f |= Pattern.CASE_INSENSITIVE;
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Returns the compiled pattern, compiling it on a miss.
+     *
+     * @throws PatternSyntaxException if the pattern is invalid
+     */
+    public Pattern compile(String pattern, int flags) {
+        Key key = new Key( pattern, flags );
+        Pattern compiled = entries.get( key );
+        if ( compiled != null ) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        compiled = Pattern.compile( pattern, flags );
+        if ( entries.size() >= maxSize ) {
+            evictOne();
+        }
+        Pattern previous = entries.putIfAbsent( key, compiled );
+        return previous != null ? previous : compiled;
+    }
+
+    private void evictOne() {
+        Iterator<Key> it = entries.keySet().iterator();
+        if ( it.hasNext() ) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PatternCache{" +
+               "size=" + size() +
+               ", maxSize=" + maxSize +
+               ", hits=" + hits +
+               ", misses=" + misses +
+               ", evictions=" + evictions +
+               '}';
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final int    flags;
+
+        private Key(String pattern, int flags) {
+            this.pattern = pattern;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Key) ) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flags == key.flags && pattern.equals( key.pattern );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * pattern.hashCode() + flags;
+        }
+    }
+}
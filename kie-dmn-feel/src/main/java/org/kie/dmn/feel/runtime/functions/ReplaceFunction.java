@@ -19,6 +19,9 @@ package org.kie.dmn.feel.runtime.functions;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.runtime.events.InvalidParametersEvent;
 
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
 public class ReplaceFunction
         extends BaseFEELFunction {
 
@@ -28,28 +31,39 @@ public class ReplaceFunction
 
     public FEELFnResult<Object> invoke(@ParameterName("input") String input, @ParameterName("pattern") String pattern,
                                        @ParameterName( "replacement" ) String replacement ) {
+        return invoke( input, pattern, replacement, null );
+    }
+
+    public FEELFnResult<Object> invoke(@ParameterName("input") String input, @ParameterName("pattern") String pattern,
+                                       @ParameterName( "replacement" ) String replacement, @ParameterName("flags") String flags) {
         if ( input == null ) {
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "input", "cannot be null" ) );
         }
         if ( pattern == null ) {
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "cannot be null" ) );
         }
-
-        // for now, using standard java matches function
-        return FEELFnResult.ofResult( input.replaceAll( pattern, replacement ) );
+        Pattern p;
+        try {
+            p = PatternCache.getShared().compile( pattern, PatternCache.toFlags( flags ) );
+        } catch ( PatternSyntaxException e ) {
+            return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "is invalid and can not be compiled", e ) );
+        }
+        return invoke( input, p, replacement );
     }
 
-    public FEELFnResult<Object> invoke(@ParameterName("input") String input, @ParameterName("pattern") String pattern,
-                                       @ParameterName( "replacement" ) String replacement, @ParameterName("flags") String flags) {
+    /**
+     * Invoked when the pattern, and its flags, were compiled along with the expression
+     */
+    public FEELFnResult<Object> invoke(@ParameterName("input") String input, @ParameterName("pattern") Pattern pattern,
+                                       @ParameterName( "replacement" ) String replacement ) {
         if ( input == null ) {
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "input", "cannot be null" ) );
         }
         if ( pattern == null ) {
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "cannot be null" ) );
         }
-
-        // for now, using standard java replaceAll function... needs fixing to support flags
-        return FEELFnResult.ofResult( input.replaceAll( pattern, replacement ) );
+        // the replacement uses the java.util.regex syntax for group references
+        return FEELFnResult.ofResult( pattern.matcher( input ).replaceAll( replacement ) );
     }
 
 }
@@ -20,6 +20,8 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.kie.dmn.feel.runtime.events.FEELEvent;
 import org.kie.dmn.feel.runtime.events.InvalidParametersEvent;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
@@ -33,26 +35,43 @@ public class SumFunction
         super( "sum" );
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName("list") List list) {
-        BigDecimal sum = BigDecimal.ZERO;
+    public FEELFnResult<Number> invoke(@ParameterName("ctx") EvaluationContext ctx, @ParameterName("list") Iterable list) {
+        if ( list == null ) {
+            return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "cannot be null"));
+        }
+        if ( isDoubleMode( ctx ) ) {
+            double sum = 0;
+            for ( Object element : list ) {
+                if ( element instanceof Number ) {
+                    sum += ((Number) element).doubleValue();
+                } else {
+                    return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "an element in the list is not suitable for the sum"));
+                }
+            }
+            return FEELFnResult.ofResult( sum );
+        }
+        DecimalSum sum = new DecimalSum();
         for ( Object element : list ) {
-            if ( element instanceof BigDecimal ) {
-                sum = sum.add( (BigDecimal) element );
-            } else if ( element instanceof Number ) {
-                sum = sum.add( EvalHelper.getBigDecimalOrNull( element ) );
-            } else {
+            if ( !sum.add( element ) ) {
                 return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "an element in the list is not suitable for the sum"));
             }
         }
-        return FEELFnResult.ofResult( sum );
+        return FEELFnResult.ofResult( sum.getSum() );
+    }
+    public FEELFnResult<Number> invoke(@ParameterName("ctx") EvaluationContext ctx, @ParameterName("list") List list) {
+        return invoke( ctx, (Iterable) list );
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName("list") Number single) {
+
+    public FEELFnResult<Number> invoke(@ParameterName("ctx") EvaluationContext ctx, @ParameterName("list") Number single) {
         if ( single == null ) { 
             // Arrays.asList does not accept null as parameter
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "list", "the single value list cannot be null"));
         }
         
+        if ( isDoubleMode( ctx ) ) {
+            return FEELFnResult.ofResult( single.doubleValue() );
+        }
         if( single instanceof BigDecimal ) {
             return FEELFnResult.ofResult((BigDecimal) single );
         } 
@@ -64,12 +83,16 @@ public class SumFunction
         }
     }
 
-    public FEELFnResult<BigDecimal> invoke(@ParameterName("n") Object[] list) {
+    public FEELFnResult<Number> invoke(@ParameterName("ctx") EvaluationContext ctx, @ParameterName("n") Object[] list) {
         if ( list == null ) { 
             // Arrays.asList does not accept null as parameter
             return FEELFnResult.ofError(new InvalidParametersEvent(Severity.ERROR, "n", "the single value list cannot be null"));
         }
         
-        return invoke( Arrays.asList( list ) );
+        return invoke( ctx, Arrays.asList( list ) );
+    }
+
+    static boolean isDoubleMode(EvaluationContext ctx) {
+        return ctx != null && ctx.getNumericMode() == NumericMode.DOUBLE;
     }
 }
@@ -18,6 +18,7 @@ package org.kie.dmn.feel.runtime.impl;
 
 import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.Range;
+import org.kie.dmn.feel.util.EvalHelper;
 
 public class RangeImpl
         implements Range {
@@ -60,13 +61,13 @@ public class RangeImpl
     @Override
     public Boolean includes(Comparable param) {
         if ( lowBoundary == RangeBoundary.OPEN && highBoundary == RangeBoundary.OPEN ) {
-            return param == null || lowEndPoint == null || highEndPoint == null ? null : ((Comparable) param).compareTo( lowEndPoint ) > 0 && ((Comparable) param).compareTo( highEndPoint ) < 0;
+            return param == null || lowEndPoint == null || highEndPoint == null ? null : EvalHelper.compare( param, lowEndPoint ) > 0 && EvalHelper.compare( param, highEndPoint ) < 0;
         } else if ( lowBoundary == RangeBoundary.OPEN && highBoundary == RangeBoundary.CLOSED ) {
-            return param == null || lowEndPoint == null || highEndPoint == null ? null : ((Comparable) param).compareTo( lowEndPoint ) > 0 && ((Comparable) param).compareTo( highEndPoint ) <= 0;
+            return param == null || lowEndPoint == null || highEndPoint == null ? null : EvalHelper.compare( param, lowEndPoint ) > 0 && EvalHelper.compare( param, highEndPoint ) <= 0;
         } else if ( lowBoundary == RangeBoundary.CLOSED && highBoundary == RangeBoundary.OPEN ) {
-            return param == null || lowEndPoint == null || highEndPoint == null ? null : ((Comparable) param).compareTo( lowEndPoint ) >= 0 && ((Comparable) param).compareTo( highEndPoint ) < 0;
+            return param == null || lowEndPoint == null || highEndPoint == null ? null : EvalHelper.compare( param, lowEndPoint ) >= 0 && EvalHelper.compare( param, highEndPoint ) < 0;
         } else if ( lowBoundary == RangeBoundary.CLOSED && highBoundary == RangeBoundary.CLOSED ) {
-            return param == null || lowEndPoint == null || highEndPoint == null ? null : ((Comparable) param).compareTo( lowEndPoint ) >= 0 && ((Comparable) param).compareTo( highEndPoint ) <= 0;
+            return param == null || lowEndPoint == null || highEndPoint == null ? null : EvalHelper.compare( param, lowEndPoint ) >= 0 && EvalHelper.compare( param, highEndPoint ) <= 0;
         }
         return null;
     }
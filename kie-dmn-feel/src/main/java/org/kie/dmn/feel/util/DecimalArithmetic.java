@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.util;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Decimal arithmetic with the FEEL semantics, i.e., the results of the
+ * operations are the same, value and scale, as the BigDecimal operations
+ * with {@link MathContext#DECIMAL128}.
+ *
+ * Most numbers in decision models are small integers or amounts with a
+ * couple of decimals, for which the exact result always fits in the 34
+ * digits of DECIMAL128. In that case the rounding is a no-op, so it is
+ * skipped: BigDecimal already keeps such values in a compact long, and
+ * the unrounded operations stay on that long fast path. Results that
+ * would need rounding, or inexact divisions, still go through DECIMAL128.
+ */
+public final class DecimalArithmetic {
+
+    private static final int MAX_PRECISION = MathContext.DECIMAL128.getPrecision();
+
+    // a long with up to 18 digits can never overflow on the operations below
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private DecimalArithmetic() {
+    }
+
+    public static BigDecimal add(BigDecimal l, BigDecimal r) {
+        if ( fitsAligned( l, r ) ) {
+            return l.add( r );
+        }
+        return l.add( r, MathContext.DECIMAL128 );
+    }
+
+    public static BigDecimal subtract(BigDecimal l, BigDecimal r) {
+        if ( fitsAligned( l, r ) ) {
+            return l.subtract( r );
+        }
+        return l.subtract( r, MathContext.DECIMAL128 );
+    }
+
+    public static BigDecimal multiply(BigDecimal l, BigDecimal r) {
+        // the product has at most as many digits as both operands together
+        if ( l.precision() + r.precision() <= MAX_PRECISION ) {
+            return l.multiply( r );
+        }
+        return l.multiply( r, MathContext.DECIMAL128 );
+    }
+
+    /**
+     * @throws ArithmeticException on division by zero
+     */
+    public static BigDecimal divide(BigDecimal l, BigDecimal r) {
+        if ( l.scale() == 0 && r.scale() == 0 && l.precision() <= MAX_LONG_PRECISION && r.precision() <= MAX_LONG_PRECISION ) {
+            long dividend = l.longValue();
+            long divisor = r.longValue();
+            if ( divisor != 0 && dividend % divisor == 0 ) {
+                // an exact quotient of integers keeps the preferred scale 0
+                return BigDecimal.valueOf( dividend / divisor );
+            }
+        }
+        return l.divide( r, MathContext.DECIMAL128 );
+    }
+
+    /**
+     * True if the exact sum (or difference) of the operands, aligned to
+     * the largest scale, fits in the DECIMAL128 precision.
+     */
+    private static boolean fitsAligned(BigDecimal l, BigDecimal r) {
+        long scale = Math.max( l.scale(), r.scale() );
+        long digits = Math.max( l.precision() + scale - l.scale(), r.precision() + scale - r.scale() );
+        // one more digit for the carry
+        return digits + 1 <= MAX_PRECISION;
+    }
+}
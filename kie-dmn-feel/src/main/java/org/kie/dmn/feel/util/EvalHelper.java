@@ -16,7 +16,7 @@
 
 package org.kie.dmn.feel.util;
 
-import org.kie.dmn.feel.lang.FEELProperty;
+import org.kie.dmn.feel.lang.NumericMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,32 +29,45 @@ import java.time.Duration;
 import java.time.Period;
 import java.time.temporal.ChronoField;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
 
 public class EvalHelper {
     public static final Logger LOG = LoggerFactory.getLogger( EvalHelper.class );
 
+    private static final Pattern LEADING_ZEROS = Pattern.compile( "^0+(?!$)" );
+
     public static String normalizeVariableName(String name) {
-        return name.replaceAll( "\\s+", " " );
+        // most names are already normalized, so check before paying for the regex
+        for ( int i = 0; i < name.length(); i++ ) {
+            char c = name.charAt( i );
+            if ( Character.isWhitespace( c ) && ( c != ' ' || ( i + 1 < name.length() && Character.isWhitespace( name.charAt( i + 1 ) ) ) ) ) {
+                return name.replaceAll( "\\s+", " " );
+            }
+        }
+        return name;
     }
 
     public static BigDecimal getBigDecimalOrNull(Object value) {
         if ( !(value instanceof Number || value instanceof String) ) {
             return null;
         }
-        if ( !BigDecimal.class.isAssignableFrom( value.getClass() ) ) {
+        if ( !(value instanceof BigDecimal) ) {
             if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ||
                  value instanceof AtomicLong || value instanceof AtomicInteger ) {
-                value = new BigDecimal( ((Number) value).longValue(), MathContext.DECIMAL128 );
+                // a long never has more digits than DECIMAL128, and small values are cached
+                value = BigDecimal.valueOf( ((Number) value).longValue() );
             } else if ( value instanceof BigInteger ) {
                 value = new BigDecimal( ((BigInteger) value).toString(), MathContext.DECIMAL128 );
             } else if ( value instanceof String ) {
                 // we need to remove leading zeros to prevent octal conversion
-                value = new BigDecimal( ((String) value).replaceFirst("^0+(?!$)", ""), MathContext.DECIMAL128 );
+                value = new BigDecimal( LEADING_ZEROS.matcher( (String) value ).replaceFirst( "" ), MathContext.DECIMAL128 );
             } else {
                 value = new BigDecimal( ((Number) value).doubleValue(), MathContext.DECIMAL128 );
             }
@@ -70,6 +83,84 @@ public class EvalHelper {
         }
     }
 
+    /**
+     * Coerces numbers to the representation of the given numeric mode
+     */
+    public static Object coerceNumber(Object value, NumericMode numericMode) {
+        if ( numericMode == NumericMode.DOUBLE ) {
+            return value instanceof Number && !(value instanceof Double) ? (Object) ((Number) value).doubleValue() : value;
+        }
+        return coerceNumber( value );
+    }
+
+    public static Double getDoubleOrNull(Object value) {
+        if ( value instanceof Double ) {
+            return (Double) value;
+        } else if ( value instanceof Number ) {
+            return ((Number) value).doubleValue();
+        } else if ( value instanceof String ) {
+            BigDecimal number = getBigDecimalOrNull( value );
+            return number != null ? number.doubleValue() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Converts the doubles produced by an evaluation in {@link NumericMode#DOUBLE}
+     * back to BigDecimals, including the ones in lists and contexts. Collections
+     * are only copied if they contain a value to convert. Integral values have no
+     * fraction digits, as when evaluated as decimals: 26, not 26.0.
+     */
+    public static Object coerceDoublesToDecimals(Object value) {
+        if ( value instanceof Double ) {
+            BigDecimal decimal = BigDecimal.valueOf( (Double) value );
+            return decimal.scale() > 0 && (Double) value == Math.rint( (Double) value ) ? decimal.setScale( 0 ) : decimal;
+        } else if ( value instanceof List ) {
+            List<?> list = (List<?>) value;
+            List<Object> result = null;
+            for ( int i = 0; i < list.size(); i++ ) {
+                Object element = list.get( i );
+                Object coerced = coerceDoublesToDecimals( element );
+                if ( coerced != element && result == null ) {
+                    result = new ArrayList<>( list );
+                }
+                if ( result != null ) {
+                    result.set( i, coerced );
+                }
+            }
+            return result != null ? result : value;
+        } else if ( value instanceof Map ) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> result = null;
+            for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+                Object coerced = coerceDoublesToDecimals( entry.getValue() );
+                if ( coerced != entry.getValue() ) {
+                    if ( result == null ) {
+                        result = new LinkedHashMap<>( map );
+                    }
+                    result.put( entry.getKey(), coerced );
+                }
+            }
+            return result != null ? result : value;
+        }
+        return value;
+    }
+
+    /**
+     * Compares two values of the same type. Numbers are compared by value
+     * when either of them is a Double, as the values evaluated in
+     * {@link NumericMode#DOUBLE} may be compared to BigDecimals coming
+     * from other expressions or from the input data.
+     */
+    public static int compare(Object left, Object right) {
+        if ( (left instanceof Double || right instanceof Double) && left instanceof Number && right instanceof Number ) {
+            double l = ((Number) left).doubleValue();
+            double r = ((Number) right).doubleValue();
+            return l < r ? -1 : ( l > r ? 1 : 0 );
+        }
+        return ((Comparable) left).compareTo( right );
+    }
+
     public static Boolean getBooleanOrNull(Object value) {
         if ( value == null || !(value instanceof Boolean) ) {
             return null;
@@ -208,9 +299,9 @@ public class EvalHelper {
                     return null;
             }
         } else {
-            Method getter = getGenericAccessor( current.getClass(), property );
+            PropertyAccessors.Accessor getter = PropertyAccessors.of( current.getClass() ).get( property );
             if ( getter != null ) {
-                current = getter.invoke( current );
+                current = getter.get( current );
             } else {
                 return null;
             }
@@ -226,13 +317,8 @@ public class EvalHelper {
      */
     public static Method getGenericAccessor(Class<?> clazz, String field) {
         LOG.trace( "getGenericAccessor({}, {})", clazz, field );
-        return Stream.of( clazz.getMethods() )
-                .filter( m -> Optional.ofNullable( m.getAnnotation( FEELProperty.class ) )
-                        .map( ann -> ann.value().equals( field ) )
-                        .orElse( false )
-                )
-                .findFirst()
-                .orElse( getAccessor( clazz, field ) );
+        PropertyAccessors.Accessor accessor = PropertyAccessors.of( clazz ).get( field );
+        return accessor != null ? accessor.getMethod() : null;
     }
 
     /**
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.util;
+
+import org.kie.dmn.feel.lang.FEELProperty;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The accessors of the FEEL properties of a java class, resolved once per
+ * class and property name, missing properties included.
+ *
+ * A property is read through the method annotated with {@link FEELProperty}
+ * for its name if there is one, or else through its JavaBean accessor,
+ * as described in {@link EvalHelper#getGenericAccessor(Class, String)}.
+ */
+public class PropertyAccessors {
+
+    private static final ClassValue<PropertyAccessors> ACCESSORS = new ClassValue<PropertyAccessors>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors( type );
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+
+    // marks the properties the class does not have
+    private static final Accessor MISSING = new Accessor( null, null );
+
+    private final Class<?>                        type;
+    private final Map<String, Method>             annotated = new HashMap<>();
+    private final ConcurrentMap<String, Accessor> accessors = new ConcurrentHashMap<>();
+
+    private PropertyAccessors(Class<?> type) {
+        this.type = type;
+        for ( Method m : type.getMethods() ) {
+            FEELProperty property = m.getAnnotation( FEELProperty.class );
+            if ( property != null ) {
+                // the first annotated method wins, as in EvalHelper.getGenericAccessor()
+                annotated.putIfAbsent( property.value(), m );
+            }
+        }
+    }
+
+    public static PropertyAccessors of(Class<?> type) {
+        return ACCESSORS.get( type );
+    }
+
+    /**
+     * Returns the accessor of the given property, or null if the class does not have it
+     */
+    public Accessor get(String property) {
+        Accessor accessor = accessors.get( property );
+        if ( accessor == null ) {
+            accessor = accessors.computeIfAbsent( property, this::resolve );
+        }
+        return accessor != MISSING ? accessor : null;
+    }
+
+    private Accessor resolve(String property) {
+        Method method = annotated.get( property );
+        if ( method == null ) {
+            method = EvalHelper.getAccessor( type, property );
+        }
+        if ( method == null ) {
+            return MISSING;
+        }
+        MethodHandle handle = null;
+        try {
+            handle = MethodHandles.lookup().unreflect( method ).asType( GETTER_TYPE );
+        } catch ( IllegalAccessException | RuntimeException e ) {
+            // not a plain getter, or not accessible: reflection reports the error as it always did
+        }
+        return new Accessor( method, handle );
+    }
+
+    public static class Accessor {
+        private final Method       method;
+        private final MethodHandle handle;
+
+        private Accessor(Method method, MethodHandle handle) {
+            this.method = method;
+            this.handle = handle;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public Object get(Object target)
+                throws IllegalAccessException, InvocationTargetException {
+            if ( handle == null ) {
+                return method.invoke( target );
+            }
+            try {
+                return (Object) handle.invokeExact( target );
+            } catch ( Throwable t ) {
+                // same as reflection, so errors are reported the same way
+                throw new InvocationTargetException( t );
+            }
+        }
+    }
+}
@@ -28,6 +28,35 @@ public class TokenTree {
         root.children = new ArrayList<Node>();
     }
 
+    private TokenTree(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns a new token tree sharing the nodes of this one,
+     * but with its own matching state. Names must no longer
+     * be added to this tree once views were created.
+     */
+    public TokenTree newView() {
+        return new TokenTree( root );
+    }
+
+    /**
+     * Returns a deep copy of this token tree, so that names can be
+     * added to it without affecting this one or its views.
+     */
+    public TokenTree copy() {
+        return new TokenTree( copy( root, null ) );
+    }
+
+    private static Node copy( Node node, Node parent ) {
+        Node copy = new Node( node.token, parent );
+        for( Node child : node.children ) {
+            copy.children.add( copy( child, copy ) );
+        }
+        return copy;
+    }
+
     public void addName( List<String> tokens ) {
         Node current = root;
         for( String t : tokens ) {
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.impl.CompiledExpressionImpl;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.lang.impl.MapBackedType;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+import org.kie.dmn.feel.parser.feel11.ASTBuilderVisitor;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.runtime.functions.FloorFunction;
+import org.kie.dmn.feel.runtime.functions.SumFunction;
+import org.kie.dmn.feel.parser.feel11.FEELParser;
+import org.kie.dmn.feel.parser.feel11.FEEL_1_1Parser;
+
+public class ASTOptimizerTest {
+
+    @Test
+    public void testFoldArithmetic() {
+        ASTOptimizer optimizer = new ASTOptimizer( Collections.emptySet() );
+        BaseNode node = optimizer.optimize( parse( "10 * 1000 + 1" ) );
+
+        assertThat( node, is( instanceOf( ConstantNode.class ) ) );
+        assertThat( ((ConstantNode) node).getValue(), is( BigDecimal.valueOf( 10001 ) ) );
+        assertThat( optimizer.getFoldedNodes(), is( 2 ) );
+    }
+
+    @Test
+    public void testFoldBuiltInFunction() {
+        ASTOptimizer optimizer = new ASTOptimizer( Collections.emptySet() );
+        BaseNode node = optimizer.optimize( parse( "date( \"2016-01-01\" )" ) );
+
+        assertThat( node, is( instanceOf( ConstantNode.class ) ) );
+        assertThat( ((ConstantNode) node).getValue(), is( LocalDate.of( 2016, 1, 1 ) ) );
+    }
+
+    @Test
+    public void testNowIsNotFolded() {
+        ASTOptimizer optimizer = new ASTOptimizer( Collections.emptySet() );
+        BaseNode node = optimizer.optimize( parse( "now()" ) );
+
+        assertThat( node, is( not( instanceOf( ConstantNode.class ) ) ) );
+        assertThat( optimizer.getFoldedNodes(), is( 0 ) );
+    }
+
+    @Test
+    public void testVariablesAreNotFolded() {
+        Map<String, Object> inputs = Collections.singletonMap( "x", 1 );
+        ASTOptimizer optimizer = new ASTOptimizer( inputs.keySet() );
+        BaseNode node = optimizer.optimize( parse( "x + 2 * 3", inputs ) );
+
+        assertThat( node, is( instanceOf( InfixOpNode.class ) ) );
+        assertThat( ((InfixOpNode) node).getRight(), is( instanceOf( ConstantNode.class ) ) );
+        assertThat( optimizer.getFoldedNodes(), is( 1 ) );
+    }
+
+    @Test
+    public void testErrorsAreNotFolded() {
+        ASTOptimizer optimizer = new ASTOptimizer( Collections.emptySet() );
+        BaseNode node = optimizer.optimize( parse( "date( \"not a date\" )" ) );
+
+        // the error must still be reported when the expression is evaluated
+        assertThat( node, is( instanceOf( FunctionInvocationNode.class ) ) );
+    }
+
+    @Test
+    public void testNumericOperationsAreSpecialized() {
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        CompilerContext ctx = feel.newCompilerContext();
+        ctx.addInputVariableType( "monthly salary", BuiltInType.NUMBER );
+        CompiledExpressionImpl expr = (CompiledExpressionImpl) feel.compile( "monthly salary * 12 > 10000", ctx );
+
+        assertThat( expr.getExpression(), is( instanceOf( NumericInfixOpNode.class ) ) );
+        assertThat( ((InfixOpNode) expr.getExpression()).getLeft(), is( instanceOf( NumericInfixOpNode.class ) ) );
+
+        assertThat( feel.evaluate( expr, Collections.singletonMap( "monthly salary", new BigDecimal( 1000 ) ) ), is( true ) );
+        // values not matching the declared type fall back to the generic semantics
+        assertThat( feel.evaluate( expr, Collections.singletonMap( "monthly salary", 500 ) ), is( false ) );
+        assertThat( feel.evaluate( expr, Collections.singletonMap( "monthly salary", null ) ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testShadowedInputsAreNotSpecialized() {
+        Map<String, Type> types = Collections.singletonMap( "x", BuiltInType.NUMBER );
+        ASTOptimizer optimizer = new ASTOptimizer( types.keySet(), types );
+        BaseNode node = optimizer.optimize( parse( "for x in [ \"a\", \"b\" ] return x + 1", Collections.singletonMap( "x", null ) ) );
+
+        assertThat( ((ForExpressionNode) node).getExpression(), is( not( instanceOf( NumericInfixOpNode.class ) ) ) );
+        assertThat( optimizer.getSpecializedNodes(), is( 0 ) );
+    }
+
+    @Test
+    public void testCompositeFieldAccessIsSpecialized() {
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        CompilerContext ctx = feel.newCompilerContext();
+        ctx.addInputVariableType( "applicant", new MapBackedType().addField( "age", BuiltInType.NUMBER ) );
+        CompiledExpressionImpl expr = (CompiledExpressionImpl) feel.compile( "applicant.age + 1", ctx );
+
+        assertThat( expr.getExpression(), is( instanceOf( NumericInfixOpNode.class ) ) );
+        assertThat( ((InfixOpNode) expr.getExpression()).getLeft(), is( instanceOf( CompositeFieldAccessNode.class ) ) );
+
+        Map<String, Object> applicant = Collections.singletonMap( "age", new BigDecimal( 30 ) );
+        assertThat( feel.evaluate( expr, Collections.singletonMap( "applicant", applicant ) ), is( new BigDecimal( 31 ) ) );
+    }
+
+    @Test
+    public void testBuiltInFunctionsAreBound() {
+        Map<String, Object> inputs = Collections.singletonMap( "amounts", null );
+        ASTOptimizer optimizer = new ASTOptimizer( inputs.keySet() );
+        BaseNode node = optimizer.optimize( parse( "sum( amounts )", inputs ) );
+
+        assertThat( node, is( instanceOf( FunctionInvocationNode.class ) ) );
+        assertThat( ((FunctionInvocationNode) node).getBoundFunction(), is( instanceOf( SumFunction.class ) ) );
+
+        Map<String, Object> values = Collections.singletonMap( "amounts", Arrays.asList( 1, 2, 3 ) );
+        assertThat( FEEL.newInstance().evaluate( "sum( amounts )", values ), is( BigDecimal.valueOf( 6 ) ) );
+    }
+
+    @Test
+    public void testShadowedFunctionsAreNotBound() {
+        Map<String, Object> inputs = Collections.singletonMap( "sum", null );
+        ASTOptimizer optimizer = new ASTOptimizer( inputs.keySet() );
+        BaseNode node = optimizer.optimize( parse( "sum( 1, 2 )", inputs ) );
+
+        assertThat( node, is( instanceOf( FunctionInvocationNode.class ) ) );
+        assertThat( ((FunctionInvocationNode) node).getBoundFunction(), is( nullValue() ) );
+    }
+
+    @Test
+    public void testBuiltInFunctionsShadowedOnEvaluation() {
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        CompilerContext ctx = feel.newCompilerContext();
+        ctx.addInputVariableType( "x", BuiltInType.NUMBER );
+        CompiledExpressionImpl bound = (CompiledExpressionImpl) feel.compile( "floor( x )", ctx );
+        CompiledExpressionImpl folded = (CompiledExpressionImpl) feel.compile( "floor( 1.5 )", feel.newCompilerContext() );
+
+        assertThat( ((FunctionInvocationNode) bound.getExpression()).getBoundFunction(), is( instanceOf( FloorFunction.class ) ) );
+        assertThat( folded.getExpression(), is( instanceOf( ConstantNode.class ) ) );
+
+        // a variable only given on evaluation hides the built-in function
+        UnaryTest floor = (c, value) -> Boolean.TRUE;
+        Map<String, Object> shadowing = new HashMap<>();
+        shadowing.put( "x", new BigDecimal( "1.5" ) );
+        shadowing.put( "floor", floor );
+        assertThat( feel.evaluate( bound, shadowing ), is( Boolean.TRUE ) );
+        assertThat( feel.evaluate( folded, shadowing ), is( Boolean.TRUE ) );
+
+        assertThat( feel.evaluate( bound, Collections.singletonMap( "x", new BigDecimal( "1.5" ) ) ), is( BigDecimal.ONE ) );
+        assertThat( feel.evaluate( folded, Collections.emptyMap() ), is( BigDecimal.ONE ) );
+    }
+
+    private BaseNode parse(String input) {
+        return parse( input, Collections.emptyMap() );
+    }
+
+    private BaseNode parse(String input, Map<String, Object> inputVariables) {
+        FEEL_1_1Parser parser = FEELParser.parse( null, input, Collections.emptyMap(), inputVariables );
+        ParseTree tree = parser.expression();
+        ASTBuilderVisitor v = new ASTBuilderVisitor();
+        return v.visit( tree );
+    }
+}
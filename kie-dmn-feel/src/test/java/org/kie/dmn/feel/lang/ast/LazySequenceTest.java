@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.ast;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.runtime.events.FEELEvent;
+import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
+
+public class LazySequenceTest {
+
+    @Test
+    public void testFailingFilterIsReportedAsWhenEager() {
+        String expression = "count( orders[ amount > 10 ] )";
+        List<FEELEvent> eagerEvents = new ArrayList<>();
+        List<FEELEvent> lazyEvents = new ArrayList<>();
+
+        assertThat( newInstance( false, eagerEvents ).evaluate( expression, failingInputs() ), is( nullValue() ) );
+        assertThat( newInstance( true, lazyEvents ).evaluate( expression, failingInputs() ), is( nullValue() ) );
+
+        assertThat( describe( lazyEvents ), is( describe( eagerEvents ) ) );
+        assertThat( filterErrors( lazyEvents ), is( 1L ) );
+    }
+
+    @Test
+    public void testTruncatedListIsNotReportedToTheFunction() {
+        // the failing order comes first, so the functions would see an empty list
+        Map<String, Object> inputs = Collections.singletonMap( "orders", Arrays.asList( failingOrder(), order( 20 ) ) );
+        for ( String expression : Arrays.asList( "min( orders[ amount > 10 ] )", "max( orders[ amount > 10 ] )", "mean( orders[ amount > 10 ] )" ) ) {
+            List<FEELEvent> eagerEvents = new ArrayList<>();
+            List<FEELEvent> lazyEvents = new ArrayList<>();
+
+            assertThat( expression, newInstance( false, eagerEvents ).evaluate( expression, inputs ), is( nullValue() ) );
+            assertThat( expression, newInstance( true, lazyEvents ).evaluate( expression, inputs ), is( nullValue() ) );
+
+            assertThat( expression, describe( lazyEvents ), is( describe( eagerEvents ) ) );
+        }
+    }
+
+    @Test
+    public void testEventsOfTheFunctionAreReportedWhenNotFailing() {
+        Map<String, Object> inputs = Collections.singletonMap( "orders", Arrays.asList( order( 5 ), order( 8 ) ) );
+        String expression = "mean( orders[ amount > 10 ] )";
+        List<FEELEvent> eagerEvents = new ArrayList<>();
+        List<FEELEvent> lazyEvents = new ArrayList<>();
+
+        assertThat( newInstance( false, eagerEvents ).evaluate( expression, inputs ), is( nullValue() ) );
+        assertThat( newInstance( true, lazyEvents ).evaluate( expression, inputs ), is( nullValue() ) );
+
+        assertThat( describe( lazyEvents ), is( describe( eagerEvents ) ) );
+        assertThat( lazyEvents.isEmpty(), is( false ) );
+    }
+
+    @Test
+    public void testFailingNestedFilterEndsWithNull() {
+        List<FEELEvent> events = new ArrayList<>();
+
+        assertThat( newInstance( true, events ).evaluate( "count( for o in orders[ amount > 10 ] return o )", failingInputs() ), is( nullValue() ) );
+        assertThat( filterErrors( events ), is( 1L ) );
+    }
+
+    @Test
+    public void testNotFailingFilterIsNotReported() {
+        Map<String, Object> inputs = Collections.singletonMap( "orders", Arrays.asList( order( 5 ), order( 20 ), order( 30 ) ) );
+        List<FEELEvent> events = new ArrayList<>();
+        FEEL feel = newInstance( true, events );
+
+        assertThat( feel.evaluate( "count( orders[ amount > 10 ] )", inputs ), is( BigDecimal.valueOf( 2 ) ) );
+        assertThat( events.isEmpty(), is( true ) );
+    }
+
+    private static Map<String, Object> failingInputs() {
+        return Collections.singletonMap( "orders", Arrays.asList( order( 20 ), failingOrder(), order( 30 ) ) );
+    }
+
+    private static long filterErrors(List<FEELEvent> events) {
+        return events.stream().filter( e -> e.getSeverity() == Severity.ERROR && e.getSourceException() instanceof IllegalStateException ).count();
+    }
+
+    private static FEEL newInstance(boolean lazy, List<FEELEvent> events) {
+        // lists are only passed lazily to the functions bound by the optimizer
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        feel.setConstantFolding( lazy );
+        feel.addListener( events::add );
+        return feel;
+    }
+
+    private static List<String> describe(List<FEELEvent> events) {
+        return events.stream().map( e -> e.getSeverity() + " " + e.getMessage() ).collect( Collectors.toList() );
+    }
+
+    private static Map<String, Object> order(int amount) {
+        Map<String, Object> order = new HashMap<>();
+        order.put( "amount", BigDecimal.valueOf( amount ) );
+        return order;
+    }
+
+    private static Map<String, Object> failingOrder() {
+        return new HashMap<String, Object>() {
+            @Override
+            public Object get(Object key) {
+                throw new IllegalStateException( "amount not available" );
+            }
+        };
+    }
+}
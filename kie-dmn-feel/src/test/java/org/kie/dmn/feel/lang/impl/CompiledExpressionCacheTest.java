@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.lang.impl;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.ast.InfixOpNode;
+
+public class CompiledExpressionCacheTest {
+
+    private FEELImpl                feel;
+    private CompiledExpressionCache cache;
+
+    @Before
+    public void setup() {
+        feel = (FEELImpl) FEEL.newInstance();
+        cache = new CompiledExpressionCache( 2 );
+        feel.setExpressionCache( cache );
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        assertThat( feel.evaluate( "1 + 2" ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( feel.evaluate( "1 + 2" ), is( BigDecimal.valueOf( 3 ) ) );
+
+        assertThat( cache.getMisses(), is( 1L ) );
+        assertThat( cache.getHits(), is( 1L ) );
+        assertThat( cache.size(), is( 1 ) );
+    }
+
+    @Test
+    public void testKeyedByInputVariableNames() {
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put( "monthly salary", 1000 );
+        assertThat( feel.evaluate( "monthly salary * 12", inputs ), is( BigDecimal.valueOf( 12000 ) ) );
+
+        inputs.put( "monthly salary", 2000 );
+        assertThat( feel.evaluate( "monthly salary * 12", inputs ), is( BigDecimal.valueOf( 24000 ) ) );
+        assertThat( cache.getHits(), is( 1L ) );
+
+        // without the variable, the name is tokenized differently, so it must not hit
+        feel.evaluate( "monthly salary * 12" );
+        assertThat( cache.getMisses(), is( 2L ) );
+    }
+
+    @Test
+    public void testKeyedByNumericMode() {
+        assertThat( feel.evaluate( "1 / 3" ), is( new BigDecimal( "0.3333333333333333333333333333333333" ) ) );
+
+        feel.setNumericMode( NumericMode.DOUBLE );
+        assertThat( feel.evaluate( "1 / 3" ), is( new BigDecimal( "0.3333333333333333" ) ) );
+        assertThat( cache.getMisses(), is( 2L ) );
+    }
+
+    @Test
+    public void testKeyedByCompilerSettings() {
+        CompiledExpressionCache shared = new CompiledExpressionCache( 10 );
+        FEELImpl interpreted = newInstance( shared, false, true );
+        FEELImpl compiled = newInstance( shared, true, true );
+        FEELImpl unfolded = newInstance( shared, false, false );
+
+        assertThat( interpreted.evaluate( "1 + 2" ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( compiled.evaluate( "1 + 2" ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( unfolded.evaluate( "1 + 2" ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( shared.getMisses(), is( 3L ) );
+        assertThat( shared.size(), is( 3 ) );
+
+        // the instance that does not fold gets the expression it compiled itself
+        CompiledExpression expr = shared.get( CompiledExpressionCache.newKey( "1 + 2", unfolded.newCompilerContext(), false, false ) );
+        assertThat( ((CompiledExpressionImpl) expr).getExpression(), is( instanceOf( InfixOpNode.class ) ) );
+    }
+
+    private static FEELImpl newInstance(CompiledExpressionCache cache, boolean compiledBackend, boolean constantFolding) {
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        feel.setExpressionCache( cache );
+        feel.setCompiledBackend( compiledBackend );
+        feel.setConstantFolding( constantFolding );
+        return feel;
+    }
+
+    @Test
+    public void testEviction() {
+        feel.evaluate( "1" );
+        feel.evaluate( "2" );
+        feel.evaluate( "1" );
+        feel.evaluate( "3" );
+
+        assertThat( cache.size(), is( 2 ) );
+        assertThat( cache.getEvictions(), is( 1L ) );
+
+        // "2" was the least recently used entry
+        feel.evaluate( "1" );
+        assertThat( cache.getHits(), is( 2L ) );
+        feel.evaluate( "2" );
+        assertThat( cache.getMisses(), is( 4L ) );
+    }
+
+    @Test
+    public void testSyntaxErrorsAreNotCached() {
+        int[] errors = new int[1];
+        feel.addListener( evt -> errors[0]++ );
+
+        feel.evaluate( "10 + / 5" );
+        feel.evaluate( "10 + / 5" );
+
+        assertThat( cache.size(), is( 0 ) );
+        assertThat( errors[0] >= 2, is( true ) );
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.lang.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.dmn.feel.lang.NumericMode;
+
+public class ItemExecutionFrameTest {
+
+    private ExecutionFrame      parent;
+    private Map<String, Object> element;
+
+    @Before
+    public void setup() {
+        parent = new ExecutionFrame( null );
+        parent.setValue( "x", "outer x" );
+        parent.setValue( "limit", 10 );
+        element = new HashMap<>();
+        element.put( "x", 1 );
+        element.put( "first  name", "Bob" );
+    }
+
+    @Test
+    public void testResolvesEntriesAndItem() {
+        ExecutionFrame frame = new ItemExecutionFrame( parent, element, null, NumericMode.DECIMAL );
+
+        assertThat( frame.getValue( "x" ), is( BigDecimal.valueOf( 1 ) ) );
+        assertThat( frame.getValue( "first name" ), is( "Bob" ) );
+        assertThat( frame.getValue( "item" ), is( element ) );
+        assertThat( frame.getValue( "limit" ), is( 10 ) );
+        assertThat( frame.isDefined( "x" ), is( true ) );
+        assertThat( frame.isDefined( "y" ), is( false ) );
+    }
+
+    @Test
+    public void testOnlyReferencedNamesAreResolvedAgainstTheElement() {
+        ExecutionFrame frame = new ItemExecutionFrame( parent, element, Collections.singleton( "first name" ), NumericMode.DECIMAL );
+
+        assertThat( frame.getValue( "first name" ), is( "Bob" ) );
+        assertThat( frame.getValue( "x" ), is( "outer x" ) );
+    }
+
+    @Test
+    public void testEntriesShadowItemAndVariablesShadowEntries() {
+        element.put( "item", "entry" );
+        ExecutionFrame frame = new ItemExecutionFrame( parent, element, null, NumericMode.DECIMAL );
+        assertThat( frame.getValue( "item" ), is( "entry" ) );
+
+        frame.setValue( "x", 2 );
+        assertThat( frame.getValue( "x" ), is( 2 ) );
+    }
+
+    @Test
+    public void testNonContextItem() {
+        ExecutionFrame frame = new ItemExecutionFrame( parent, 5, null, NumericMode.DECIMAL );
+
+        assertThat( frame.getValue( "item" ), is( BigDecimal.valueOf( 5 ) ) );
+        assertThat( frame.getValue( "x" ), is( "outer x" ) );
+        assertThat( frame.getValue( "y" ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testAllValuesIncludeEntries() {
+        Map<String, Object> values = new ItemExecutionFrame( parent, element, Collections.emptySet(), NumericMode.DECIMAL ).getAllValues();
+
+        assertThat( values.get( "x" ), is( BigDecimal.valueOf( 1 ) ) );
+        assertThat( values.get( "first name" ), is( "Bob" ) );
+        assertThat( values.get( "item" ), is( element ) );
+    }
+}
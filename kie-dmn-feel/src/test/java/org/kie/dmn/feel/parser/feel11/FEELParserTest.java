@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.kie.dmn.feel.lang.ast.*;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -1120,6 +1121,29 @@ public class FEELParserTest {
         assertThat( pathExpr.getName().getText(), is( "first name" ) );
     }
 
+    @Test
+    public void testMultiWordNamesWithSharedTokenTrees() {
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put( "monthly salary", null );
+        inputs.put( "monthly bonus", null );
+
+        // parsing twice with the same variables reuses the token tree built the first time
+        for( int i = 0; i < 2; i++ ) {
+            BaseNode infix = parse( "monthly salary + monthly bonus", inputs );
+            assertThat( infix, is( instanceOf( InfixOpNode.class ) ) );
+            assertThat( ((InfixOpNode) infix).getLeft().getText(), is( "monthly salary" ) );
+            assertThat( ((InfixOpNode) infix).getRight().getText(), is( "monthly bonus" ) );
+        }
+
+        // names defined later in the expression must not leak into the shared trees
+        BaseNode path = parse( "{ yearly salary : monthly salary * 12 }.yearly salary", inputs );
+        assertThat( path, is( instanceOf( PathExpressionNode.class ) ) );
+        assertThat( ((PathExpressionNode) path).getName().getText(), is( "yearly salary" ) );
+
+        BaseNode again = parse( "monthly salary + monthly bonus", inputs );
+        assertThat( again, is( instanceOf( InfixOpNode.class ) ) );
+    }
+
     private void assertLocation(String inputExpression, BaseNode number) {
         assertThat( number.getText(), is( inputExpression ) );
         assertThat( number.getStartChar(), is( 0 ) );
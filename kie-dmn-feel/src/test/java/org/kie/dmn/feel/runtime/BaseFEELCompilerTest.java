@@ -23,6 +23,7 @@ import org.kie.dmn.feel.FEEL;
 import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.lang.CompilerContext;
 import org.kie.dmn.feel.lang.Type;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
 
 import java.util.Map;
 
@@ -33,6 +34,7 @@ import static org.junit.Assert.assertThat;
 public abstract class BaseFEELCompilerTest {
 
     private final FEEL feel = FEEL.newInstance();
+    private final FEEL compiledFeel = newCompiledInstance();
 
     @Parameterized.Parameter(0)
     public String expression;
@@ -51,7 +53,23 @@ public abstract class BaseFEELCompilerTest {
         assertResult( expression, inputTypes, inputValues, result );
     }
 
+    @Test
+    public void testExpressionWithCompiledBackend() {
+        // the compiled backend must give the same results as the interpreter
+        assertResult( compiledFeel, expression, inputTypes, inputValues, result );
+    }
+
+    private static FEEL newCompiledInstance() {
+        FEELImpl compiled = (FEELImpl) FEEL.newInstance();
+        compiled.setCompiledBackend( true );
+        return compiled;
+    }
+
     protected void assertResult(String expression, Map<String, Type> inputTypes, Map<String, Object> inputValues, Object result) {
+        assertResult( feel, expression, inputTypes, inputValues, result );
+    }
+
+    private void assertResult(FEEL feel, String expression, Map<String, Type> inputTypes, Map<String, Object> inputValues, Object result) {
         CompilerContext ctx = feel.newCompilerContext();
         inputTypes.forEach( (name, type) -> ctx.addInputVariableType( name, type ) );
         CompiledExpression compiledExpression = feel.compile( expression, ctx );
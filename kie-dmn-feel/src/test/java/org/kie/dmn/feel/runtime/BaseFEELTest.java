@@ -25,12 +25,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
 import org.kie.dmn.feel.runtime.events.FEELEvent.Severity;
 
 @RunWith(Parameterized.class)
 public abstract class BaseFEELTest {
 
     private final FEEL feel = FEEL.newInstance();
+    private final FEEL compiledFeel = newCompiledInstance();
 
     @Parameterized.Parameter(0)
     public String expression;
@@ -44,7 +46,23 @@ public abstract class BaseFEELTest {
         assertResult( expression, result );
     }
 
+    @Test
+    public void testExpressionWithCompiledBackend() {
+        // the compiled backend must give the same results as the interpreter
+        assertResult( compiledFeel, expression, result );
+    }
+
+    private static FEEL newCompiledInstance() {
+        FEELImpl compiled = (FEELImpl) FEEL.newInstance();
+        compiled.setCompiledBackend( true );
+        return compiled;
+    }
+
     protected void assertResult( String expression, Object result ) {
+        assertResult( feel, expression, result );
+    }
+
+    private void assertResult( FEEL feel, String expression, Object result ) {
         if( result == null ) {
             assertThat( "Evaluating: '" + expression + "'", feel.evaluate( expression ), is( nullValue() ) );
         } else if( result instanceof Class<?> ) {
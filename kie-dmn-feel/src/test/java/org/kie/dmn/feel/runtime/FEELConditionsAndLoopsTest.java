@@ -35,7 +35,20 @@ public class FEELConditionsAndLoopsTest extends BaseFEELTest {
 
                 // for
                 {"for x in [ 10, 20, 30 ], y in [ 1, 2, 3 ] return x * y",
-                        Arrays.asList( 10, 20, 30, 20, 40, 60, 30, 60, 90 ).stream().map( x -> BigDecimal.valueOf( x ) ).collect( Collectors.toList() ) }
+                        Arrays.asList( 10, 20, 30, 20, 40, 60, 30, 60, 90 ).stream().map( x -> BigDecimal.valueOf( x ) ).collect( Collectors.toList() ) },
+
+                // iterations consumed as they are produced
+                { "sum( for x in [ 1, 2, 3 ] return x * 2 )", BigDecimal.valueOf( 12 ) },
+                { "count( [ 1, 2, 3, 4 ][ item > 2 ] )", BigDecimal.valueOf( 2 ) },
+                { "max( for x in [ 1, 2, 3 ][ item < 3 ] return x * 10 )", BigDecimal.valueOf( 20 ) },
+                { "for x in ( for x in [ 1, 2 ] return x + 1 ) return x * 10", Arrays.asList( BigDecimal.valueOf( 20 ), BigDecimal.valueOf( 30 ) ) },
+                { "for x in ( for y in [ 1, 2 ] return y ), y in [ 10, 20 ] return x + y",
+                        Arrays.asList( 11, 21, 12, 22 ).stream().map( x -> BigDecimal.valueOf( x ) ).collect( Collectors.toList() ) },
+                { "(for x in [ 10, 20, 30 ] return x + 1)[ 2 ]", BigDecimal.valueOf( 21 ) },
+                { "(for x in [ 10, 20, 30 ] return x + 1)[ -1 ]", BigDecimal.valueOf( 31 ) },
+                { "(for x in [ 10, 20, 30 ] return x + 1)[ 4 ]", null },
+                { "some x in ( for y in [ 1, 2, 3 ] return y * 2 ) satisfies x > 5", Boolean.TRUE },
+                { "every x in [ 1, 2, 3 ][ item > 1 ] satisfies x > 1", Boolean.TRUE }
 
         };
         return Arrays.asList( cases );
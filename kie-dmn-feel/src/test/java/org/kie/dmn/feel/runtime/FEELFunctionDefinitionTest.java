@@ -30,7 +30,13 @@ public class FEELFunctionDefinitionTest extends BaseFEELTest {
                 {"{ hello world : function() \"Hello World!\", message : hello world() }.message", "Hello World!" },
                 {"{ is minor : function( person's age ) person's age < 18, bob is minor : is minor( 16 ) }.bob is minor", Boolean.TRUE },
                 {"{ maximum : function( v1, v2 ) external { java : { class : \"java.lang.Math\", method signature: \"max(long,long)\" } }, the max : maximum( 10, 20 ) }.the max",
-                        BigDecimal.valueOf( 20 ) }
+                        BigDecimal.valueOf( 20 ) },
+                {"{ maximum : function( v1, v2 ) external { java : { class : \"java.lang.Math\", method signature: \"max(long,long)\" } }, maxes : [ maximum( 10, 20 ), maximum( 30, 5 ) ] }.maxes",
+                        Arrays.asList( BigDecimal.valueOf( 20 ), BigDecimal.valueOf( 30 ) ) },
+                {"{ power : function( b, e ) external { java : { class : \"java.lang.Math\", method signature: \"pow(double, double)\" } }, result : power( 2, 10 ) }.result",
+                        new BigDecimal( "1024.0" ) },
+                {"{ maximum : function( v1, v2 ) external { java : { class : \"java.lang.Math\", method signature: \"max(long,long)\" } }, the max : maximum( null, 20 ) }.the max",
+                        null }
         };
         return Arrays.asList( cases );
     }
@@ -68,6 +68,14 @@ public class FEELFunctionsTest extends BaseFEELTest {
                 { "replace(\"banana\",\"a\",\"o\")", "bonono" },
                 { "replace(\"banana\",\"(an)+\", \"**\")", "b**a" },
                 { "replace(\"banana\",\"[aeiouy]\",\"[$0]\")", "b[a]n[a]n[a]" },
+                { "replace(\"BaNana\",\"n\",\"m\", \"i\")", "Bamama" },
+                // literal patterns over variable inputs are compiled along with the expression
+                { "{ s : \"FoO\", r : matches( s, \"foo\", \"i\" ) }.r", Boolean.TRUE },
+                { "{ s : \"FoO\", r : matches( s, \"foo\" ) }.r", Boolean.FALSE },
+                { "{ s : \"banana\", r : replace( s, \"(an)+\", \"**\" ) }.r", "b**a" },
+                { "{ s : \"BaNana\", r : replace( s, \"n\", \"m\", \"i\" ) }.r", "Bamama" },
+                { "{ s : \"foo\", r : matches( s, \"[a-z\" ) }.r", null },
+                { "{ s : \"foo\", p : \"[a-z]{3}\", r : matches( s, p ) }.r", Boolean.TRUE },
                 { "list contains([1, 2, 3], 2)", Boolean.TRUE },
                 { "list contains([1, 2, 3], 5)", Boolean.FALSE },
                 { "count([1, 2, 3])", BigDecimal.valueOf( 3 ) },
@@ -64,6 +64,10 @@ public class FEELListsTest extends BaseFEELTest {
                     }
                 } ) },
                 {"[ {x:1, y:2}, {x:2, y:3} ][x = 0]", Collections.emptyList() },
+                {"{ y : 10, r : count( [ {x:1, y:2}, {x:2} ][y = 10] ) }.r", BigDecimal.valueOf( 1 ) },
+                {"count( [ {item:5}, {x:5} ][item = 5] )", BigDecimal.valueOf( 1 ) },
+                {"count( [ {a:{b:1}}, {a:{b:2}} ][a.b > 1] )", BigDecimal.valueOf( 1 ) },
+                {"count( [ {x:1}, {x:2}, {x:3} ][some y in [2, 3] satisfies y = x] )", BigDecimal.valueOf( 2 ) },
 
                 // Selection
                 {"[ {x:1, y:2}, {x:2, y:3} ].y", Arrays.asList( BigDecimal.valueOf( 2 ), BigDecimal.valueOf( 3 ) ) },
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+
+/**
+ * Documents where the results of {@link NumericMode#DOUBLE} differ
+ * from the default decimal arithmetic.
+ */
+public class FEELNumericModeTest {
+
+    private final FEEL decimal = FEEL.newInstance();
+    private final FEEL doubles = newDoubleInstance( false );
+    private final FEEL compiledDoubles = newDoubleInstance( true );
+
+    private static FEEL newDoubleInstance(boolean compiledBackend) {
+        FEELImpl feel = (FEELImpl) FEEL.newInstance();
+        feel.setNumericMode( NumericMode.DOUBLE );
+        feel.setCompiledBackend( compiledBackend );
+        return feel;
+    }
+
+    @Test
+    public void testDecimalFractionsAreApproximated() {
+        assertThat( decimal.evaluate( "0.1 + 0.2" ), is( new BigDecimal( "0.3" ) ) );
+        assertDoubleResult( "0.1 + 0.2", new BigDecimal( "0.30000000000000004" ) );
+
+        assertThat( decimal.evaluate( "0.1 + 0.2 = 0.3" ), is( true ) );
+        assertDoubleResult( "0.1 + 0.2 = 0.3", false );
+    }
+
+    @Test
+    public void testDivisionHasDoublePrecision() {
+        assertThat( decimal.evaluate( "1 / 3" ), is( new BigDecimal( "0.3333333333333333333333333333333333" ) ) );
+        assertDoubleResult( "1 / 3", new BigDecimal( "0.3333333333333333" ) );
+    }
+
+    @Test
+    public void testLargeIntegersLosePrecision() {
+        // integers are only exact up to 2^53
+        assertThat( decimal.evaluate( "2 ** 53 + 1" ), is( new BigDecimal( "9007199254740993" ) ) );
+        assertThat( (BigDecimal) doubles.evaluate( "2 ** 53 + 1" ), comparesEqualTo( new BigDecimal( "9007199254740992" ) ) );
+    }
+
+    @Test
+    public void testDivisionByZeroIsNull() {
+        assertThat( decimal.evaluate( "10 / 0" ), is( nullValue() ) );
+        assertDoubleResult( "10 / 0", null );
+    }
+
+    @Test
+    public void testBuiltInsWithDecimalParameters() {
+        assertDoubleResult( "substring( \"foobar\", 1 + 2, 2 )", "ob" );
+        assertDoubleResult( "sublist( [ 1, 2, 3 ], 2 )", Arrays.asList( new BigDecimal( "2" ), new BigDecimal( "3" ) ) );
+        assertDoubleResult( "decimal( 1 / 3, 2 )", new BigDecimal( "0.33" ) );
+    }
+
+    @Test
+    public void testAggregates() {
+        assertThat( decimal.evaluate( "sum( [ 0.1, 0.2, 0.3 ] )" ), is( new BigDecimal( "0.6" ) ) );
+        assertDoubleResult( "sum( [ 0.1, 0.2, 0.3 ] )", new BigDecimal( "0.6000000000000001" ) );
+        assertDoubleResult( "sum( 0.1, 0.2, 0.3 )", new BigDecimal( "0.6000000000000001" ) );
+
+        assertThat( decimal.evaluate( "mean( 1, 2, 4 )" ), is( new BigDecimal( "2.333333333333333333333333333333333" ) ) );
+        assertDoubleResult( "mean( 1, 2, 4 )", new BigDecimal( "2.3333333333333335" ) );
+    }
+
+    @Test
+    public void testResultsAreDecimals() {
+        Object result = doubles.evaluate( "{ a : 1.5 * 2, b : [ 0.5, -1 ] }" );
+        Map<String, Object> context = (Map<String, Object>) result;
+        assertThat( context.get( "a" ), is( new BigDecimal( "3" ) ) );
+        List<Object> list = (List<Object>) context.get( "b" );
+        assertThat( list.get( 0 ), is( instanceOf( BigDecimal.class ) ) );
+        assertThat( list.get( 1 ), is( instanceOf( BigDecimal.class ) ) );
+    }
+
+    @Test
+    public void testIntegralResultsEqualDecimalOnes() {
+        // so that they match the numbers of decision table cells
+        assertThat( doubles.evaluate( "25 + 1" ), is( decimal.evaluate( "25 + 1" ) ) );
+        assertThat( doubles.evaluate( "10" ), is( new BigDecimal( "10" ) ) );
+        assertThat( doubles.evaluate( "1.5 * 3" ), is( new BigDecimal( "4.5" ) ) );
+    }
+
+    @Test
+    public void testComparisonsWithDecimalValues() {
+        // values read from the input data stay decimals, and are compared by value
+        Map<String, Object> loan = new HashMap<>();
+        loan.put( "rate", new BigDecimal( "0.0375" ) );
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put( "loan", loan );
+
+        assertThat( doubles.evaluate( "loan.rate > 0.03", inputs ), is( true ) );
+        assertThat( doubles.evaluate( "loan.rate = 0.0375", inputs ), is( true ) );
+        assertThat( doubles.evaluate( "loan.rate between 0 and 0.05", inputs ), is( true ) );
+        assertThat( doubles.evaluate( "loan.rate in [ 0 .. 0.05 ]", inputs ), is( true ) );
+        assertThat( doubles.evaluate( "loan.rate in ( > 0.05 )", inputs ), is( false ) );
+        assertThat( doubles.evaluate( "loan.rate in [ 0.01, 0.0375 ]", inputs ), is( true ) );
+    }
+
+    @Test
+    public void testLoanPayment() {
+        // the expression of the 0008-LX-arithmetic model
+        String payment = "(loan.principal*loan.rate/12)/(1-(1+loan.rate/12)**-loan.termMonths)";
+        Map<String, Object> loan = new HashMap<>();
+        loan.put( "principal", 600000 );
+        loan.put( "rate", 0.0375 );
+        loan.put( "termMonths", 360 );
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put( "loan", loan );
+
+        BigDecimal exact = (BigDecimal) decimal.evaluate( payment, inputs );
+        BigDecimal approximated = (BigDecimal) doubles.evaluate( payment, inputs );
+        assertThat( approximated.doubleValue(), is( closeTo( exact.doubleValue(), 1e-9 ) ) );
+    }
+
+    private void assertDoubleResult(String expression, Object expected) {
+        assertThat( "Evaluating: '" + expression + "'", doubles.evaluate( expression ), is( expected ) );
+        assertThat( "Evaluating: '" + expression + "'", compiledDoubles.evaluate( expression ), is( expected ) );
+    }
+}
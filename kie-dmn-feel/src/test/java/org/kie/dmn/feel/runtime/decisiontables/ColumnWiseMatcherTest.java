@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.entry;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.matchingRules;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.rule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode.UnaryOperator;
+import org.kie.dmn.feel.runtime.UnaryTest;
+
+public class ColumnWiseMatcherTest {
+
+    private int tested;
+
+    @Test
+    public void testSharedEntriesAreTestedOnce() {
+        UnaryTest even = counting( (c, x) -> ((BigDecimal) x).intValue() % 2 == 0 );
+        UnaryTest odd = counting( (c, x) -> ((BigDecimal) x).intValue() % 2 != 0 );
+        List<DTDecisionRule> rules = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ ) {
+            rules.add( rule( i, i % 2 == 0 ? even : odd ) );
+        }
+        ColumnWiseMatcher matcher = ColumnWiseMatcher.build( 1, rules, null );
+
+        assertThat( matcher.getDistinctEntries( 0 ), is( 2 ) );
+        BitSet matched = matcher.match( null, new Object[]{ BigDecimal.valueOf( 4 ) } );
+        assertThat( matched.cardinality(), is( 50 ) );
+        assertThat( matched.get( 0 ), is( true ) );
+        assertThat( matched.get( 1 ), is( false ) );
+        assertThat( tested, is( 2 ) );
+    }
+
+    @Test
+    public void testSameMatchesAsRuleByRule() {
+        DTInputEntry gold = entry( new DTInputEntry.EqualsConstant( "GOLD" ) );
+        DTInputEntry silver = entry( new DTInputEntry.EqualsConstant( "SILVER" ) );
+        DTInputEntry young = entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LT, BigDecimal.valueOf( 25 ) ) );
+        DTInputEntry old = entry( new UnaryTestNode.ConstantComparison( UnaryOperator.GTE, BigDecimal.valueOf( 25 ) ) );
+        UnaryTest notNull = (c, x) -> x != null;
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, gold, young, notNull ),
+                rule( 1, gold, old, DTInputEntry.ANY ),
+                rule( 2, silver, DTInputEntry.ANY, notNull ),
+                rule( 3, DTInputEntry.ANY, young, DTInputEntry.ANY ),
+                rule( 4, silver, old, notNull ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 3, rules );
+        ColumnWiseMatcher indexed = ColumnWiseMatcher.build( 3, rules, index );
+        ColumnWiseMatcher plain = ColumnWiseMatcher.build( 3, rules, null );
+
+        for ( Object level : Arrays.asList( "GOLD", "SILVER", "BRONZE", null ) ) {
+            for ( Object age : Arrays.asList( BigDecimal.valueOf( 20 ), BigDecimal.valueOf( 25 ), BigDecimal.valueOf( 30 ) ) ) {
+                for ( Object other : Arrays.asList( "x", null ) ) {
+                    Object[] params = { level, age, other };
+                    BitSet expected = matchingRules( rules, params );
+                    assertThat( Arrays.toString( params ), indexed.match( null, params ), is( expected ) );
+                    assertThat( Arrays.toString( params ), plain.match( null, params ), is( expected ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRulesMissingEntries() {
+        List<DTDecisionRule> rules = Arrays.asList( rule( 0, DTInputEntry.ANY ), rule( 1 ) );
+
+        assertThat( ColumnWiseMatcher.build( 1, rules, null ), is( nullValue() ) );
+    }
+
+    private UnaryTest counting(UnaryTest test) {
+        return (c, x) -> {
+            tested++;
+            return test.apply( c, x );
+        };
+    }
+}
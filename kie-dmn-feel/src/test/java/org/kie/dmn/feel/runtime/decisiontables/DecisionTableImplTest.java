@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.NumericMode;
+import org.kie.dmn.feel.lang.ast.BaseNode;
+import org.kie.dmn.feel.lang.ast.ConstantNode;
+import org.kie.dmn.feel.lang.impl.CompiledExpressionImpl;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.runtime.events.DecisionTableRulesMatchedEvent;
+import org.kie.dmn.feel.runtime.events.FEELEvent;
+import org.kie.dmn.feel.runtime.events.HitPolicyViolationEvent;
+import org.kie.dmn.feel.runtime.functions.DTInvokerFunction;
+import org.kie.dmn.feel.runtime.functions.FEELFnResult;
+
+public class DecisionTableImplTest {
+
+    private static final List<String> PRIORITIES = Arrays.asList( "HIGH", "MEDIUM", "LOW" );
+
+    private final List<Integer>   tested    = new ArrayList<>();
+    private final List<Integer>   evaluated = new ArrayList<>();
+    private final List<FEELEvent> events    = new ArrayList<>();
+
+    @Test
+    public void testFirstStopsAtFirstMatch() {
+        DecisionTableImpl dt = table( HitPolicy.FIRST, Collections.emptyList(), false, "-", "b", "c" );
+
+        assertThat( evaluate( dt, false ), is( "b" ) );
+        assertThat( tested, is( Arrays.asList( 0, 1 ) ) );
+        assertThat( evaluated, is( Collections.singletonList( 1 ) ) );
+    }
+
+    @Test
+    public void testUniqueReportsEveryOverlappingRule() {
+        DecisionTableImpl dt = table( HitPolicy.UNIQUE, Collections.emptyList(), false, "-", "b", "c", "d" );
+
+        // as the DMN runtime invokes it when it has no listeners of its own
+        FEELFnResult<Object> result = new DTInvokerFunction( dt ).invokeReportingMatches( context( true ), new Object[]{ BigDecimal.ONE }, false );
+
+        assertThat( result.isLeft(), is( true ) );
+        assertThat( tested, is( Arrays.asList( 0, 1, 2, 3 ) ) );
+        assertThat( evaluated.isEmpty(), is( true ) );
+        List<HitPolicyViolationEvent> violations = events.stream().filter( e -> e instanceof HitPolicyViolationEvent )
+                .map( e -> (HitPolicyViolationEvent) e ).collect( Collectors.toList() );
+        assertThat( violations.size(), is( 1 ) );
+        assertThat( violations.get( 0 ).getOffendingRules(), is( Arrays.asList( 2, 3, 4 ) ) );
+    }
+
+    @Test
+    public void testAllMatchesReportedToListeners() {
+        DecisionTableImpl dt = table( HitPolicy.FIRST, Collections.emptyList(), false, "-", "b", "c" );
+
+        assertThat( evaluate( dt, true ), is( "b" ) );
+        assertThat( tested, is( Arrays.asList( 0, 1, 2 ) ) );
+        assertThat( evaluated, is( Collections.singletonList( 1 ) ) );
+        assertThat( ((DecisionTableRulesMatchedEvent) events.get( 0 )).getMatches(), is( Arrays.asList( 2, 3 ) ) );
+    }
+
+    @Test
+    public void testMatchesNotReportedOnRequest() {
+        DecisionTableImpl dt = table( HitPolicy.FIRST, Collections.emptyList(), false, "-", "b", "c" );
+        EvaluationContextImpl ctx = context( true );
+
+        assertThat( dt.evaluate( ctx, new Object[]{ BigDecimal.ONE }, false ).cata( e -> null, r -> r ), is( "b" ) );
+        assertThat( tested, is( Arrays.asList( 0, 1 ) ) );
+        assertThat( events.stream().anyMatch( e -> e instanceof DecisionTableRulesMatchedEvent ), is( false ) );
+    }
+
+    @Test
+    public void testPriorityEvaluatesOnlyTheWinner() {
+        DecisionTableImpl dt = table( HitPolicy.PRIORITY, PRIORITIES, true, "-", "LOW", "MEDIUM", "LOW", "MEDIUM" );
+        // literals are ranked when the table is built
+        evaluated.clear();
+
+        assertThat( evaluate( dt, false ), is( "MEDIUM" ) );
+        assertThat( evaluated, is( Collections.singletonList( 2 ) ) );
+    }
+
+    @Test
+    public void testPriorityRanksComputedOutputs() {
+        DecisionTableImpl dt = table( HitPolicy.PRIORITY, PRIORITIES, false, "-", "UNLISTED", "LOW", "MEDIUM", "MEDIUM" );
+
+        assertThat( evaluate( dt, false ), is( "MEDIUM" ) );
+        assertThat( evaluated, is( Arrays.asList( 1, 2, 3, 4 ) ) );
+    }
+
+    private Object evaluate(DecisionTableImpl dt, boolean listening) {
+        return dt.evaluate( context( listening ), new Object[]{ BigDecimal.ONE } ).cata( e -> null, r -> r );
+    }
+
+    private EvaluationContextImpl context(boolean listening) {
+        FEELEventListenersManager eventsManager = new FEELEventListenersManager();
+        if ( listening ) {
+            eventsManager.addListener( events::add );
+        }
+        EvaluationContextImpl ctx = new EvaluationContextImpl( eventsManager, NumericMode.DECIMAL );
+        ctx.setValue( "x", BigDecimal.ONE );
+        return ctx;
+    }
+
+    /**
+     * A table with one input and one output, with a rule per given output;
+     * rules with a "-" output do not match
+     */
+    private DecisionTableImpl table(HitPolicy hitPolicy, List<String> outputValues, boolean literals, String... ruleOutputs) {
+        List<DTDecisionRule> rules = new ArrayList<>();
+        for ( int i = 0; i < ruleOutputs.length; i++ ) {
+            int index = i;
+            boolean matching = !"-".equals( ruleOutputs[i] );
+            DTDecisionRule rule = new DTDecisionRule( i );
+            rule.getInputEntry().add( (UnaryTest) (c, x) -> {
+                tested.add( index );
+                return matching;
+            } );
+            rule.getOutputEntry().add( output( index, ruleOutputs[i], literals ) );
+            rules.add( rule );
+        }
+        DTInputClause input = new DTInputClause( "x", null, null, new CompiledExpressionImpl( null, c -> c.getValue( "x" ) ) );
+        DTOutputClause output = new DTOutputClause( "out", outputValues );
+        return new DecisionTableImpl( "dt", Collections.singletonList( "x" ), Collections.singletonList( input ),
+                                      Collections.singletonList( output ), rules, hitPolicy );
+    }
+
+    private CompiledExpression output(int index, String value, boolean literal) {
+        return new CompiledExpressionImpl( literal ? new ConstantNode( new BaseNode(), value ) : null, c -> {
+            evaluated.add( index );
+            return value;
+        } );
+    }
+}
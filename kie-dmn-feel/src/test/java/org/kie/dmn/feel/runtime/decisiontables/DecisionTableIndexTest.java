@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.bits;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.entry;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.matchingRules;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.rule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode.UnaryOperator;
+import org.kie.dmn.feel.runtime.Range.RangeBoundary;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.runtime.impl.RangeImpl;
+
+public class DecisionTableIndexTest {
+
+    @Test
+    public void testCandidatesKeepTableOrder() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, constants( "GOLD" ), constants( "NY" ) ),
+                rule( 1, DTInputEntry.ANY, constants( "NY", "CA" ) ),
+                rule( 2, constants( "SILVER" ), DTInputEntry.ANY ),
+                rule( 3, constants( "GOLD" ), constants( "CA" ) ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 2, rules );
+
+        assertThat( index.getIndexedInputs(), is( 2 ) );
+        assertThat( index.candidates( new Object[]{ "GOLD", "NY" } ), is( bits( 0, 1 ) ) );
+        assertThat( index.candidates( new Object[]{ "GOLD", "CA" } ), is( bits( 1, 3 ) ) );
+        assertThat( index.candidates( new Object[]{ "SILVER", "TX" } ), is( bits( 2 ) ) );
+        assertThat( index.candidates( new Object[]{ null, "NY" } ), is( bits( 1 ) ) );
+    }
+
+    @Test
+    public void testOtherTestsAreNotIndexed() {
+        UnaryTest lessThanTen = (c, x) -> ((BigDecimal) x).compareTo( BigDecimal.TEN ) < 0;
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, constants( BigDecimal.ONE ), new DTInputEntry( Arrays.asList( lessThanTen ) ) ),
+                rule( 1, constants( BigDecimal.TEN ), DTInputEntry.ANY ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 2, rules );
+
+        assertThat( index.getIndexedInputs(), is( 1 ) );
+        assertThat( index.candidates( new Object[]{ BigDecimal.ONE, BigDecimal.TEN } ), is( bits( 0 ) ) );
+    }
+
+    @Test
+    public void testNumbersAreLookedUpByValue() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, constants( new BigDecimal( "26" ) ) ),
+                rule( 1, constants( new BigDecimal( "26.5" ) ) ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 1, rules );
+
+        assertThat( index.candidates( new Object[]{ new BigDecimal( "26.0" ) } ), is( bits( 0 ) ) );
+        assertThat( index.candidates( new Object[]{ new BigDecimal( "26.50" ) } ), is( bits( 1 ) ) );
+        assertThat( new DTInputEntry.EqualsConstant( new BigDecimal( "26" ) ).apply( null, new BigDecimal( "26.0" ) ), is( true ) );
+    }
+
+    @Test
+    public void testValuesOfOtherTypesAreNotLookedUp() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, constants( "GOLD" ) ),
+                rule( 1, constants( "SILVER" ) ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 1, rules );
+
+        assertThat( index.candidates( new Object[]{ 5 } ), is( bits( 0, 1 ) ) );
+    }
+
+    @Test
+    public void testNoIndexWithoutConstants() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, DTInputEntry.ANY ),
+                rule( 1, (UnaryTest) (c, x) -> true ) );
+
+        assertThat( DecisionTableIndex.build( 1, rules ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testRangesAndComparisons() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LT, number( 18 ) ) ) ),
+                rule( 1, entry( new DTInputEntry.IncludedInRange( new RangeImpl( RangeBoundary.CLOSED, number( 18 ), number( 25 ), RangeBoundary.OPEN ) ) ) ),
+                rule( 2, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.GTE, number( 25 ) ) ) ),
+                rule( 3, DTInputEntry.ANY ),
+                rule( 4, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.NE, number( 18 ) ) ) ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 1, rules );
+
+        assertThat( index.getIndexedInputs(), is( 1 ) );
+        assertThat( index.candidates( new Object[]{ number( 10 ) } ), is( bits( 0, 3, 4 ) ) );
+        assertThat( index.candidates( new Object[]{ number( 18 ) } ), is( bits( 1, 3 ) ) );
+        assertThat( index.candidates( new Object[]{ new BigDecimal( "18.0" ) } ), is( bits( 1, 3 ) ) );
+        assertThat( index.candidates( new Object[]{ number( 20 ) } ), is( bits( 1, 3, 4 ) ) );
+        assertThat( index.candidates( new Object[]{ number( 25 ) } ), is( bits( 2, 3, 4 ) ) );
+        assertThat( index.candidates( new Object[]{ number( 99 ) } ), is( bits( 2, 3, 4 ) ) );
+        // values of other types are not looked up
+        assertThat( index.candidates( new Object[]{ "20" } ), is( bits( 0, 1, 2, 3, 4 ) ) );
+    }
+
+    @Test
+    public void testIntervalIndexMatchesTheTests() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, entry( new DTInputEntry.IncludedInRange( new RangeImpl( RangeBoundary.OPEN, number( 1 ), number( 5 ), RangeBoundary.CLOSED ) ),
+                                new UnaryTestNode.ConstantComparison( UnaryOperator.EQ, number( 8 ) ) ) ),
+                rule( 1, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LTE, number( 3 ) ) ) ),
+                rule( 2, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.GT, number( 5 ) ) ) ) );
+        DecisionTableIndex index = DecisionTableIndex.build( 1, rules );
+
+        for ( int i = -1; i <= 10; i++ ) {
+            BigDecimal value = number( i );
+            Object[] params = { value };
+            assertThat( "value " + i, index.candidates( params ), is( matchingRules( rules, params ) ) );
+        }
+    }
+
+    @Test
+    public void testNoIntervalIndexForMixedTypes() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LT, number( 18 ) ) ) ),
+                rule( 1, entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LT, "b" ) ) ) );
+
+        assertThat( DecisionTableIndex.build( 1, rules ), is( nullValue() ) );
+    }
+
+    private static BigDecimal number(int value) {
+        return BigDecimal.valueOf( value );
+    }
+
+    private static DTInputEntry constants(Object... values) {
+        List<UnaryTest> tests = new ArrayList<>();
+        for ( Object value : values ) {
+            tests.add( new DTInputEntry.EqualsConstant( value ) );
+        }
+        return new DTInputEntry( tests );
+    }
+}
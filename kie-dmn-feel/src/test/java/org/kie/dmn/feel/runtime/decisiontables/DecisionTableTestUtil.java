@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.kie.dmn.feel.runtime.UnaryTest;
+
+/**
+ * Builds the rules of the decision table tests, and tells which of them
+ * match by testing every rule as the unoptimized decision table does.
+ */
+final class DecisionTableTestUtil {
+
+    static DTInputEntry entry(UnaryTest... tests) {
+        return new DTInputEntry( Arrays.asList( tests ) );
+    }
+
+    static DTDecisionRule rule(int index, UnaryTest... entries) {
+        DTDecisionRule rule = new DTDecisionRule( index );
+        rule.getInputEntry().addAll( Arrays.asList( entries ) );
+        return rule;
+    }
+
+    static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for ( int position : positions ) {
+            bits.set( position );
+        }
+        return bits;
+    }
+
+    static boolean matches(DTDecisionRule rule, Object[] params) {
+        for ( int i = 0; i < params.length; i++ ) {
+            if ( !rule.getInputEntry().get( i ).apply( null, params[i] ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the indexes of the rules matching the parameters
+     */
+    static BitSet matchingRules(List<DTDecisionRule> rules, Object[] params) {
+        BitSet matched = new BitSet();
+        for ( DTDecisionRule rule : rules ) {
+            if ( matches( rule, params ) ) {
+                matched.set( rule.getIndex() );
+            }
+        }
+        return matched;
+    }
+
+    private DecisionTableTestUtil() {
+        // No constructor for util class.
+    }
+}
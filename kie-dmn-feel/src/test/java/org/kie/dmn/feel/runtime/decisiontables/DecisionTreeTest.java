@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.bits;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.entry;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.matchingRules;
+import static org.kie.dmn.feel.runtime.decisiontables.DecisionTableTestUtil.rule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode;
+import org.kie.dmn.feel.lang.ast.UnaryTestNode.UnaryOperator;
+import org.kie.dmn.feel.runtime.UnaryTest;
+
+public class DecisionTreeTest {
+
+    @Test
+    public void testSameMatchesAsRuleByRule() {
+        DTInputEntry gold = entry( new DTInputEntry.EqualsConstant( "GOLD" ) );
+        DTInputEntry silver = entry( new DTInputEntry.EqualsConstant( "SILVER" ) );
+        DTInputEntry young = entry( new UnaryTestNode.ConstantComparison( UnaryOperator.LT, BigDecimal.valueOf( 25 ) ) );
+        DTInputEntry old = entry( new UnaryTestNode.ConstantComparison( UnaryOperator.GTE, BigDecimal.valueOf( 25 ) ) );
+        UnaryTest notNull = (c, x) -> x != null;
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, gold, young, notNull ),
+                rule( 1, gold, old, DTInputEntry.ANY ),
+                rule( 2, silver, DTInputEntry.ANY, notNull ),
+                rule( 3, DTInputEntry.ANY, young, DTInputEntry.ANY ),
+                rule( 4, silver, old, notNull ) );
+        DecisionTree tree = DecisionTree.build( 3, rules, DecisionTableIndex.build( 3, rules ), 100 );
+
+        for ( Object level : Arrays.asList( "GOLD", "SILVER", "BRONZE", null, 1 ) ) {
+            for ( Object age : Arrays.asList( BigDecimal.valueOf( 20 ), BigDecimal.valueOf( 25 ), BigDecimal.valueOf( 30 ) ) ) {
+                for ( Object other : Arrays.asList( "x", null ) ) {
+                    Object[] params = { level, age, other };
+                    BitSet expected = matchingRules( rules, params );
+                    assertThat( Arrays.toString( params ), tree.match( null, params, Integer.MAX_VALUE ), is( expected ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMostSelectiveInputFirst() {
+        // the first input only tells two groups apart, the second one tells every rule apart
+        List<DTDecisionRule> rules = new ArrayList<>();
+        for ( int i = 0; i < 8; i++ ) {
+            rules.add( rule( i, entry( new DTInputEntry.EqualsConstant( i < 4 ? "A" : "B" ) ), entry( new DTInputEntry.EqualsConstant( BigDecimal.valueOf( i ) ) ) ) );
+        }
+        DecisionTree tree = DecisionTree.build( 2, rules, DecisionTableIndex.build( 2, rules ), 100 );
+
+        // a branch on the second input, leading to a leaf per rule and one for no rule,
+        // and a branch on the first input for the values of the second one not looked up,
+        // leading to leaves for each group, no rule and every rule
+        assertThat( tree.getDepth(), is( 2 ) );
+        assertThat( tree.getNodeCount(), is( 14 ) );
+        BitSet matched = tree.match( null, new Object[]{ "B", BigDecimal.valueOf( 5 ) }, Integer.MAX_VALUE );
+        assertThat( matched.cardinality(), is( 1 ) );
+        assertThat( matched.get( 5 ), is( true ) );
+        assertThat( tree.match( null, new Object[]{ "A", BigDecimal.valueOf( 5 ) }, Integer.MAX_VALUE ).isEmpty(), is( true ) );
+    }
+
+    @Test
+    public void testDashesAreShared() {
+        List<DTDecisionRule> rules = Arrays.asList(
+                rule( 0, entry( new DTInputEntry.EqualsConstant( "A" ) ), entry( new DTInputEntry.EqualsConstant( "X" ) ) ),
+                rule( 1, entry( new DTInputEntry.EqualsConstant( "B" ) ), entry( new DTInputEntry.EqualsConstant( "X" ) ) ),
+                rule( 2, DTInputEntry.ANY, entry( new DTInputEntry.EqualsConstant( "Y" ) ) ),
+                rule( 3, DTInputEntry.ANY, DTInputEntry.ANY ) );
+        DecisionTree tree = DecisionTree.build( 2, rules, DecisionTableIndex.build( 2, rules ), 100 );
+
+        BitSet matched = tree.match( null, new Object[]{ "B", "X" }, Integer.MAX_VALUE );
+        assertThat( matched, is( bits( 1, 3 ) ) );
+        assertThat( tree.match( null, new Object[]{ "C", "Y" }, Integer.MAX_VALUE ), is( bits( 2, 3 ) ) );
+        assertThat( tree.match( null, new Object[]{ "A", "X" }, 1 ), is( bits( 0 ) ) );
+    }
+
+    @Test
+    public void testTooManyNodes() {
+        List<DTDecisionRule> rules = new ArrayList<>();
+        for ( int i = 0; i < 8; i++ ) {
+            rules.add( rule( i, entry( new DTInputEntry.EqualsConstant( BigDecimal.valueOf( i ) ) ) ) );
+        }
+
+        assertThat( DecisionTree.build( 1, rules, DecisionTableIndex.build( 1, rules ), 4 ), is( nullValue() ) );
+        assertThat( DecisionTree.build( 1, rules, null, 100 ), is( nullValue() ) );
+    }
+}
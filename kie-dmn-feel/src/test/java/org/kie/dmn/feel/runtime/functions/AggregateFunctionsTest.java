@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
+
+public class AggregateFunctionsTest {
+
+    private final EvaluationContext ctx = new EvaluationContextImpl( new FEELEventListenersManager() );
+
+    @Test
+    public void testSumKeepsTheScale() {
+        assertThat( sum( 1, 2, 3 ), is( new BigDecimal( "6" ) ) );
+        assertThat( sum( new BigDecimal( "1.50" ), 2, new BigDecimal( "0.5" ) ), is( new BigDecimal( "4.00" ) ) );
+        assertThat( sum( new BigDecimal( "1E+3" ), 1 ), is( new BigDecimal( "1001" ) ) );
+        assertThat( sum(), is( BigDecimal.ZERO ) );
+    }
+
+    @Test
+    public void testSumOverflowsToDecimal() {
+        BigDecimal max = BigDecimal.valueOf( 999999999999999999L );
+        BigDecimal expected = BigDecimal.ZERO;
+        Object[] values = new Object[20];
+        for ( int i = 0; i < values.length; i++ ) {
+            values[i] = i % 2 == 0 ? max : Long.MAX_VALUE;
+            expected = expected.add( i % 2 == 0 ? max : BigDecimal.valueOf( Long.MAX_VALUE ) );
+        }
+        assertThat( sum( values ), is( expected ) );
+    }
+
+    @Test
+    public void testIterables() {
+        Iterable<Object> values = once( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new SumFunction().invoke( ctx, values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 6 ) ) );
+
+        values = once( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new MeanFunction().invoke( ctx, values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 2 ) ) );
+
+        values = once( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new CountFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 3 ) ) );
+
+        values = once( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new MinFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 1 ) ) );
+
+        values = once( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new MaxFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 3 ) ) );
+    }
+
+    @Test
+    public void testListSignatures() {
+        List<Object> values = Arrays.asList( BigDecimal.valueOf( 3 ), BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ) );
+        assertThat( new SumFunction().invoke( ctx, values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( new MeanFunction().invoke( ctx, values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 2 ) ) );
+        assertThat( new CountFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( new MinFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 1 ) ) );
+        assertThat( new MaxFunction().invoke( values ).cata( e -> null, r -> r ), is( BigDecimal.valueOf( 3 ) ) );
+        assertThat( new AllFunction().invoke( Arrays.asList( true, false ) ).cata( e -> null, r -> r ), is( false ) );
+        assertThat( new AnyFunction().invoke( Arrays.asList( true, false ) ).cata( e -> null, r -> r ), is( true ) );
+    }
+
+    @Test
+    public void testListAndVarargsInvocations() {
+        FEEL feel = FEEL.newInstance();
+        Map<String, Object> inputs = Collections.singletonMap( "values", Arrays.asList( 3, 1, 2 ) );
+
+        assertThat( feel.evaluate( "sum( values )", inputs ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( feel.evaluate( "mean( values )", inputs ), is( BigDecimal.valueOf( 2 ) ) );
+        assertThat( feel.evaluate( "sum( values[1], values[2], values[3] )", inputs ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( feel.evaluate( "mean( values[1], values[2], values[3] )", inputs ), is( BigDecimal.valueOf( 2 ) ) );
+    }
+
+    @Test
+    public void testAllAndAnyStopEarly() {
+        // the elements after the deciding one would be an error
+        assertThat( new AllFunction().invoke( once( true, false, "not a boolean" ) ).cata( e -> null, r -> r ), is( false ) );
+        assertThat( new AnyFunction().invoke( once( false, true, "not a boolean" ) ).cata( e -> null, r -> r ), is( true ) );
+    }
+
+    @Test
+    public void testMinOfEmptyListIsAnError() {
+        assertThat( new MinFunction().invoke( Arrays.asList() ).isLeft(), is( true ) );
+        assertThat( new MaxFunction().invoke( Arrays.asList() ).isLeft(), is( true ) );
+    }
+
+    private Object sum(Object... values) {
+        return new SumFunction().invoke( ctx, values ).cata( e -> null, r -> r );
+    }
+
+    /**
+     * An iterable that is neither a list nor a collection, and can only be iterated once
+     */
+    private static Iterable<Object> once(Object... values) {
+        List<Object> list = Arrays.asList( values );
+        boolean[] iterated = new boolean[1];
+        return () -> {
+            if ( iterated[0] ) {
+                throw new IllegalStateException( "iterated twice" );
+            }
+            iterated[0] = true;
+            Iterator<Object> it = list.iterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return it.next();
+                }
+            };
+        };
+    }
+}
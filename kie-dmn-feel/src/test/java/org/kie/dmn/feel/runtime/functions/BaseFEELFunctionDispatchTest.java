@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.EvaluationContextImpl;
+import org.kie.dmn.feel.lang.impl.FEELEventListenersManager;
+import org.kie.dmn.feel.lang.impl.NamedParameter;
+import org.kie.dmn.feel.runtime.events.FEELEvent;
+
+public class BaseFEELFunctionDispatchTest {
+
+    @Test
+    public void testOverloadIsChosenByClassAfterCacheHit() {
+        DispatchFunction function = new DispatchFunction();
+        BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+
+        assertThat( function.invokeReflectively( ctx, new Object[]{ "a" }, callSite ), is( "string a" ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.ONE }, callSite ), is( "number 1" ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ "b" }, callSite ), is( "string b" ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.TEN }, null ), is( "number 10" ) );
+    }
+
+    @Test
+    public void testPositionalThenNamedParameters() {
+        DispatchFunction function = new DispatchFunction();
+        BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.TEN, BigDecimal.ONE }, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+        Object[] named = { new NamedParameter( "b", BigDecimal.ONE ), new NamedParameter( "a", BigDecimal.TEN ) };
+        assertThat( function.invokeReflectively( ctx, named, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+        assertThat( function.invokeReflectively( ctx, named, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.ONE, BigDecimal.TEN }, callSite ), is( BigDecimal.valueOf( -9 ) ) );
+    }
+
+    @Test
+    public void testNullParameters() {
+        DispatchFunction function = new DispatchFunction();
+        BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.TEN, BigDecimal.ONE }, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ null, BigDecimal.ONE }, callSite ), is( nullValue() ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.TEN, null }, callSite ), is( nullValue() ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ BigDecimal.TEN, BigDecimal.ONE }, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+    }
+
+    @Test
+    public void testVariableParameters() {
+        SumFunction sum = new SumFunction();
+        BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+        Object[] numbers = { BigDecimal.valueOf( 1 ), BigDecimal.valueOf( 2 ), BigDecimal.valueOf( 3 ) };
+
+        assertThat( sum.invokeReflectively( ctx, numbers, callSite ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( sum.invokeReflectively( ctx, new Object[]{ Arrays.asList( numbers ) }, callSite ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( sum.invokeReflectively( ctx, numbers, callSite ), is( BigDecimal.valueOf( 6 ) ) );
+        assertThat( sum.invokeReflectively( ctx, new Object[]{ BigDecimal.valueOf( 4 ), BigDecimal.valueOf( 5 ) }, callSite ), is( BigDecimal.valueOf( 9 ) ) );
+    }
+
+    @Test
+    public void testContextIsInjected() {
+        DispatchFunction function = new DispatchFunction();
+        BaseFEELFunction.CallSiteCache callSite = new BaseFEELFunction.CallSiteCache();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+        EvaluationContext other = newContext( new ArrayList<>() );
+
+        assertThat( function.invokeReflectively( ctx, new Object[]{ Boolean.TRUE }, callSite ), is( sameInstance( ctx ) ) );
+        assertThat( function.invokeReflectively( other, new Object[]{ Boolean.TRUE }, callSite ), is( sameInstance( other ) ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ new NamedParameter( "flag", Boolean.TRUE ) }, callSite ), is( sameInstance( ctx ) ) );
+    }
+
+    @Test
+    public void testErrorsAreReported() {
+        DispatchFunction function = new DispatchFunction();
+        List<FEELEvent> events = new ArrayList<>();
+        EvaluationContext ctx = newContext( events );
+
+        assertThat( function.invokeReflectively( ctx, new Object[]{ Boolean.FALSE }, new BaseFEELFunction.CallSiteCache() ), is( nullValue() ) );
+        assertThat( events.size(), is( 1 ) );
+        assertThat( events.get( 0 ).getMessage(), is( "Error trying to call function dispatch." ) );
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        DispatchFunction function = new DispatchFunction();
+        EvaluationContext ctx = newContext( new ArrayList<>() );
+        int shapes = BaseFEELFunction.MAX_CACHED_DISPATCHES + 10;
+
+        for ( int dimensions = 1; dimensions <= shapes; dimensions++ ) {
+            // each number of dimensions is a different class of parameter
+            Object array = Array.newInstance( Object.class, new int[dimensions] );
+            assertThat( ((Object[]) function.invokeReflectively( ctx, new Object[]{ array }, null ))[0], is( sameInstance( array ) ) );
+        }
+        assertThat( function.cachedDispatches(), is( BaseFEELFunction.MAX_CACHED_DISPATCHES ) );
+
+        // the shapes that were not cached are still resolved on every call
+        Object array = Array.newInstance( Object.class, new int[shapes] );
+        assertThat( ((Object[]) function.invokeReflectively( ctx, new Object[]{ array }, new BaseFEELFunction.CallSiteCache() ))[0], is( sameInstance( array ) ) );
+        assertThat( function.invokeReflectively( ctx, new Object[]{ "a" }, null ), is( "string a" ) );
+        assertThat( function.cachedDispatches(), is( BaseFEELFunction.MAX_CACHED_DISPATCHES ) );
+    }
+
+    private static EvaluationContext newContext(List<FEELEvent> events) {
+        FEELEventListenersManager manager = new FEELEventListenersManager();
+        manager.addListener( events::add );
+        return new EvaluationContextImpl( manager );
+    }
+
+    static class DispatchFunction
+            extends BaseFEELFunction {
+
+        DispatchFunction() {
+            super( "dispatch" );
+        }
+
+        public String invoke(@ParameterName("a") String a) {
+            return "string " + a;
+        }
+
+        public String invoke(@ParameterName("a") BigDecimal a) {
+            return "number " + a;
+        }
+
+        public Object[] invoke(@ParameterName("a") Object... a) {
+            return a;
+        }
+
+        public BigDecimal invoke(@ParameterName("a") BigDecimal a, @ParameterName("b") BigDecimal b) {
+            return a != null && b != null ? a.subtract( b ) : null;
+        }
+
+        public EvaluationContext invoke(@ParameterName("ctx") EvaluationContext ctx, @ParameterName("flag") Boolean flag) {
+            if ( !flag ) {
+                throw new IllegalArgumentException( "flag must be set" );
+            }
+            return ctx;
+        }
+    }
+}
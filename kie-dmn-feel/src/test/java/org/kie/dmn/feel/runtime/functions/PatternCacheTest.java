@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+import org.kie.dmn.feel.runtime.events.InvalidParametersEvent;
+
+public class PatternCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        PatternCache cache = new PatternCache( 10 );
+        Pattern p = cache.compile( "^[A-Z]{2}[0-9]{9}$", 0 );
+        assertThat( cache.compile( "^[A-Z]{2}[0-9]{9}$", 0 ), is( sameInstance( p ) ) );
+
+        assertThat( cache.getMisses(), is( 1L ) );
+        assertThat( cache.getHits(), is( 1L ) );
+    }
+
+    @Test
+    public void testKeyedByFlags() {
+        PatternCache cache = new PatternCache( 10 );
+        Pattern p = cache.compile( "foo", 0 );
+        Pattern i = cache.compile( "foo", PatternCache.toFlags( "i" ) );
+
+        assertThat( i == p, is( false ) );
+        assertThat( i.matcher( "FOO" ).find(), is( true ) );
+        assertThat( cache.getMisses(), is( 2L ) );
+    }
+
+    @Test
+    public void testBounded() {
+        PatternCache cache = new PatternCache( 2 );
+        cache.compile( "a", 0 );
+        cache.compile( "b", 0 );
+        cache.compile( "c", 0 );
+
+        assertThat( cache.size(), is( 2 ) );
+        assertThat( cache.getEvictions(), is( 1L ) );
+    }
+
+    @Test
+    public void testInvalidPatternsAreNotCached() {
+        PatternCache cache = new PatternCache( 10 );
+        try {
+            cache.compile( "[a-z", 0 );
+            fail( "invalid pattern compiled" );
+        } catch ( PatternSyntaxException e ) {
+            // expected
+        }
+        assertThat( cache.size(), is( 0 ) );
+    }
+
+    @Test
+    public void testInvalidPatternIsReported() {
+        FEELFnResult<Boolean> result = new MatchesFunction().invoke( "foo", "[a-z" );
+        assertThat( result.isLeft(), is( true ) );
+        assertThat( result.cata( e -> e, r -> null ), is( instanceOf( InvalidParametersEvent.class ) ) );
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.dmn.feel.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.function.BinaryOperator;
+
+import org.junit.Test;
+
+public class DecimalArithmeticTest {
+
+    private static final String[] VALUES = {
+            "0", "0.00", "1", "-1", "2", "3", "7", "10", "100", "12.50", "-0.01", "1E+3", "1E-5",
+            "9223372036854775807", "-9223372036854775808", "999999999999999999",
+            "123456789012345678901234567890", "0.1234567890123456789012345678901234",
+            "9999999999999999999999999999999999", "1E+6144", "1E-6143"
+    };
+
+    @Test
+    public void testAdd() {
+        assertSameAsDecimal128( DecimalArithmetic::add, (l, r) -> l.add( r, MathContext.DECIMAL128 ) );
+    }
+
+    @Test
+    public void testSubtract() {
+        assertSameAsDecimal128( DecimalArithmetic::subtract, (l, r) -> l.subtract( r, MathContext.DECIMAL128 ) );
+    }
+
+    @Test
+    public void testMultiply() {
+        assertSameAsDecimal128( DecimalArithmetic::multiply, (l, r) -> l.multiply( r, MathContext.DECIMAL128 ) );
+    }
+
+    @Test
+    public void testDivide() {
+        assertSameAsDecimal128( DecimalArithmetic::divide, (l, r) -> l.divide( r, MathContext.DECIMAL128 ) );
+    }
+
+    private void assertSameAsDecimal128(BinaryOperator<BigDecimal> actual, BinaryOperator<BigDecimal> expected) {
+        for ( String left : VALUES ) {
+            for ( String right : VALUES ) {
+                BigDecimal l = new BigDecimal( left );
+                BigDecimal r = new BigDecimal( right );
+                String description = left + " and " + right;
+                String expectedResult;
+                try {
+                    expectedResult = expected.apply( l, r ).toString();
+                } catch ( ArithmeticException e ) {
+                    expectedResult = "ArithmeticException";
+                }
+                String actualResult;
+                try {
+                    // the string representation also compares the scale
+                    actualResult = actual.apply( l, r ).toString();
+                } catch ( ArithmeticException e ) {
+                    actualResult = "ArithmeticException";
+                }
+                assertThat( description, actualResult, is( expectedResult ) );
+            }
+        }
+    }
+}
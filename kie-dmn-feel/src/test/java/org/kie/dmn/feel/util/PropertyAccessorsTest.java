@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import test.Person;
+
+public class PropertyAccessorsTest {
+
+    @Test
+    public void testAnnotatedAndJavaBeanProperties() throws Exception {
+        Person person = new Person( "John", "Doe", 47 );
+        PropertyAccessors accessors = PropertyAccessors.of( Person.class );
+
+        assertThat( accessors.get( "first name" ).get( person ), is( "John" ) );
+        assertThat( accessors.get( "firstName" ).get( person ), is( "John" ) );
+        // primitive results are boxed
+        assertThat( accessors.get( "age" ).get( person ), is( 47 ) );
+    }
+
+    @Test
+    public void testResolvedOnce() {
+        PropertyAccessors accessors = PropertyAccessors.of( Person.class );
+
+        assertThat( PropertyAccessors.of( Person.class ), is( sameInstance( accessors ) ) );
+        assertThat( accessors.get( "last name" ), is( sameInstance( accessors.get( "last name" ) ) ) );
+    }
+
+    @Test
+    public void testMissingProperty() {
+        assertThat( PropertyAccessors.of( Person.class ).get( "no such property" ), is( nullValue() ) );
+        assertThat( PropertyAccessors.of( Person.class ).get( "no such property" ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testGetValue() throws Exception {
+        Person person = new Person( "John", "Doe", 47 );
+
+        assertThat( EvalHelper.getValue( person, "last name" ), is( "Doe" ) );
+        assertThat( EvalHelper.getValue( person, "age" ), is( BigDecimal.valueOf( 47 ) ) );
+        assertThat( EvalHelper.getValue( person, "no such property" ), is( nullValue() ) );
+    }
+}